@@ -0,0 +1,71 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.QuantityDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the request and response bodies of the stock endpoints with an {@link ObjectMapper} configured the way
+ * Spring MVC configures its own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeerJsonBenchmark {
+
+    private BeerDTO beerDTO;
+    private QuantityDTO quantityDTO;
+
+    private ObjectWriter beerWriter;
+    private ObjectReader beerReader;
+    private ObjectWriter quantityWriter;
+    private ObjectReader quantityReader;
+
+    private String beerJson;
+    private String quantityJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        beerWriter = objectMapper.writerFor(BeerDTO.class);
+        beerReader = objectMapper.readerFor(BeerDTO.class);
+        quantityWriter = objectMapper.writerFor(QuantityDTO.class);
+        quantityReader = objectMapper.readerFor(QuantityDTO.class);
+
+        beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        quantityDTO = QuantityDTO.builder().quantity(10).build();
+        beerJson = beerWriter.writeValueAsString(beerDTO);
+        quantityJson = quantityWriter.writeValueAsString(quantityDTO);
+    }
+
+    @Benchmark
+    public String serializeBeer() throws IOException {
+        return beerWriter.writeValueAsString(beerDTO);
+    }
+
+    @Benchmark
+    public BeerDTO deserializeBeer() throws IOException {
+        return beerReader.readValue(beerJson);
+    }
+
+    @Benchmark
+    public String serializeQuantity() throws IOException {
+        return quantityWriter.writeValueAsString(quantityDTO);
+    }
+
+    @Benchmark
+    public QuantityDTO deserializeQuantity() throws IOException {
+        return quantityReader.readValue(quantityJson);
+    }
+}
@@ -0,0 +1,97 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerCache;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thundering herd of 64 threads reading the same beer by name, with and without single-flight coalescing. The
+ * beer is evicted from {@link BeerCache} before every read and Hibernate's second-level cache is off, so each read
+ * has to go to the database; the number of {@code findByName} queries actually run per read is printed after each
+ * iteration next to the JMH latencies.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class BeerLookupHerdBenchmark {
+
+    private static final String BEER_NAME = "Colorado Kuya";
+
+    @Param({"true", "false"})
+    public boolean singleFlight;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private BeerCache beerCache;
+    private MeterRegistry meterRegistry;
+    private Long beerId;
+    private final LongAdder reads = new LongAdder();
+    private long queriesBeforeIteration;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start(
+                "beerstock.single-flight.enabled=" + singleFlight,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        beerService = context.getBean(BeerService.class);
+        beerCache = context.getBean(BeerCache.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+
+        beerId = context.getBean(BeerRepository.class).save(Beer.builder()
+                .name(BEER_NAME)
+                .brand("Cervejaria Colorado")
+                .max(50)
+                .quantity(10)
+                .type(BeerType.IPA)
+                .build()).getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetCounts() {
+        reads.reset();
+        queriesBeforeIteration = findByNameQueries();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printQueries() {
+        long queries = findByNameQueries() - queriesBeforeIteration;
+        System.out.printf("%nsingleFlight=%s reads: %d, findByName queries: %d (%.3f per read)%n",
+                singleFlight, reads.sum(), queries, reads.sum() == 0 ? 0.0 : (double) queries / reads.sum());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO findByNameUnderHerd() throws BeerNotFoundException {
+        beerCache.evict(beerId, BEER_NAME);
+        reads.increment();
+        return beerService.findByName(BEER_NAME);
+    }
+
+    private long findByNameQueries() {
+        Timer timer = meterRegistry.find("spring.data.repository.invocations")
+                .tag("repository", "BeerRepository")
+                .tag("method", "findByName")
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,40 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.benchmark;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BeerMapperBenchmark {
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private BeerDTO beerDTO;
+
+    private Beer beer;
+
+    @Setup
+    public void setUp() {
+        beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beer = beerMapper.toModel(beerDTO);
+    }
+
+    @Benchmark
+    public BeerDTO toDTO() {
+        return beerMapper.toDTO(beer);
+    }
+
+    @Benchmark
+    public Beer toModel() {
+        return beerMapper.toModel(beerDTO);
+    }
+}
@@ -0,0 +1,70 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerViewService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the same listings to JSON through the entity path ({@link BeerService}, loading entities and mapping
+ * them with {@code BeerMapper.toDTO}) and through the projection path ({@link BeerViewService}). Run with the gc
+ * profiler, the default of the {@code jmh} profile, to compare {@code gc.alloc.rate.norm}, the bytes allocated per
+ * listing. The query cache is off so both paths read the rows every time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeerReadPathBenchmark {
+
+    private static final int CATALOGUE_SIZE = 1_000;
+    private static final int PAGE_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private BeerViewService beerViewService;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start("spring.jpa.properties.hibernate.cache.use_query_cache=false");
+        beerService = context.getBean(BeerService.class);
+        beerViewService = context.getBean(BeerViewService.class);
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        context.getBean(JdbcTemplate.class).update("insert into beer (id, name, brand, max, quantity, type, version) " +
+                "select x, concat('Beer ', x), concat('Brand ', mod(x, 50)), 100, mod(x, 100), 'LAGER', 0 " +
+                "from system_range(1, ?)", CATALOGUE_SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] listAllEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(beerService.listAll());
+    }
+
+    @Benchmark
+    public byte[] listAllViews() throws Exception {
+        return objectMapper.writeValueAsBytes(beerViewService.listAll());
+    }
+
+    @Benchmark
+    public byte[] listPageOfEntities() throws Exception {
+        return objectMapper.writeValueAsBytes(beerService.listAfter(null, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public byte[] listPageOfViews() throws Exception {
+        return objectMapper.writeValueAsBytes(beerViewService.listAfter(null, PAGE_SIZE));
+    }
+}
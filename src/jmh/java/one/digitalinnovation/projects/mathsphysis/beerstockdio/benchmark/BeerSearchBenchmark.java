@@ -0,0 +1,78 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.benchmark;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerSearchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link BeerService#search} against a catalogue of a million beers spread over 1000 brands and every
+ * {@link BeerType}. The H2 query plans of the filters are printed before the measurements, so a run also shows
+ * which index each search is answered from.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class BeerSearchBenchmark {
+
+    private static final int CATALOGUE_SIZE = 1_000_000;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+
+    private final BeerSearchDTO byBrand = BeerSearchDTO.builder().brand("Brand 42").build();
+    private final BeerSearchDTO lowStockByType = BeerSearchDTO.builder().type(BeerType.STOUT).maxQuantity(5).build();
+    private final BeerSearchDTO lowFillRatioByType = BeerSearchDTO.builder().type(BeerType.IPA).maxQuantity(20).maxFillRatio(0.1).build();
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        beerService = context.getBean(BeerService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        int types = BeerType.values().length;
+        jdbcTemplate.update("insert into beer (id, name, brand, max, quantity, type, version) " +
+                "select x, concat('Beer ', x), concat('Brand ', mod(x, 1000)), 200, mod(x, 200), " +
+                "casewhen(mod(x, ?) = 0, 'LAGER', casewhen(mod(x, ?) = 1, 'STOUT', 'IPA')), 0 " +
+                "from system_range(1, ?)", types, types, CATALOGUE_SIZE);
+        jdbcTemplate.execute("analyze");
+
+        printPlan(jdbcTemplate, "select id from beer where brand = 'Brand 42' order by id");
+        printPlan(jdbcTemplate, "select id from beer where type = 'STOUT' and quantity <= 5 order by id");
+        printPlan(jdbcTemplate, "select id from beer where type = 'IPA' and quantity <= 20 and quantity <= max * 0.1 order by id");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerPageDTO searchByBrand() throws Exception {
+        return beerService.search(byBrand, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public BeerPageDTO searchLowStockByType() throws Exception {
+        return beerService.search(lowStockByType, PageRequest.of(0, 20, Sort.by("quantity")));
+    }
+
+    @Benchmark
+    public BeerPageDTO searchLowFillRatioByType() throws Exception {
+        return beerService.search(lowFillRatioByType, PageRequest.of(0, 20));
+    }
+
+    private static void printPlan(JdbcTemplate jdbcTemplate, String sql) {
+        System.out.printf("%n%s%n%s%n", sql, jdbcTemplate.queryForObject("explain " + sql, String.class));
+    }
+}
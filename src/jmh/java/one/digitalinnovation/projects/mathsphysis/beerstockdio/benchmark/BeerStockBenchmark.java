@@ -0,0 +1,93 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.benchmark;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BeerService#increment} and {@link BeerService#decrement} against in-memory H2, first from a single
+ * thread and then with several threads updating the same beer. The beer has enough room in both directions for a
+ * whole iteration, and its quantity is reset before each iteration, so no call is rejected.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeerStockBenchmark {
+
+    private static final int MAX_QUANTITY = 1_000_000_000;
+    private static final int INITIAL_QUANTITY = MAX_QUANTITY / 2;
+    private static final int QUANTITY = 1;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private JdbcTemplate jdbcTemplate;
+    private Long beerId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        beerService = context.getBean(BeerService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        Beer beer = context.getBean(BeerRepository.class).save(Beer.builder()
+                .name("Colorado Kuya")
+                .brand("Cervejaria Colorado")
+                .max(MAX_QUANTITY)
+                .quantity(INITIAL_QUANTITY)
+                .type(BeerType.IPA)
+                .build());
+        beerId = beer.getId();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetQuantity() {
+        jdbcTemplate.update("update beer set quantity = ? where id = ?", INITIAL_QUANTITY, beerId);
+        context.getBean(EntityManagerFactory.class).getCache().evict(Beer.class, beerId);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public BeerDTO increment() throws Exception {
+        return beerService.increment(beerId, QUANTITY);
+    }
+
+    @Benchmark
+    public BeerDTO decrement() throws Exception {
+        return beerService.decrement(beerId, QUANTITY);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public BeerDTO contendedIncrement() throws Exception {
+        return beerService.increment(beerId, QUANTITY);
+    }
+
+    @Benchmark
+    @Group("contendedIncrementAndDecrement")
+    @GroupThreads(4)
+    public BeerDTO contendedIncrementer() throws Exception {
+        return beerService.increment(beerId, QUANTITY);
+    }
+
+    @Benchmark
+    @Group("contendedIncrementAndDecrement")
+    @GroupThreads(4)
+    public BeerDTO contendedDecrementer() throws Exception {
+        return beerService.decrement(beerId, QUANTITY);
+    }
+}
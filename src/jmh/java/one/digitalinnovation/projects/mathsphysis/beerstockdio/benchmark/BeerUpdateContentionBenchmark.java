@@ -0,0 +1,98 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.MessageResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puts unconditional {@link BeerService#updateById} calls and stock increments on the same beer, so updates keep
+ * losing optimistic locking races against the version bumps of the increments and have to be retried. The retry
+ * and exhaustion counts of each iteration are printed next to the JMH results.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeerUpdateContentionBenchmark {
+
+    private static final int MAX_QUANTITY = 1_000_000_000;
+    private static final int INITIAL_QUANTITY = MAX_QUANTITY / 2;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+    private BeerDTO updateDTO;
+
+    @Setup(Level.Trial)
+    public void startApplication() throws Exception {
+        context = BenchmarkApplication.start();
+        beerService = context.getBean(BeerService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        meterRegistry = context.getBean(MeterRegistry.class);
+
+        BeerDTO beerDTO = beerService.createBeer(BeerDTO.builder()
+                .name("Colorado Kuya")
+                .brand("Cervejaria Colorado")
+                .max(MAX_QUANTITY)
+                .quantity(INITIAL_QUANTITY)
+                .type(BeerType.IPA)
+                .build());
+        updateDTO = BeerDTO.builder()
+                .id(beerDTO.getId())
+                .name(beerDTO.getName())
+                .brand(beerDTO.getBrand())
+                .max(MAX_QUANTITY)
+                .quantity(INITIAL_QUANTITY)
+                .type(BeerType.IPA)
+                .build();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetQuantity() {
+        jdbcTemplate.update("update beer set quantity = ? where id = ?", INITIAL_QUANTITY, updateDTO.getId());
+        context.getBean(EntityManagerFactory.class).getCache().evict(Beer.class, updateDTO.getId());
+    }
+
+    @TearDown(Level.Iteration)
+    public void printRetries() {
+        System.out.printf("%nupdateById retries: %.0f, exhausted: %.0f%n",
+                meterRegistry.counter("beerstock.conflict.retries", "operation", "updateById").count(),
+                meterRegistry.counter("beerstock.conflict.exhausted", "operation", "updateById").count());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("updateAgainstIncrements")
+    @GroupThreads(2)
+    public MessageResponseDTO updater() throws Exception {
+        try {
+            return beerService.updateById(updateDTO.getId(), updateDTO);
+        } catch (ConcurrencyFailureException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    @Group("updateAgainstIncrements")
+    @GroupThreads(6)
+    public BeerDTO incrementer() throws Exception {
+        return beerService.increment(updateDTO.getId(), 1);
+    }
+}
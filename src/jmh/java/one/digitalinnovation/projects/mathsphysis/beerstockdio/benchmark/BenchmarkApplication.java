@@ -0,0 +1,28 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.benchmark;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application without a web server against a private in-memory H2 database, so benchmarks go through
+ * the real service, transaction and repository stack.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(BeerstockApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:beerstock-benchmark;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,93 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.benchmark;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.WarehouseStockDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.WarehouseStockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves stock in a catalogue of 100,000 beers stocked in 100 warehouses each, ten million location rows in all.
+ * With {@code beers = 1} every thread moves the same beer: location increments spread over its 100 rows but also
+ * update the totals on the beer row in the same transaction, so they queue on it like increments of the total do.
+ * Reading the total from the beer row is measured against summing the locations on every read.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@Threads(16)
+@State(Scope.Benchmark)
+public class WarehouseStockBenchmark {
+
+    private static final int CATALOGUE_SIZE = 100_000;
+    private static final int WAREHOUSES = 100;
+    private static final int MAX_QUANTITY = 1_000_000_000;
+    private static final int INITIAL_LOCATION_QUANTITY = 500;
+
+    @Param({"1", "100000"})
+    private int beers;
+
+    private ConfigurableApplicationContext context;
+    private WarehouseStockService warehouseStockService;
+    private BeerService beerService;
+    private BeerRepository beerRepository;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkApplication.start();
+        warehouseStockService = context.getBean(WarehouseStockService.class);
+        beerService = context.getBean(BeerService.class);
+        beerRepository = context.getBean(BeerRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        int allocated = WAREHOUSES * INITIAL_LOCATION_QUANTITY;
+        jdbcTemplate.update("insert into beer (id, name, brand, max, quantity, allocated, type, version) " +
+                "select x, concat('Beer ', x), 'Brand', ?, ?, ?, 'LAGER', 0 from system_range(1, ?)",
+                MAX_QUANTITY, allocated, allocated, CATALOGUE_SIZE);
+        jdbcTemplate.update("insert into warehouse_stock (beer_id, warehouse_id, max, quantity) " +
+                "select b.x, w.x, ?, ? from system_range(1, ?) b, system_range(1, ?) w",
+                MAX_QUANTITY, INITIAL_LOCATION_QUANTITY, CATALOGUE_SIZE, WAREHOUSES);
+        jdbcTemplate.execute("analyze");
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public WarehouseStockDTO incrementLocation() throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return warehouseStockService.increment(randomBeerId(random), 1L + random.nextInt(WAREHOUSES), 1);
+    }
+
+    @Benchmark
+    public BeerDTO incrementTotal() throws Exception {
+        return beerService.increment(randomBeerId(ThreadLocalRandom.current()), 1);
+    }
+
+    @Benchmark
+    public int readTotal() {
+        return beerRepository.findById(randomBeerId(ThreadLocalRandom.current())).map(Beer::getQuantity).orElse(0);
+    }
+
+    @Benchmark
+    public Integer sumLocationsOnRead() {
+        return jdbcTemplate.queryForObject("select sum(quantity) from warehouse_stock where beer_id = ?",
+                Integer.class, randomBeerId(ThreadLocalRandom.current()));
+    }
+
+    private long randomBeerId(ThreadLocalRandom random) {
+        return 1L + random.nextInt(beers);
+    }
+}
@@ -0,0 +1,66 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.RetryProperties;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Applies {@link RetryOnConflict}. The aspect is ordered ahead of the transaction interceptor, so every attempt
+ * begins and ends its own transaction, and right after {@link ServiceMetricsAspect}, so service timings include the
+ * retries. When the method joins a transaction started by its caller, a conflict has already doomed that
+ * transaction; the exception is then passed on without retrying.
+ * <p>
+ * Every call is counted in {@code beerstock.conflict.calls}, every retry in {@code beerstock.conflict.retries} and
+ * every call that still fails after the last attempt in {@code beerstock.conflict.exhausted}, all tagged with the
+ * operation name; retries divided by calls gives the retry rate.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ConflictRetryAspect {
+
+    private final RetryProperties retryProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(one.digitalinnovation.projects.mathsphysis.beerstockdio.aspect.RetryOnConflict)")
+    public Object retryOnConflict(ProceedingJoinPoint joinPoint) throws Throwable {
+        String operation = joinPoint.getSignature().getName();
+        meterRegistry.counter("beerstock.conflict.calls", "operation", operation).increment();
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return joinPoint.proceed();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= retryProperties.getMaxAttempts()) {
+                    meterRegistry.counter("beerstock.conflict.exhausted", "operation", operation).increment();
+                    throw e;
+                }
+
+                meterRegistry.counter("beerstock.conflict.retries", "operation", operation).increment();
+                log.debug("Retrying {} after attempt {} failed: {}", operation, attempt, e.getMessage());
+                try {
+                    Thread.sleep(retryProperties.backoffBeforeRetry(attempt).toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
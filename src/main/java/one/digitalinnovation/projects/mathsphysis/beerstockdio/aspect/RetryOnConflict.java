@@ -0,0 +1,19 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.aspect;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retries the annotated method when it fails with a
+ * {@link org.springframework.dao.ConcurrencyFailureException}: an optimistic locking conflict, a lock that could
+ * not be acquired or a deadlock. Each attempt runs in a transaction of its own, so the method must be safe to
+ * run again from scratch.
+ *
+ * @see ConflictRetryAspect
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,51 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.StockMetrics;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public {@code BeerService} operation as {@code beerstock.service}, tagged with the method, the
+ * outcome ({@code success} or {@code error}) and the simple name of the exception, {@code none} on success.
+ * Percentiles and histogram buckets are configured under {@code management.metrics.distribution}. Stock
+ * rejections thrown by the service are also counted through {@link StockMetrics}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final StockMetrics stockMetrics;
+
+    @Around("execution(public * one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable failure = null;
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            failure = t;
+            stockMetrics.recordRejection(method, t);
+            throw t;
+        } finally {
+            sample.stop(Timer.builder("beerstock.service")
+                    .description("BeerService operations")
+                    .tag("method", method)
+                    .tag("outcome", failure == null ? "success" : "error")
+                    .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                    .register(meterRegistry));
+        }
+    }
+}
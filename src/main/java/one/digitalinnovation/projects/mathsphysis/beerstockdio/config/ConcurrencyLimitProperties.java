@@ -0,0 +1,50 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Whether requests to the beer API beyond the adaptive concurrency limit are turned away.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Requests allowed in progress at once before the first adjustment.
+     */
+    private int initialLimit = 32;
+
+    /**
+     * Lowest the limit is cut to, however slow requests get.
+     */
+    private int minLimit = 4;
+
+    /**
+     * Highest the limit grows to, however fast requests are.
+     */
+    private int maxLimit = 256;
+
+    /**
+     * A request taking longer than this cuts the limit; a faster one raises it by one while the limit is in use.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /**
+     * Factor the limit is multiplied by on every slow request.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Routes that take a slot but never adjust the limit, as they are slow by nature: bulk imports and exports and
+     * the stock stream.
+     */
+    private List<String> unsampledPaths = List.of("/api/v1/beers/import", "/api/v1/beers/export", "/api/v1/beers/stream");
+}
@@ -0,0 +1,29 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.Data;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.IdempotencyRecord;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * Largest number of responses kept in memory; older ones are still answered from the database.
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * How long a key is remembered, both in memory and in the database. A retry after that is applied again.
+     */
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Longest accepted {@code Idempotency-Key} header, at most {@link IdempotencyRecord#MAX_KEY_LENGTH}.
+     */
+    private int maxKeyLength = IdempotencyRecord.MAX_KEY_LENGTH;
+}
@@ -0,0 +1,21 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.listing")
+public class ListingProperties {
+
+    /**
+     * Hard cap on the number of beers returned by the unpaged listing.
+     */
+    private int maxResults = 1000;
+
+    /**
+     * Largest page size accepted by the offset and keyset paged listings.
+     */
+    private int maxPageSize = 100;
+}
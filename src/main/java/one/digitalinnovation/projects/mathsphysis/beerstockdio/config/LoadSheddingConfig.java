@@ -0,0 +1,35 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.controller.ConcurrencyLimitInterceptor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.controller.RateLimitInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the per-client rate limit and then the adaptive concurrency limit in front of every beer API route, each
+ * when enabled with {@code beerstock.rate-limit.enabled} and {@code beerstock.concurrency-limit.enabled}. Rate
+ * limiting goes first so a client over its budget never takes a concurrency slot. The flip side is that a request
+ * turned away by the concurrency limit has already spent a token of its client's rate budget. Actuator endpoints are
+ * left out.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class LoadSheddingConfig implements WebMvcConfigurer {
+
+    private static final String BEER_API_PATTERN = "/api/v1/beers/**";
+
+    private final ObjectProvider<RateLimitInterceptor> rateLimitInterceptor;
+    private final ObjectProvider<ConcurrencyLimitInterceptor> concurrencyLimitInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        rateLimitInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns(BEER_API_PATTERN));
+        concurrencyLimitInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns(BEER_API_PATTERN));
+    }
+}
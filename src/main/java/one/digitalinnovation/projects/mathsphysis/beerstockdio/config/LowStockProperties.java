@@ -0,0 +1,17 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.low-stock")
+public class LowStockProperties {
+
+    /**
+     * Fraction of {@code max} below which a beer is low on stock, e.g. {@code 0.2} flags a beer with a max of 50
+     * once fewer than 10 are left.
+     */
+    private double threshold = 0.2;
+}
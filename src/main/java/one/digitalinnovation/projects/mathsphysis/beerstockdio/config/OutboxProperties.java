@@ -0,0 +1,66 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.outbox")
+public class OutboxProperties {
+
+    /**
+     * Where relayed events go: {@code memory}, {@code file} or {@code webhook}.
+     */
+    private String sink = "memory";
+
+    /**
+     * Largest number of events handed to the sink at once.
+     */
+    private int batchSize = 100;
+
+    /**
+     * Batches relayed per poll before waiting for the next one, so a backlog drains without starving the scheduler.
+     */
+    private int maxBatchesPerPoll = 10;
+
+    /**
+     * Times an event is sent before it is dead lettered and no longer holds back the events behind it.
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Wait before sending again after the first failure, doubled with every further attempt.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    /**
+     * Longest wait between two attempts, however many failed before.
+     */
+    private Duration maxRetryBackoff = Duration.ofMinutes(5);
+
+    /**
+     * Events kept by the {@code memory} sink; older ones are dropped.
+     */
+    private int memoryCapacity = 10_000;
+
+    /**
+     * File the {@code file} sink appends events to, one JSON object per line.
+     */
+    private Path file = Paths.get("outbox", "stock-events.ndjson");
+
+    /**
+     * Endpoint the {@code webhook} sink posts each batch to as a JSON array.
+     */
+    private URI webhookUrl = URI.create("http://localhost:8081/stock-events");
+
+    /**
+     * How long the {@code webhook} sink waits for an answer before the batch is retried.
+     */
+    private Duration webhookTimeout = Duration.ofSeconds(5);
+}
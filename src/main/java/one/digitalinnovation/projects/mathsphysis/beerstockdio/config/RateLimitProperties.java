@@ -0,0 +1,55 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether each client of the beer API gets its own request budgets.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Average GET and HEAD requests a client may make per second.
+     */
+    private double readsPerSecond = 50;
+
+    /**
+     * Reads a client may make at once after staying idle.
+     */
+    private int readBurst = 100;
+
+    /**
+     * Average requests of any other method a client may make per second.
+     */
+    private double mutationsPerSecond = 10;
+
+    /**
+     * Mutations a client may make at once after staying idle.
+     */
+    private int mutationBurst = 20;
+
+    /**
+     * Most clients whose budgets are tracked; the least recently seen are forgotten beyond it.
+     */
+    private long maxClients = 100_000;
+
+    /**
+     * How long the budgets of an idle client are kept. A forgotten client starts again with full bursts, so this
+     * should be longer than a burst takes to refill.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Request header naming the client, such as an API key or a forwarded address set by a trusted proxy. The
+     * remote address is used when empty or when a request does not carry it.
+     */
+    private String clientHeader = "";
+}
@@ -0,0 +1,27 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import io.r2dbc.spi.ConnectionFactories;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.ReactiveBeerRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+/**
+ * R2DBC wiring for the reactive API, active when the application runs as a reactive web application
+ * ({@code spring.profiles.active=reactive}). The R2DBC connection factory is deliberately not exposed as a bean:
+ * Spring Boot backs off the JDBC {@code DataSource} as soon as one exists, and the JPA side still owns the schema
+ * and makes every change, through the same services as the servlet stack. Both sides point at the same named in-memory H2 database.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveBeerRepository.class)
+public class ReactiveConfig {
+
+    @Bean
+    public R2dbcEntityTemplate r2dbcEntityTemplate(@Value("${beerstock.reactive.r2dbc-url}") String r2dbcUrl) {
+        return new R2dbcEntityTemplate(ConnectionFactories.get(r2dbcUrl));
+    }
+}
@@ -0,0 +1,39 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.reservation")
+public class ReservationProperties {
+
+    /**
+     * How long a reservation holds its stock when the request does not say.
+     */
+    private Duration defaultTtl = Duration.ofMinutes(15);
+
+    /**
+     * Longest hold a request may ask for.
+     */
+    private Duration maxTtl = Duration.ofHours(1);
+
+    /**
+     * Resolution of the expiry timing wheel, also how often the reaper runs. Reservations expire up to one tick late.
+     */
+    private long tickMs = 1000;
+
+    /**
+     * Slots of the timing wheel, rounded up to a power of two. Expiries further away than one turn of the wheel wait
+     * in their slot for later turns.
+     */
+    private int wheelSize = 512;
+
+    /**
+     * Largest number of expired reservations released in one transaction.
+     */
+    private int reapBatchSize = 1000;
+}
@@ -0,0 +1,38 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.retry")
+public class RetryProperties {
+
+    /**
+     * Total number of attempts, the first one included, before a concurrency conflict is reported to the caller.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Upper bound of the random delay before the first retry. The bound doubles on every further retry.
+     */
+    private Duration initialBackoff = Duration.ofMillis(5);
+
+    /**
+     * Largest random delay between two attempts.
+     */
+    private Duration maxBackoff = Duration.ofMillis(200);
+
+    /**
+     * Picks the delay before the given retry (1 for the first one) with full jitter: a uniformly random value
+     * between zero and the exponential bound, so contending callers spread out instead of colliding again.
+     */
+    public Duration backoffBeforeRetry(int retry) {
+        long boundMillis = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(retry - 1, 30));
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(boundMillis + 1));
+    }
+}
@@ -0,0 +1,9 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,59 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hands Hibernate's second-level cache a Caffeine JCache manager of its own, with every region created up front:
+ * the {@link Beer} entity and natural-id regions and the query results region are bounded and expire after
+ * {@code beerstock.second-level-cache.expire-after-write}, while the update timestamps region, which tells Hibernate
+ * whether a cached listing is still current, is neither bounded nor expired. Each application context gets its own
+ * manager, so contexts in the same JVM never share cached rows.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("beerstock-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        long expireAfterWriteNanos = properties.getExpireAfterWrite().toNanos();
+        cacheManager.createCache(Beer.CACHE_REGION, region(properties.getMaximumSize(), expireAfterWriteNanos));
+        cacheManager.createCache(Beer.NATURAL_ID_CACHE_REGION, region(properties.getMaximumSize(), expireAfterWriteNanos));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(properties.getQueryMaximumSize(), expireAfterWriteNanos));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, unboundedRegion());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, long expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = unboundedRegion();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWriteNanos));
+        return configuration;
+    }
+
+    private static CaffeineConfiguration<Object, Object> unboundedRegion() {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
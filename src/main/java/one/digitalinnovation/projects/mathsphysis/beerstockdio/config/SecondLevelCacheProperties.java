@@ -0,0 +1,29 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "beerstock.second-level-cache")
+public class SecondLevelCacheProperties {
+
+    /**
+     * Most beers kept in the entity region, and most name to id entries kept in the natural-id region.
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Most listing results kept in the query cache.
+     */
+    private long queryMaximumSize = 1_000;
+
+    /**
+     * How long a cached beer or listing is served before it is read again. Bounds how long a change made outside
+     * Hibernate, such as plain SQL, goes unseen.
+     */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
@@ -0,0 +1,32 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Runs every Tomcat request, and with it every {@code BeerService} call it makes, on its own virtual thread
+ * instead of the bounded platform thread pool. Async MVC work such as the streamed export gets virtual threads too.
+ * Enabled with {@code beerstock.virtual-threads.enabled=true}.
+ * Concurrent JDBC work stays capped by the connection pool.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "beerstock.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfig implements WebMvcConfigurer {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor()));
+    }
+}
@@ -2,26 +2,73 @@ package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
 
 import lombok.AllArgsConstructor;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerSearchDTO;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.QuantityDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementBatchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerCursorPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerImportResultDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerView;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerViewCursorPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerViewPageDTO;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.MessageResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockLevelDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockMovementBatchResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockReplayDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerVersionMismatchException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.ConflictingPagingParametersException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.IdempotencyKeyReusedException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidCursorException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidIdempotencyKeyException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidImportFileException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidSortException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerExportService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerImportService;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerViewService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.IdempotentStockService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.StockHistoryService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.StockStream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/beers")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final BeerService beerService;
+    private final BeerExportService beerExportService;
+    private final BeerImportService beerImportService;
+    private final StockHistoryService stockHistoryService;
+    private final IdempotentStockService idempotentStockService;
+    private final StockStream stockStream;
+    private final BeerViewService beerViewService;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -29,24 +76,127 @@ public class BeerController {
         return beerService.createBeer(beerDTO);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public BeerImportResultDTO importBeersFromCsv(InputStream inputStream) throws IOException, InvalidImportFileException {
+        return beerImportService.importCsv(inputStream);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BeerImportResultDTO importBeersFromNdjson(InputStream inputStream) throws IOException {
+        return beerImportService.importNdjson(inputStream);
+    }
+
     @GetMapping
     public List<BeerDTO> listBeers() {
         return beerService.listAll();
     }
 
+    @GetMapping(params = {"page", "!id"})
+    public BeerPageDTO listBeersPage(Pageable pageable) throws InvalidSortException {
+        return beerService.listPage(pageable);
+    }
+
+    /**
+     * Offset and keyset paging cannot be mixed; without this mapping both listings would match and the request
+     * would fail as ambiguous. The listings leave any request carrying an {@code id} to {@link #findById}.
+     */
+    @GetMapping(value = {"", "/views"}, params = {"page", "limit", "!id"})
+    public void listBeersWithConflictingPaging() throws ConflictingPagingParametersException {
+        throw new ConflictingPagingParametersException();
+    }
+
+    @GetMapping(params = {"limit", "!id"})
+    public BeerCursorPageDTO listBeersAfter(@RequestParam(required = false) String after, @RequestParam int limit) throws InvalidCursorException {
+        return beerService.listAfter(after, limit);
+    }
+
+    /**
+     * Same listings as above, with the same JSON, read as projections without loading entities. Cursors are
+     * interchangeable with the entity keyset listing.
+     */
+    @GetMapping("/views")
+    public List<BeerView> listBeerViews() {
+        return beerViewService.listAll();
+    }
+
+    @GetMapping(value = "/views", params = {"page"})
+    public BeerViewPageDTO listBeerViewsPage(Pageable pageable) throws InvalidSortException {
+        return beerViewService.listPage(pageable);
+    }
+
+    @GetMapping(value = "/views", params = {"limit"})
+    public BeerViewCursorPageDTO listBeerViewsAfter(@RequestParam(required = false) String after, @RequestParam int limit) throws InvalidCursorException {
+        return beerViewService.listAfter(after, limit);
+    }
+
+    /**
+     * Filters by brand, type, quantity range and fill ratio ({@code quantity / max}), e.g.
+     * {@code /search?type=IPA&maxFillRatio=0.2&sort=quantity}. Sorting and paging work as on the paged listing.
+     */
+    @GetMapping("/search")
+    public BeerPageDTO searchBeers(@Valid BeerSearchDTO beerSearchDTO, Pageable pageable) throws InvalidSortException {
+        return beerService.search(beerSearchDTO, pageable);
+    }
+
+    /**
+     * Beers below the low-stock threshold of their max, served from memory.
+     */
+    @GetMapping("/low-stock")
+    public List<BeerDTO> listLowStockBeers() {
+        return beerService.listLowStock();
+    }
+
+    /**
+     * Live stream of committed beer changes, optionally only for the given ids and types.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStockChanges(@RequestParam(name = "id", required = false) Set<Long> ids,
+                                         @RequestParam(name = "type", required = false) Set<BeerType> types) {
+        return stockStream.subscribe(ids == null ? Collections.emptySet() : ids, types == null ? Collections.emptySet() : types);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportBeers(@RequestParam(defaultValue = "false") boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON);
+
+        if (!gzip) {
+            return response.body(beerExportService::exportTo);
+        }
+
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .body(outputStream -> {
+                    GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+                    beerExportService.exportTo(gzipOutputStream);
+                    gzipOutputStream.finish();
+                });
+    }
+
     @GetMapping("/{name}")
-    public BeerDTO findByName(@PathVariable String name) throws BeerNotFoundException {
-        return beerService.findByName(name);
+    public ResponseEntity<BeerDTO> findByName(@PathVariable String name) throws BeerNotFoundException {
+        return withETag(beerService.findByName(name));
     }
 
     @GetMapping(params = {"id"})
-    public BeerDTO findById(@RequestParam Long id) throws BeerNotFoundException {
-        return beerService.findById(id);
+    public ResponseEntity<BeerDTO> findById(@RequestParam Long id,
+                                            @RequestParam(required = false) String page,
+                                            @RequestParam(required = false) String limit)
+            throws BeerNotFoundException, ConflictingPagingParametersException {
+        if (page != null || limit != null) {
+            throw new ConflictingPagingParametersException("A beer looked up by id cannot be paged");
+        }
+        return withETag(beerService.findById(id));
     }
 
+    /**
+     * Replaces the beer. With an {@code If-Match} header carrying the {@code ETag} of a previous read, the update
+     * only succeeds if the beer has not changed since, and answers {@code 412 Precondition Failed} otherwise.
+     */
     @PutMapping("/{id}")
-    public MessageResponseDTO updateById(@PathVariable Long id, @RequestBody @Valid BeerDTO beerDTO) throws BeerNotFoundException {
-        return beerService.updateById(id, beerDTO);
+    public MessageResponseDTO updateById(@PathVariable Long id,
+                                         @RequestBody @Valid BeerDTO beerDTO,
+                                         @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch)
+            throws BeerNotFoundException, BeerVersionMismatchException, BeerNegativeStockException {
+        return beerService.updateById(id, beerDTO, parseIfMatch(id, ifMatch));
     }
 
     @DeleteMapping("/{id}")
@@ -55,13 +205,82 @@ public class BeerController {
         beerService.deleteById(id);
     }
 
+    /**
+     * Increments the stock. With an {@code Idempotency-Key} header, repeats of the request answer the response of
+     * the first one without moving the stock again, and the key cannot be reused for a different movement.
+     */
     @PatchMapping("/{id}/increment")
-    public BeerDTO incrementQuantityById(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerStockExceededException {
-        return beerService.increment(id, quantityDTO.getQuantity());
+    public BeerDTO incrementQuantityById(@PathVariable Long id,
+                                         @RequestBody @Valid QuantityDTO quantityDTO,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey)
+            throws BeerNotFoundException, BeerStockExceededException, IdempotencyKeyReusedException, InvalidIdempotencyKeyException {
+        if (idempotencyKey == null) {
+            return beerService.increment(id, quantityDTO.getQuantity());
+        }
+        return idempotentStockService.incrementOnce(idempotencyKey, id, quantityDTO.getQuantity());
     }
 
+    /**
+     * Decrements the stock, with the same {@code Idempotency-Key} handling as the increment.
+     */
     @PatchMapping("/{id}/decrement")
-    public BeerDTO decrementQuantityById(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) throws BeerNotFoundException, BeerNegativeStockException {
-        return beerService.decrement(id, quantityDTO.getQuantity());
+    public BeerDTO decrementQuantityById(@PathVariable Long id,
+                                         @RequestBody @Valid QuantityDTO quantityDTO,
+                                         @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey)
+            throws BeerNotFoundException, BeerNegativeStockException, IdempotencyKeyReusedException, InvalidIdempotencyKeyException {
+        if (idempotencyKey == null) {
+            return beerService.decrement(id, quantityDTO.getQuantity());
+        }
+        return idempotentStockService.decrementOnce(idempotencyKey, id, quantityDTO.getQuantity());
+    }
+
+    @PostMapping("/stock-movements")
+    public StockMovementBatchResponseDTO applyStockMovements(@RequestBody @Valid StockMovementBatchDTO stockMovementBatchDTO) {
+        return beerService.applyMovements(stockMovementBatchDTO);
+    }
+
+    /**
+     * Quantity of the beer at the given instant, rebuilt from the stock ledger; the current one when omitted.
+     */
+    @GetMapping("/{id}/stock")
+    public StockLevelDTO findStockAt(@PathVariable Long id, @RequestParam(required = false) Instant at) throws BeerNotFoundException {
+        return stockHistoryService.quantityAt(id, at != null ? at : Instant.now());
+    }
+
+    @GetMapping("/{id}/stock/replay")
+    public StockReplayDTO replayStock(@PathVariable Long id) throws BeerNotFoundException {
+        return stockHistoryService.replay(id);
+    }
+
+    /**
+     * Replays the ledger of every beer and lists the ones whose stored quantity does not match it.
+     */
+    @GetMapping("/stock/replay")
+    public List<StockReplayDTO> replayAllStock() {
+        return stockHistoryService.replayAll();
+    }
+
+    private static ResponseEntity<BeerDTO> withETag(BeerDTO beerDTO) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (beerDTO.getVersion() != null) {
+            response.eTag(String.valueOf(beerDTO.getVersion()));
+        }
+        return response.body(beerDTO);
+    }
+
+    private static Long parseIfMatch(Long id, String ifMatch) throws BeerVersionMismatchException {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String eTag = ifMatch.trim();
+        if (eTag.startsWith("W/")) {
+            eTag = eTag.substring(2);
+        }
+        try {
+            return Long.valueOf(eTag.replace("\"", ""));
+        } catch (NumberFormatException e) {
+            throw new BeerVersionMismatchException(id, ifMatch);
+        }
     }
 }
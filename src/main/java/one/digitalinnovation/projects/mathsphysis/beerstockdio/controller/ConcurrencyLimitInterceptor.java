@@ -0,0 +1,90 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ConcurrencyLimitProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.ServiceOverloadedException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.AdaptiveConcurrencyLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+/**
+ * Admits requests through the {@link AdaptiveConcurrencyLimiter} and answers {@code 503 Service Unavailable} with
+ * {@code Retry-After: 1} when it is full. A request stays in progress until it completes, or until it goes async:
+ * streamed responses such as the export and the stock stream give their slot back once they have started. Only
+ * requests that complete on their thread and are not under {@code unsampled-paths} adjust the limit.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "beerstock.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_AT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".startedAt";
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final List<String> unsampledPaths;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+        this.unsampledPaths = properties.getUnsampledPaths();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws ServiceOverloadedException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        if (!concurrencyLimiter.tryAcquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            throw new ServiceOverloadedException(concurrencyLimiter.getLimit());
+        }
+        request.setAttribute(STARTED_AT_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request, false);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request, !isUnsampled(request));
+    }
+
+    AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    private void release(HttpServletRequest request, boolean sampled) {
+        Object startedAt = request.getAttribute(STARTED_AT_ATTRIBUTE);
+        if (startedAt == null) {
+            return;
+        }
+
+        request.removeAttribute(STARTED_AT_ATTRIBUTE);
+        if (sampled) {
+            concurrencyLimiter.release((Long) startedAt, System.nanoTime());
+        } else {
+            concurrencyLimiter.release();
+        }
+    }
+
+    private boolean isUnsampled(HttpServletRequest request) {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        return unsampledPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+}
@@ -0,0 +1,70 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.RateLimitProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.RateLimitBudget;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.RateLimitExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.ClientRateLimiter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges every request to its client's read budget when it is a GET or HEAD and to its mutation budget otherwise,
+ * and answers {@code 429 Too Many Requests} with a {@code Retry-After} once the budget is spent. Clients are told
+ * apart by {@code beerstock.rate-limit.client-header} or by remote address; only the first 64 characters of a
+ * client id are kept, so a long header cannot inflate the memory each client takes.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "beerstock.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final int MAX_CLIENT_ID_LENGTH = 64;
+
+    private final ClientRateLimiter rateLimiter;
+    private final String clientHeader;
+
+    public RateLimitInterceptor(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = new ClientRateLimiter(properties, meterRegistry);
+        this.clientHeader = properties.getClientHeader();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws RateLimitExceededException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+
+        String clientId = clientId(request);
+        RateLimitBudget budget = HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                ? RateLimitBudget.READ
+                : RateLimitBudget.MUTATION;
+        long waitNanos = rateLimiter.tryAcquire(clientId, budget);
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            throw new RateLimitExceededException(clientId, budget.getDescription());
+        }
+        return true;
+    }
+
+    private String clientId(HttpServletRequest request) {
+        String clientId = StringUtils.hasText(clientHeader) ? request.getHeader(clientHeader) : null;
+        if (StringUtils.hasText(clientId)) {
+            clientId = clientId.split(",", 2)[0].trim();
+        } else {
+            clientId = request.getRemoteAddr();
+        }
+        return clientId.length() > MAX_CLIENT_ID_LENGTH ? clientId.substring(0, MAX_CLIENT_ID_LENGTH) : clientId;
+    }
+}
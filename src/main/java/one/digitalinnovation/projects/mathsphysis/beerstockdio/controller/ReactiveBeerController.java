@@ -0,0 +1,75 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.QuantityDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.MessageResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.ReactiveBeerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+/**
+ * Serves the {@code /api/v1/beers} contract of {@link BeerController} on WebFlux when the application runs as a
+ * reactive web application. Errors keep the status of their {@code @ResponseStatus} annotation, as on the servlet
+ * stack.
+ */
+@RestController
+@RequestMapping("/api/v1/beers")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerController {
+
+    private final ReactiveBeerService beerService;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BeerDTO> createBeer(@RequestBody @Valid BeerDTO beerDTO) {
+        return beerService.createBeer(beerDTO);
+    }
+
+    /**
+     * Returns a JSON array, or with {@code Accept: application/x-ndjson} streams one beer per line as rows arrive.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<BeerDTO> listBeers() {
+        return beerService.listAll();
+    }
+
+    @GetMapping("/{name}")
+    public Mono<BeerDTO> findByName(@PathVariable String name) {
+        return beerService.findByName(name);
+    }
+
+    @GetMapping(params = {"id"})
+    public Mono<BeerDTO> findById(@RequestParam Long id) {
+        return beerService.findById(id);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<MessageResponseDTO> updateById(@PathVariable Long id, @RequestBody @Valid BeerDTO beerDTO) {
+        return beerService.updateById(id, beerDTO);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable Long id) {
+        return beerService.deleteById(id);
+    }
+
+    @PatchMapping("/{id}/increment")
+    public Mono<BeerDTO> incrementQuantityById(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return beerService.increment(id, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{id}/decrement")
+    public Mono<BeerDTO> decrementQuantityById(@PathVariable Long id, @RequestBody @Valid QuantityDTO quantityDTO) {
+        return beerService.decrement(id, quantityDTO.getQuantity());
+    }
+}
@@ -0,0 +1,49 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.ReservationDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.ReservationResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.ReservationNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.ReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.time.Duration;
+
+/**
+ * Holds stock for a checkout until it is confirmed or released. A reservation that is neither before its time to
+ * live ends gives its stock back on its own and answers {@code 404 Not Found} from then on.
+ */
+@RestController
+@RequestMapping("/api/v1/beers")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    @PostMapping("/{id}/reservations")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservationResponseDTO reserve(@PathVariable Long id, @RequestBody @Valid ReservationDTO reservationDTO)
+            throws BeerNotFoundException, BeerNegativeStockException {
+        Duration ttl = reservationDTO.getTtlSeconds() == null ? null : Duration.ofSeconds(reservationDTO.getTtlSeconds());
+        return reservationService.reserve(id, reservationDTO.getQuantity(), ttl);
+    }
+
+    @PostMapping("/reservations/{reservationId}/confirm")
+    public BeerDTO confirm(@PathVariable Long reservationId) throws ReservationNotFoundException, BeerNotFoundException {
+        return reservationService.confirm(reservationId);
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void release(@PathVariable Long reservationId) throws ReservationNotFoundException {
+        reservationService.release(reservationId);
+    }
+}
@@ -0,0 +1,58 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.QuantityDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.WarehouseCapacityDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.WarehouseStockDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.WarehouseStockNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.WarehouseStockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Stock of a beer per warehouse. Movements here update the location and, in the same transaction, the totals
+ * served by {@link BeerController}.
+ */
+@RestController
+@RequestMapping("/api/v1/beers/{id}/warehouses")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class WarehouseStockController {
+
+    private final WarehouseStockService warehouseStockService;
+
+    @GetMapping
+    public List<WarehouseStockDTO> listLocations(@PathVariable Long id) throws BeerNotFoundException {
+        return warehouseStockService.listLocations(id);
+    }
+
+    @PutMapping("/{warehouseId}")
+    public WarehouseStockDTO setCapacity(@PathVariable Long id,
+                                         @PathVariable Long warehouseId,
+                                         @RequestBody @Valid WarehouseCapacityDTO warehouseCapacityDTO) throws BeerNotFoundException {
+        return warehouseStockService.setCapacity(id, warehouseId, warehouseCapacityDTO.getMax());
+    }
+
+    @PatchMapping("/{warehouseId}/increment")
+    public WarehouseStockDTO incrementQuantity(@PathVariable Long id,
+                                               @PathVariable Long warehouseId,
+                                               @RequestBody @Valid QuantityDTO quantityDTO)
+            throws WarehouseStockNotFoundException, BeerStockExceededException {
+        return warehouseStockService.increment(id, warehouseId, quantityDTO.getQuantity());
+    }
+
+    @PatchMapping("/{warehouseId}/decrement")
+    public WarehouseStockDTO decrementQuantity(@PathVariable Long id,
+                                               @PathVariable Long warehouseId,
+                                               @RequestBody @Valid QuantityDTO quantityDTO)
+            throws WarehouseStockNotFoundException, BeerNegativeStockException {
+        return warehouseStockService.decrement(id, warehouseId, quantityDTO.getQuantity());
+    }
+}
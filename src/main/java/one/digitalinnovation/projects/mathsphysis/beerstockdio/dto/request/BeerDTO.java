@@ -10,18 +10,24 @@ import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class BeerDTO {
 
     private Long id;
 
+    /**
+     * Served as {@code GET /api/v1/beers/{name}}, so the names of the literal routes next to it are rejected: a beer
+     * named like one of them could never be looked up by name.
+     */
     @NotEmpty
     @Size(min = 2, max = 100)
+    @Pattern(regexp = "(?s)(?!(export|low-stock|search|stream|views)$).*", message = "is reserved for a route of the beer API")
     private String name;
 
     @NotEmpty
@@ -37,4 +43,10 @@ public class BeerDTO {
     @Enumerated(EnumType.STRING)
     @NotNull
     private BeerType type;
+
+    /**
+     * Optimistic locking version, also served as the {@code ETag} of the beer. When sent back on an update without
+     * an {@code If-Match} header, the update only succeeds if the beer is still at this version.
+     */
+    private Long version;
 }
@@ -0,0 +1,40 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.PositiveOrZero;
+
+/**
+ * Optional filters of the beer search; a beer must match every filter that is set. The fill ratio is
+ * {@code quantity / max}, so {@code maxFillRatio=0.2} finds the beers at or below a fifth of their capacity.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BeerSearchDTO {
+
+    private String brand;
+
+    private BeerType type;
+
+    @PositiveOrZero
+    private Integer minQuantity;
+
+    @PositiveOrZero
+    private Integer maxQuantity;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double minFillRatio;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double maxFillRatio;
+}
@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
 @Data
@@ -14,5 +15,6 @@ import javax.validation.constraints.NotNull;
 public class QuantityDTO {
 
     @NotNull
+    @Min(1)
     private Integer quantity;
 }
@@ -0,0 +1,26 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDTO {
+
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+
+    /**
+     * How long to hold the stock; the configured default when missing, capped at the configured maximum.
+     */
+    @Min(1)
+    private Long ttlSeconds;
+}
@@ -0,0 +1,30 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BatchMode;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockMovementBatchDTO {
+
+    public static final int MAX_MOVEMENTS = 1000;
+
+    @NotEmpty
+    @Size(max = MAX_MOVEMENTS)
+    private List<@Valid @NotNull StockMovementDTO> movements;
+
+    @NotNull
+    @Builder.Default
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+}
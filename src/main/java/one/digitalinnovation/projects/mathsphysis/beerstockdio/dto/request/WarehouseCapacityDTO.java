@@ -0,0 +1,20 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WarehouseCapacityDTO {
+
+    @NotNull
+    @Min(0)
+    private Integer max;
+}
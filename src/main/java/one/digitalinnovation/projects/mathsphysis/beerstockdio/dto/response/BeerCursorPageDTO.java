@@ -0,0 +1,16 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BeerCursorPageDTO {
+
+    private List<BeerDTO> content;
+
+    private String nextCursor;
+}
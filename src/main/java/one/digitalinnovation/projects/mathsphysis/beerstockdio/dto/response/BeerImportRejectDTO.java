@@ -0,0 +1,15 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BeerImportRejectDTO {
+
+    private long line;
+
+    private String name;
+
+    private String reason;
+}
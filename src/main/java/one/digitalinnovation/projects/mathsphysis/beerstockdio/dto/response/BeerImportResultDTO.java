@@ -0,0 +1,17 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BeerImportResultDTO {
+
+    private long imported;
+
+    private long rejected;
+
+    private List<BeerImportRejectDTO> rejects;
+}
@@ -0,0 +1,22 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BeerPageDTO {
+
+    private List<BeerDTO> content;
+
+    private int page;
+
+    private int size;
+
+    private long totalElements;
+
+    private int totalPages;
+}
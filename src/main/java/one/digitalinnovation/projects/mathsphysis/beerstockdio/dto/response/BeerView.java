@@ -0,0 +1,11 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+
+/**
+ * Read-only beer built by the query itself, serialized with the same fields as {@link BeerDTO}. Listing views skips
+ * entity hydration, the persistence context snapshot and the mapper, and keeps the quantities unboxed.
+ */
+public record BeerView(Long id, String name, String brand, int max, int quantity, BeerType type, Long version) {
+}
@@ -0,0 +1,15 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BeerViewCursorPageDTO {
+
+    private List<BeerView> content;
+
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@Builder
+public class StockLevelDTO {
+
+    private Long id;
+
+    private Instant at;
+
+    private Integer quantity;
+}
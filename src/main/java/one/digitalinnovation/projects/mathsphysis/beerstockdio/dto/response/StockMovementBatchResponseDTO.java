@@ -0,0 +1,18 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BatchMode;
+
+import java.util.List;
+
+@Data
+@Builder
+public class StockMovementBatchResponseDTO {
+
+    private BatchMode mode;
+
+    private boolean committed;
+
+    private List<StockMovementResultDTO> results;
+}
@@ -0,0 +1,20 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.MovementStatus;
+
+@Data
+@Builder
+public class StockMovementResultDTO {
+
+    private Long id;
+
+    private Integer delta;
+
+    private MovementStatus status;
+
+    private Integer quantity;
+
+    private String message;
+}
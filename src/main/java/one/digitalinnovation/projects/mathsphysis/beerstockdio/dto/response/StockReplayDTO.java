@@ -0,0 +1,25 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class StockReplayDTO {
+
+    private Long id;
+
+    /**
+     * Stored quantity plus the movements the stock engine has journaled but not flushed into it yet.
+     */
+    private Long storedQuantity;
+
+    private Long replayedQuantity;
+
+    /**
+     * Last ledger entry covered by the snapshot the replay started from, or null when it replayed the whole ledger.
+     */
+    private Long snapshotMovementId;
+
+    private boolean consistent;
+}
@@ -5,21 +5,42 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 
+/**
+ * Cached in the second-level cache by id and by name. Bulk JPQL updates, like the conditional stock movements,
+ * cannot tell Hibernate which rows they touched, so they clear both regions when they commit.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Beer.CACHE_REGION)
+@NaturalIdCache(region = Beer.NATURAL_ID_CACHE_REGION)
+@Table(indexes = {
+        @Index(name = "idx_beer_brand", columnList = "brand"),
+        @Index(name = "idx_beer_type_quantity", columnList = "type, quantity"),
+        @Index(name = "idx_beer_quantity", columnList = "quantity")
+})
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
 public class Beer {
 
+    public static final String CACHE_REGION = "beer";
+    public static final String NATURAL_ID_CACHE_REGION = "beer-natural-id";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beer_sequence")
+    @SequenceGenerator(name = "beer_sequence", sequenceName = "beer_sequence", allocationSize = 50)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @NaturalId(mutable = true)
+    @Column(nullable = false)
     private String name;
 
     @Column(nullable = false)
@@ -31,7 +52,23 @@ public class Beer {
     @Column(nullable = false)
     private int quantity;
 
+    /**
+     * Part of {@code quantity} held in warehouse locations; the rest is stock without a location.
+     */
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int allocated;
+
+    /**
+     * Part of the stock without a location held by active reservations until they are confirmed or released.
+     */
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int reserved;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private BeerType type;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,37 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * R2DBC view of the {@code beer} table mapped by {@link Beer}, used by the reactive API.
+ */
+@Table("beer")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BeerRecord {
+
+    @Id
+    private Long id;
+
+    private String name;
+
+    private String brand;
+
+    private int max;
+
+    private int quantity;
+
+    private BeerType type;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,51 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Response of a stock movement sent with an {@code Idempotency-Key}, stored in the transaction of the movement.
+ * Always inserted, never merged, so two nodes racing on the same key collide on the primary key.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_idempotency_record_created_at", columnList = "created_at"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+
+    /**
+     * Width of the key column, so the longest key the service may be configured to accept.
+     */
+    public static final int MAX_KEY_LENGTH = 100;
+
+    @Id
+    @Column(name = "idempotency_key", length = MAX_KEY_LENGTH)
+    private String key;
+
+    @Column(nullable = false, updatable = false)
+    private String fingerprint;
+
+    @Column(nullable = false, updatable = false, length = 2000)
+    private String response;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
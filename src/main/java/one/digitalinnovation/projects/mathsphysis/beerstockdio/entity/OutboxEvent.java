@@ -0,0 +1,51 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.OutboxEventStatus;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Stock change waiting to be relayed downstream, written in the transaction of the change itself. The id is
+ * taken once the beer row is locked, so the events of one beer are numbered in the order they commit. Events the
+ * sink kept rejecting are left {@link OutboxEventStatus#DEAD_LETTERED} instead of being deleted.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_event_status", columnList = "status, id"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_sequence")
+    @SequenceGenerator(name = "outbox_event_sequence", sequenceName = "outbox_event_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "beer_id", nullable = false, updatable = false)
+    private Long beerId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    private StockEventType type;
+
+    @Column(nullable = false, updatable = false, length = 2000)
+    private String payload;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Builder.Default
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, columnDefinition = "varchar(16) default 'PENDING'")
+    private OutboxEventStatus status = OutboxEventStatus.PENDING;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int attempts;
+}
@@ -0,0 +1,33 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * A movement accepted by the stock engine that is not yet part of {@link Beer#getQuantity()}. It is written in the
+ * transaction of the movement and deleted by the flush that adds it to the beer, so the stored quantity plus the
+ * pending deltas of a beer is always its committed stock.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_pending_stock_delta_beer_id", columnList = "beer_id, id"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PendingStockDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pending_stock_delta_sequence")
+    @SequenceGenerator(name = "pending_stock_delta_sequence", sequenceName = "pending_stock_delta_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "beer_id", nullable = false, updatable = false)
+    private Long beerId;
+
+    @Column(nullable = false, updatable = false)
+    private int delta;
+}
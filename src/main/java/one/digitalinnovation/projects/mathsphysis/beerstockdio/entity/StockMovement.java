@@ -0,0 +1,39 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Append-only ledger entry of a stock change, written in the transaction of the change itself. Ids come from a
+ * pooled sequence and do not follow commit order, so snapshots and replays split the ledger on {@code createdAt}.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_stock_movement_beer_id", columnList = "beer_id, created_at"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_sequence")
+    @SequenceGenerator(name = "stock_movement_sequence", sequenceName = "stock_movement_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "beer_id", nullable = false, updatable = false)
+    private Long beerId;
+
+    @Column(nullable = false, updatable = false)
+    private int delta;
+
+    @Column(nullable = false, updatable = false)
+    private int quantity;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
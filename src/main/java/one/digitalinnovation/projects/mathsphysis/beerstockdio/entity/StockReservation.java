@@ -0,0 +1,37 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Stock of a beer held for a checkout until it is confirmed, released or expires. Only active reservations are
+ * stored; the row is deleted in the transaction that ends the reservation, together with the update of
+ * {@link Beer#getReserved()}.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_stock_reservation_expires_at", columnList = "expires_at"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservation_sequence")
+    @SequenceGenerator(name = "stock_reservation_sequence", sequenceName = "stock_reservation_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "beer_id", nullable = false, updatable = false)
+    private Long beerId;
+
+    @Column(nullable = false, updatable = false)
+    private int quantity;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,45 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.Instant;
+
+/**
+ * Quantity of a beer once every ledger entry created up to {@code coveredUntil} is applied, so replays only need
+ * the entries created after it. {@code movementId} is the last entry of the beer folded into the snapshot.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_stock_snapshot_beer_id", columnList = "beer_id, covered_until"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_snapshot_sequence")
+    @SequenceGenerator(name = "stock_snapshot_sequence", sequenceName = "stock_snapshot_sequence", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "beer_id", nullable = false, updatable = false)
+    private Long beerId;
+
+    /**
+     * Sum of the ledger, kept as a long so a ledger that no longer fits an int can still be replayed and reported.
+     */
+    @Column(nullable = false, updatable = false)
+    private long quantity;
+
+    @Column(name = "movement_id", nullable = false, updatable = false)
+    private Long movementId;
+
+    @Column(name = "covered_until", nullable = false, updatable = false)
+    private Instant coveredUntil;
+
+    @Column(nullable = false, updatable = false)
+    private Instant takenAt;
+}
@@ -0,0 +1,38 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * Stock of a beer held in one warehouse. Each location is its own row, checked against its own capacity; the total
+ * over every location is kept in {@link Beer#getAllocated()}. The {@code max} of the beer spans every location, so
+ * each movement also updates the beer row and movements of the same beer take its lock one after the other, while
+ * movements of different beers never share a row.
+ */
+@Entity
+@IdClass(WarehouseStockId.class)
+@Table(indexes = @Index(name = "idx_warehouse_stock_warehouse_id", columnList = "warehouse_id"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WarehouseStock {
+
+    @Id
+    @Column(name = "beer_id", nullable = false, updatable = false)
+    private Long beerId;
+
+    @Id
+    @Column(name = "warehouse_id", nullable = false, updatable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false)
+    private int max;
+
+    @Column(nullable = false)
+    private int quantity;
+}
@@ -0,0 +1,14 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum BatchMode {
+
+    ALL_OR_NOTHING("All or nothing"),
+    PARTIAL("Partial success");
+
+    private final String description;
+}
@@ -0,0 +1,15 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum MovementStatus {
+
+    APPLIED("Applied"),
+    REJECTED("Rejected"),
+    ROLLED_BACK("Rolled back");
+
+    private final String description;
+}
@@ -0,0 +1,14 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum OutboxEventStatus {
+
+    PENDING("Pending"),
+    DEAD_LETTERED("Dead lettered");
+
+    private final String description;
+}
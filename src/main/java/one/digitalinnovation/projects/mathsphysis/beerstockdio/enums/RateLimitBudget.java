@@ -0,0 +1,14 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum RateLimitBudget {
+
+    READ("read"),
+    MUTATION("mutation");
+
+    private final String description;
+}
@@ -0,0 +1,17 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum StockEventType {
+
+    CREATED("Created"),
+    UPDATED("Updated"),
+    INCREMENTED("Incremented"),
+    DECREMENTED("Decremented"),
+    DELETED("Deleted");
+
+    private final String description;
+}
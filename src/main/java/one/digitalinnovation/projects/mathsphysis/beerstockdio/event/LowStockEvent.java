@@ -0,0 +1,17 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.event;
+
+import lombok.Value;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockAlert;
+
+/**
+ * Published once each time a committed change moves a beer across the low-stock threshold: {@link StockAlert#LOW}
+ * when it drops below, {@link StockAlert#RESTOCKED} when it climbs back to or above it.
+ */
+@Value
+public class LowStockEvent {
+
+    StockAlert alert;
+
+    BeerDTO beer;
+}
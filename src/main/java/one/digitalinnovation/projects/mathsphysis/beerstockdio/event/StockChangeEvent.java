@@ -0,0 +1,28 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.event;
+
+import lombok.Builder;
+import lombok.Value;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
+
+import java.time.Instant;
+
+/**
+ * Committed change of a beer as delivered to downstream systems. Delivery is at least once, so the same event can
+ * arrive again after a failure; {@code id} is unique per event and grows in commit order for each beer, which lets
+ * consumers drop repeats. {@code beer} is the state after the change, or the last state for {@link StockEventType#DELETED}.
+ */
+@Value
+@Builder
+public class StockChangeEvent {
+
+    Long id;
+
+    StockEventType type;
+
+    Long beerId;
+
+    BeerDTO beer;
+
+    Instant occurredAt;
+}
@@ -8,4 +8,8 @@ public class BeerNegativeStockException extends Exception {
     public BeerNegativeStockException(Long id, Integer quantityToDecrement) {
         super(String.format("Beer with id %d has yielded negative stock when tried to decrement by %d", id, quantityToDecrement));
     }
+
+    public BeerNegativeStockException(Long id, Long warehouseId, Integer quantityToDecrement) {
+        super(String.format("Beer with id %d has yielded negative stock in warehouse %d when tried to decrement by %d", id, warehouseId, quantityToDecrement));
+    }
 }
@@ -8,4 +8,8 @@ public class BeerStockExceededException extends Exception {
     public BeerStockExceededException(Long id, Integer quantityToIncrement) {
         super(String.format("Beer with id %d has exceeded max stock when tried to increment by %d", id, quantityToIncrement));
     }
+
+    public BeerStockExceededException(Long id, Long warehouseId, Integer quantityToIncrement) {
+        super(String.format("Beer with id %d has exceeded max stock of warehouse %d when tried to increment by %d", id, warehouseId, quantityToIncrement));
+    }
 }
@@ -0,0 +1,11 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class BeerVersionMismatchException extends Exception {
+    public BeerVersionMismatchException(Long id, String expectedVersion) {
+        super(String.format("Beer with ID %d is not at version %s anymore", id, expectedVersion));
+    }
+}
@@ -0,0 +1,15 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ConflictingPagingParametersException extends Exception {
+    public ConflictingPagingParametersException() {
+        super("Page either by offset with page or by keyset with limit, not both");
+    }
+
+    public ConflictingPagingParametersException(String message) {
+        super(message);
+    }
+}
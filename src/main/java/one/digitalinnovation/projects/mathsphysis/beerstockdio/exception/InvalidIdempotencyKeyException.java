@@ -0,0 +1,11 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidIdempotencyKeyException extends Exception {
+    public InvalidIdempotencyKeyException(int maxKeyLength) {
+        super("Idempotency key must have between 1 and " + maxKeyLength + " characters");
+    }
+}
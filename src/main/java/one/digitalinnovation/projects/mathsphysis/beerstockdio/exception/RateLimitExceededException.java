@@ -0,0 +1,11 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitExceededException extends Exception {
+    public RateLimitExceededException(String clientId, String budget) {
+        super(String.format("Client %s has exceeded its %s rate limit", clientId, budget));
+    }
+}
@@ -0,0 +1,11 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class WarehouseStockNotFoundException extends Exception {
+    public WarehouseStockNotFoundException(Long beerId, Long warehouseId) {
+        super(String.format("Beer with id %d is not stocked in warehouse %d", beerId, warehouseId));
+    }
+}
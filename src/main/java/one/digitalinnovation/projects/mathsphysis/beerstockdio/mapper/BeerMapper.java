@@ -2,7 +2,10 @@ package one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper;
 
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.BeerRecord;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.factory.Mappers;
 
 @Mapper
@@ -10,8 +13,19 @@ public interface BeerMapper {
 
     BeerMapper INSTANCE = Mappers.getMapper(BeerMapper.class);
 
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "allocated", ignore = true)
+    @Mapping(target = "reserved", ignore = true)
     Beer toModel(BeerDTO beerDTO);
 
     BeerDTO toDTO(Beer beer);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "allocated", ignore = true)
+    @Mapping(target = "reserved", ignore = true)
+    void updateModel(BeerDTO beerDTO, @MappingTarget Beer beer);
+
+    BeerDTO toDTO(BeerRecord beerRecord);
+
 }
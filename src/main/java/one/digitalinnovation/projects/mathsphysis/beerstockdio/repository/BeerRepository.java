@@ -1,10 +1,97 @@
 package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
 
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerView;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface BeerRepository extends JpaRepository<Beer, Long> {
-    Optional<Beer> findByName(String name);
+public interface BeerRepository extends JpaRepository<Beer, Long>, JpaSpecificationExecutor<Beer>, BeerRepositoryCustom {
+
+    /**
+     * Reads the row itself rather than the second-level cache, for callers that check the stored quantity against
+     * another record of it.
+     */
+    @Query("select b from Beer b where b.id = :id")
+    Optional<Beer> findStoredById(@Param("id") Long id);
+
+    @Query("select b.name from Beer b where b.name in :names")
+    List<String> findNamesIn(@Param("names") Collection<String> names);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    List<Beer> findAllByOrderByIdAsc(Pageable pageable);
+
+    List<Beer> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerView(" +
+            "b.id, b.name, b.brand, b.max, b.quantity, b.type, b.version) from Beer b order by b.id")
+    List<BeerView> findAllViews(Pageable pageable);
+
+    @Query(value = "select new one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerView(" +
+            "b.id, b.name, b.brand, b.max, b.quantity, b.type, b.version) from Beer b",
+            countQuery = "select count(b) from Beer b")
+    Page<BeerView> findViewsPage(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerView(" +
+            "b.id, b.name, b.brand, b.max, b.quantity, b.type, b.version) from Beer b where b.id > :id order by b.id")
+    List<BeerView> findViewsAfter(@Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    Stream<Beer> streamAllByOrderByIdAsc();
+
+    @Query("select b from Beer b where b.quantity < b.max * 1.0 * :ratio order by b.id")
+    List<Beer> findBelowFillRatio(@Param("ratio") double ratio);
+
+    @Query("select b.type, sum(b.quantity) from Beer b group by b.type")
+    List<Object[]> sumQuantityByType();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Beer> findAllByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Beer b set b.quantity = b.quantity + :quantity where b.id = :id and b.max - b.quantity >= :quantity")
+    int incrementQuantity(@Param("id") Long id, @Param("quantity") int quantityToIncrement);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Beer b set b.quantity = b.quantity - :quantity where b.id = :id and b.quantity - b.allocated - b.reserved >= :quantity")
+    int decrementQuantity(@Param("id") Long id, @Param("quantity") int quantityToDecrement);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Beer b set b.quantity = b.quantity + :delta where b.id = :id")
+    int applyQuantityDelta(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Beer b set b.quantity = b.quantity + :delta, b.allocated = b.allocated + :delta " +
+            "where b.id = :id and b.max - b.quantity >= :delta")
+    int applyAllocatedDelta(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Beer b set b.reserved = b.reserved + :quantity where b.id = :id and b.quantity - b.allocated - b.reserved >= :quantity")
+    int reserveQuantity(@Param("id") Long id, @Param("quantity") int quantityToReserve);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Beer b set b.quantity = b.quantity - :quantity, b.reserved = b.reserved - :quantity where b.id = :id")
+    int confirmReservedQuantity(@Param("id") Long id, @Param("quantity") int reservedQuantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update versioned Beer b set b.reserved = b.reserved - :quantity where b.id = :id")
+    int releaseReservedQuantity(@Param("id") Long id, @Param("quantity") int reservedQuantity);
 }
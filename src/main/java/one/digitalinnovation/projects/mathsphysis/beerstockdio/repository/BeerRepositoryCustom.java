@@ -0,0 +1,13 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+
+import java.util.Optional;
+
+public interface BeerRepositoryCustom {
+
+    /**
+     * Loads the beer by its natural id, so a repeated lookup is answered by the natural-id and entity caches.
+     */
+    Optional<Beer> findByName(String name);
+}
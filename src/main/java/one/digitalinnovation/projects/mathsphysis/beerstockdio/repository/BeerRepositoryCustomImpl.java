@@ -0,0 +1,23 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+public class BeerRepositoryCustomImpl implements BeerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Beer> findByName(String name) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Beer.class)
+                .loadOptional(name);
+    }
+}
@@ -0,0 +1,58 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerSearchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Expression;
+
+/**
+ * Criteria for {@link BeerRepository#findAll(Specification, org.springframework.data.domain.Pageable)}. Brand,
+ * type and quantity compare plain indexed columns. The fill ratio is compared as {@code quantity >= ratio * max}
+ * rather than by dividing, which keeps it exact for integer columns and safe for beers whose max is zero.
+ */
+public final class BeerSpecifications {
+
+    private BeerSpecifications() {
+    }
+
+    public static Specification<Beer> matching(BeerSearchDTO search) {
+        return Specification.where(hasBrand(search.getBrand()))
+                .and(hasType(search.getType()))
+                .and(quantityAtLeast(search.getMinQuantity()))
+                .and(quantityAtMost(search.getMaxQuantity()))
+                .and(fillRatioAtLeast(search.getMinFillRatio()))
+                .and(fillRatioAtMost(search.getMaxFillRatio()));
+    }
+
+    static Specification<Beer> hasBrand(String brand) {
+        return brand == null ? null : (root, query, builder) -> builder.equal(root.get("brand"), brand);
+    }
+
+    static Specification<Beer> hasType(BeerType type) {
+        return type == null ? null : (root, query, builder) -> builder.equal(root.get("type"), type);
+    }
+
+    static Specification<Beer> quantityAtLeast(Integer minQuantity) {
+        return minQuantity == null ? null : (root, query, builder) -> builder.ge(root.<Integer>get("quantity"), minQuantity);
+    }
+
+    static Specification<Beer> quantityAtMost(Integer maxQuantity) {
+        return maxQuantity == null ? null : (root, query, builder) -> builder.le(root.<Integer>get("quantity"), maxQuantity);
+    }
+
+    static Specification<Beer> fillRatioAtLeast(Double minFillRatio) {
+        return minFillRatio == null ? null : (root, query, builder) -> {
+            Expression<Number> capacityShare = builder.prod(root.<Number>get("max"), minFillRatio);
+            return builder.ge(root.<Number>get("quantity"), capacityShare);
+        };
+    }
+
+    static Specification<Beer> fillRatioAtMost(Double maxFillRatio) {
+        return maxFillRatio == null ? null : (root, query, builder) -> {
+            Expression<Number> capacityShare = builder.prod(root.<Number>get("max"), maxFillRatio);
+            return builder.le(root.<Number>get("quantity"), capacityShare);
+        };
+    }
+}
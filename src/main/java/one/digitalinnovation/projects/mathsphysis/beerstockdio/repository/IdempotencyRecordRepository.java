@@ -0,0 +1,20 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") Instant createdBefore);
+
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.key = :key and r.createdAt <= :expiredAt")
+    int deleteExpired(@Param("key") String key, @Param("expiredAt") Instant expiredAt);
+}
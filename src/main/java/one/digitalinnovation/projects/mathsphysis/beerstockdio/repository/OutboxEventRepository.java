@@ -0,0 +1,25 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.OutboxEvent;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.OutboxEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByStatusOrderByIdAsc(OutboxEventStatus status, Pageable pageable);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1 where e.id in :ids")
+    int incrementAttemptsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.status = :status where e.id = :id")
+    int updateStatusById(@Param("id") Long id, @Param("status") OutboxEventStatus status);
+}
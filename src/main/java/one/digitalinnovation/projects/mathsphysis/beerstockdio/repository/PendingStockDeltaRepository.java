@@ -0,0 +1,26 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.PendingStockDelta;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PendingStockDeltaRepository extends JpaRepository<PendingStockDelta, Long> {
+
+    @Query("select distinct d.beerId from PendingStockDelta d")
+    List<Long> findBeerIds();
+
+    List<PendingStockDelta> findByBeerIdOrderByIdAsc(Long beerId, Pageable pageable);
+
+    @Query("select coalesce(sum(d.delta), 0) from PendingStockDelta d where d.beerId = :beerId")
+    long sumDeltaByBeerId(@Param("beerId") Long beerId);
+
+    @Modifying
+    @Query("delete from PendingStockDelta d where d.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,14 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.BeerRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBeerRepository extends R2dbcRepository<BeerRecord, Long> {
+
+    Mono<BeerRecord> findByName(String name);
+
+    Flux<BeerRecord> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,23 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    @Query("select m.beerId, sum(m.delta), max(m.id) from StockMovement m " +
+            "where m.createdAt > :after and m.createdAt <= :upTo group by m.beerId")
+    List<Object[]> sumDeltaByBeerCreatedBetween(@Param("after") Instant after, @Param("upTo") Instant upTo);
+
+    @Query("select coalesce(sum(m.delta), 0) from StockMovement m where m.beerId = :beerId and m.createdAt > :after")
+    long sumDeltaCreatedAfter(@Param("beerId") Long beerId, @Param("after") Instant after);
+
+    @Query("select coalesce(sum(m.delta), 0) from StockMovement m " +
+            "where m.beerId = :beerId and m.createdAt > :after and m.createdAt <= :upTo")
+    long sumDeltaCreatedBetween(@Param("beerId") Long beerId, @Param("after") Instant after, @Param("upTo") Instant upTo);
+}
@@ -0,0 +1,25 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<StockReservation> findAllByIdInOrderByIdAsc(Collection<Long> ids);
+
+    Stream<StockReservation> streamAllBy();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from StockReservation r where r.id = :id")
+    int deleteReservation(@Param("id") Long id);
+}
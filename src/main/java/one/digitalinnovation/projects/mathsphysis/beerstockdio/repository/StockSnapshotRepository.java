@@ -0,0 +1,25 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    @Query("select max(s.coveredUntil) from StockSnapshot s")
+    Instant findMaxCoveredUntil();
+
+    @Query("select s from StockSnapshot s where s.beerId in :beerIds and s.coveredUntil = " +
+            "(select max(latest.coveredUntil) from StockSnapshot latest where latest.beerId = s.beerId)")
+    List<StockSnapshot> findLatestByBeerIdIn(@Param("beerIds") Collection<Long> beerIds);
+
+    Optional<StockSnapshot> findFirstByBeerIdOrderByCoveredUntilDesc(Long beerId);
+
+    Optional<StockSnapshot> findFirstByBeerIdAndCoveredUntilLessThanEqualOrderByCoveredUntilDesc(Long beerId, Instant at);
+}
@@ -0,0 +1,32 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.repository;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.WarehouseStock;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.WarehouseStockId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WarehouseStockRepository extends JpaRepository<WarehouseStock, WarehouseStockId> {
+
+    Optional<WarehouseStock> findByBeerIdAndWarehouseId(Long beerId, Long warehouseId);
+
+    List<WarehouseStock> findByBeerIdOrderByWarehouseIdAsc(Long beerId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update WarehouseStock s set s.quantity = s.quantity + :quantity " +
+            "where s.beerId = :beerId and s.warehouseId = :warehouseId and s.max - s.quantity >= :quantity")
+    int incrementQuantity(@Param("beerId") Long beerId, @Param("warehouseId") Long warehouseId, @Param("quantity") int quantityToIncrement);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update WarehouseStock s set s.quantity = s.quantity - :quantity " +
+            "where s.beerId = :beerId and s.warehouseId = :warehouseId and s.quantity >= :quantity")
+    int decrementQuantity(@Param("beerId") Long beerId, @Param("warehouseId") Long warehouseId, @Param("quantity") int quantityToDecrement);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from WarehouseStock s where s.beerId = :beerId")
+    int deleteByBeerId(@Param("beerId") Long beerId);
+}
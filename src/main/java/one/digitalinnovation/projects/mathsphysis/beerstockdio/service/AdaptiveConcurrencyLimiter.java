@@ -0,0 +1,111 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the requests in progress with a limit that adapts by additive increase and multiplicative decrease: a
+ * request slower than {@code beerstock.concurrency-limit.latency-threshold} multiplies the limit by
+ * {@code backoff-ratio}, and every faster one raises it by one while at least half of it is in use, between
+ * {@code min-limit} and {@code max-limit}. Requests queueing for database connections get slower long before the
+ * pool times them out, so the limit shrinks to what the pool can serve and the excess is turned away at once
+ * instead of piling up. Only a slow request that started after the previous cut cuts the limit again, so a burst
+ * of requests slowed down by the same congestion shrinks it once rather than once per request. The counters are
+ * only ever changed with compare-and-set.
+ *
+ * <p>{@code beerstock.limiter.requests} counts the decisions tagged {@code limiter=concurrency} and
+ * {@code outcome=allowed} or {@code rejected}; {@code beerstock.limiter.concurrency} is the current limit and
+ * {@code beerstock.limiter.in.flight} the requests in progress.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final long NEVER = Long.MIN_VALUE;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecreaseAt = new AtomicLong(NEVER);
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getMinLimit() < 1 || properties.getMaxLimit() < properties.getMinLimit()) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min-limit <= max-limit");
+        }
+        if (properties.getBackoffRatio() <= 0 || properties.getBackoffRatio() >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1");
+        }
+
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit())));
+
+        this.allowed = meterRegistry.counter("beerstock.limiter.requests", "limiter", "concurrency", "budget", "all", "outcome", "allowed");
+        this.rejected = meterRegistry.counter("beerstock.limiter.requests", "limiter", "concurrency", "budget", "all", "outcome", "rejected");
+        Gauge.builder("beerstock.limiter.concurrency", limit, AtomicInteger::get)
+                .description("Requests currently allowed in progress at once")
+                .register(meterRegistry);
+        Gauge.builder("beerstock.limiter.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests in progress")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request unless the limit is reached. An admitted request must be {@link #release released}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                allowed.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends an admitted request and adjusts the limit to how long it took, both instants read from
+     * {@link System#nanoTime()}.
+     */
+    public void release(long startedAtNanos, long finishedAtNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (finishedAtNanos - startedAtNanos > latencyThresholdNanos) {
+            long lastDecrease = lastDecreaseAt.get();
+            if ((lastDecrease == NEVER || startedAtNanos - lastDecrease > 0)
+                    && lastDecreaseAt.compareAndSet(lastDecrease, finishedAtNanos)) {
+                limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+            }
+        } else if (inFlightBefore * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    /**
+     * Ends an admitted request whose duration says nothing about overload, leaving the limit as it is.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
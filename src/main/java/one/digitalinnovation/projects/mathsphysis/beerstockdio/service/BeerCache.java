@@ -0,0 +1,157 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded read-through cache for {@link BeerDTO}s, keyed both by id and by name. The cache keeps its own copies and
+ * hands out copies, so callers are free to mutate what they put or get.
+ *
+ * <p>Every eviction leaves a tombstone stamped with a new generation. A value read from the database is cached with
+ * the {@link #generation()} taken before the read, and is dropped if the beer was evicted since, so a read that
+ * raced with a committing change cannot put the replaced value back after the change evicted it. Tombstones are
+ * bounded like the cache; once one is forgotten, every value read before it was written is dropped too.</p>
+ */
+@Component
+public class BeerCache {
+
+    private final Cache<Long, BeerDTO> beersById;
+    private final Cache<String, BeerDTO> beersByName;
+    private final Cache<Long, Long> tombstones;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong forgottenGeneration = new AtomicLong();
+
+    public BeerCache(MeterRegistry meterRegistry,
+                     @Value("${beerstock.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${beerstock.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.beersById = buildCache(maximumSize, expireAfterWrite);
+        this.beersByName = buildCache(maximumSize, expireAfterWrite);
+        this.tombstones = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .executor(Runnable::run)
+                .<Long, Long>removalListener((id, evictedAt, cause) -> {
+                    if (cause.wasEvicted()) {
+                        forgottenGeneration.accumulateAndGet(evictedAt, Math::max);
+                    }
+                })
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, beersById, "beersById");
+        CaffeineCacheMetrics.monitor(meterRegistry, beersByName, "beersByName");
+    }
+
+    public Optional<BeerDTO> getById(Long id) {
+        return Optional.ofNullable(beersById.getIfPresent(id)).map(BeerCache::copyOf);
+    }
+
+    public Optional<BeerDTO> getByName(String name) {
+        return Optional.ofNullable(beersByName.getIfPresent(name)).map(BeerCache::copyOf);
+    }
+
+    /**
+     * Generation to pass to {@link #put(BeerDTO, long)} for a value read from the database after this call.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Caches a value read from the database, unless the beer was evicted after {@code readGeneration} was taken.
+     */
+    public void put(BeerDTO beerDTO, long readGeneration) {
+        BeerDTO cachedBeerDTO = copyOf(beerDTO);
+        BeerDTO[] previousBeerDTO = new BeerDTO[1];
+        beersById.asMap().compute(beerDTO.getId(), (id, previous) -> {
+            if (isEvictedSince(id, readGeneration)) {
+                return previous;
+            }
+            previousBeerDTO[0] = previous;
+            return cachedBeerDTO;
+        });
+
+        if (previousBeerDTO[0] != null && !previousBeerDTO[0].getName().equals(beerDTO.getName())) {
+            beersByName.invalidate(previousBeerDTO[0].getName());
+        }
+        beersByName.asMap().compute(beerDTO.getName(), (name, previous) ->
+                isEvictedSince(beerDTO.getId(), readGeneration) ? previous : cachedBeerDTO);
+    }
+
+    /**
+     * Caches the value once the current transaction commits, unless the beer is evicted in the meantime. Caches
+     * immediately when no transaction is active.
+     */
+    public void putAfterCommit(BeerDTO beerDTO) {
+        long readGeneration = generation();
+        BeerDTO cachedBeerDTO = copyOf(beerDTO);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(cachedBeerDTO, readGeneration);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(cachedBeerDTO, readGeneration);
+            }
+        });
+    }
+
+    public void evict(Long id, String name) {
+        tombstones.put(id, generation.incrementAndGet());
+        BeerDTO previousBeerDTO = beersById.asMap().remove(id);
+        if (previousBeerDTO != null) {
+            beersByName.invalidate(previousBeerDTO.getName());
+        }
+        beersByName.invalidate(name);
+    }
+
+    /**
+     * Evicts the beer once the current transaction commits, so a concurrent read cannot cache the value that is
+     * about to be replaced. Evicts immediately when no transaction is active.
+     */
+    public void evictAfterCommit(Long id, String name) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(id, name);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(id, name);
+            }
+        });
+    }
+
+    private boolean isEvictedSince(Long id, long readGeneration) {
+        if (readGeneration < forgottenGeneration.get()) {
+            return true;
+        }
+        Long evictedAt = tombstones.getIfPresent(id);
+        return evictedAt != null && evictedAt > readGeneration;
+    }
+
+    private static BeerDTO copyOf(BeerDTO beerDTO) {
+        return beerDTO.toBuilder().build();
+    }
+
+    private static <K> Cache<K, BeerDTO> buildCache(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+}
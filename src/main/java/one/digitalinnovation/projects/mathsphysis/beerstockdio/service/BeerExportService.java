@@ -0,0 +1,67 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerExportService {
+
+    private static final SerializedString LINE_SEPARATOR = new SerializedString("\n");
+
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    /**
+     * Writes the whole catalogue to the stream as newline-delimited JSON, one {@link BeerDTO} per line. Rows are
+     * read through a forward-only stream and detached as soon as they are written, so memory use does not grow
+     * with the catalogue size.
+     *
+     * @return the number of exported beers
+     */
+    @Transactional(readOnly = true)
+    public long exportTo(OutputStream outputStream) throws IOException {
+        ObjectWriter beerWriter = objectMapper.writerFor(BeerDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long exportedBeers = 0;
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+             Stream<Beer> beers = beerRepository.streamAllByOrderByIdAsc()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(LINE_SEPARATOR);
+
+            Iterator<Beer> beerIterator = beers.iterator();
+            while (beerIterator.hasNext()) {
+                Beer beer = beerIterator.next();
+                beerWriter.writeValue(generator, beerMapper.toDTO(beer));
+                entityManager.detach(beer);
+                exportedBeers++;
+            }
+
+            if (exportedBeers > 0) {
+                generator.writeRaw(LINE_SEPARATOR.getValue());
+            }
+        }
+
+        return exportedBeers;
+    }
+}
@@ -0,0 +1,279 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerImportRejectDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerImportResultDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidImportFileException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Imports beers from CSV or NDJSON in chunks. Each chunk is validated, checked for duplicate names with a single
+ * {@code IN} query, and inserted in its own transaction so Hibernate can send the inserts as one JDBC batch.
+ * Rejects carry fixed reasons; the exception behind a reject is only logged.
+ */
+@Slf4j
+@Service
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerImportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_REPORTED_REJECTS = 1000;
+    private static final List<String> CSV_COLUMNS = List.of("name", "brand", "max", "quantity", "type");
+
+    private final BeerRepository beerRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final LowStockMonitor lowStockMonitor;
+    private final StockLedger stockLedger;
+    private final StockEventOutbox stockEventOutbox;
+    private final StockStream stockStream;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    /**
+     * Imports a CSV file whose first line is a header naming the {@code name, brand, max, quantity, type} columns
+     * in any order, each of them once. Values are comma separated and cannot be quoted.
+     */
+    public BeerImportResultDTO importCsv(InputStream inputStream) throws IOException, InvalidImportFileException {
+        BufferedReader reader = newReader(inputStream);
+        String header = reader.readLine();
+        if (header == null) {
+            return new ImportReport().toDTO();
+        }
+
+        Map<String, Integer> columns = parseCsvHeader(header);
+        return importRows(reader, 2, line -> parseCsvRow(line, columns));
+    }
+
+    public BeerImportResultDTO importNdjson(InputStream inputStream) throws IOException {
+        return importRows(newReader(inputStream), 1, this::parseNdjsonRow);
+    }
+
+    private BeerImportResultDTO importRows(BufferedReader reader, long firstLineNumber, RowParser rowParser) throws IOException {
+        ImportReport report = new ImportReport();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long lineNumber = firstLineNumber - 1;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            try {
+                chunk.add(new ImportRow(lineNumber, rowParser.parse(line)));
+            } catch (MalformedRowException e) {
+                log.debug("Rejecting malformed import row at line {}", lineNumber, e);
+                report.reject(lineNumber, null, "Malformed row: " + e.getMessage());
+            }
+
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, report);
+                chunk.clear();
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, report);
+        }
+        return report.toDTO();
+    }
+
+    private void importChunk(List<ImportRow> rows, ImportReport report) {
+        List<ImportRow> validRows = new ArrayList<>(rows.size());
+        Set<String> namesInChunk = new HashSet<>();
+
+        for (ImportRow row : rows) {
+            String name = row.getBeerDTO().getName();
+            Set<ConstraintViolation<BeerDTO>> violations = validator.validate(row.getBeerDTO());
+            if (!violations.isEmpty()) {
+                report.reject(row.getLine(), name, describe(violations));
+            } else if (!namesInChunk.add(name)) {
+                report.reject(row.getLine(), name, new BeerAlreadyRegisteredException(name).getMessage());
+            } else {
+                validRows.add(row);
+            }
+        }
+
+        if (validRows.isEmpty()) {
+            return;
+        }
+
+        Set<String> registeredNames = new HashSet<>(beerRepository.findNamesIn(namesInChunk));
+        List<ImportRow> rowsToInsert = new ArrayList<>(validRows.size());
+        for (ImportRow row : validRows) {
+            String name = row.getBeerDTO().getName();
+            if (registeredNames.contains(name)) {
+                report.reject(row.getLine(), name, new BeerAlreadyRegisteredException(name).getMessage());
+            } else {
+                rowsToInsert.add(row);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Beer> insertedBeers = new ArrayList<>(rowsToInsert.size());
+                for (ImportRow row : rowsToInsert) {
+                    Beer beer = beerMapper.toModel(row.getBeerDTO());
+                    beer.setId(null);
+                    entityManager.persist(beer);
+                    insertedBeers.add(beer);
+                    stockLedger.record(beer.getId(), beer.getQuantity(), beer.getQuantity());
+                    stockEventOutbox.append(StockEventType.CREATED, beer);
+                }
+                lowStockMonitor.onStockChanged(insertedBeers);
+                stockStream.onStockChanged(insertedBeers);
+                entityManager.flush();
+                entityManager.clear();
+            });
+            report.imported(rowsToInsert.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not store {} imported beers", rowsToInsert.size(), e);
+            rowsToInsert.forEach(row -> report.reject(row.getLine(), row.getBeerDTO().getName(), "Could not be stored"));
+        }
+    }
+
+    private Map<String, Integer> parseCsvHeader(String header) throws InvalidImportFileException {
+        String[] headerColumns = header.split(",", -1);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int index = 0; index < headerColumns.length; index++) {
+            String column = headerColumns[index].trim().toLowerCase(Locale.ROOT);
+            if (columns.put(column, index) != null) {
+                throw new InvalidImportFileException("CSV header names the column " + column + " more than once");
+            }
+        }
+
+        if (!columns.keySet().containsAll(CSV_COLUMNS)) {
+            throw new InvalidImportFileException("CSV header must name the columns " + CSV_COLUMNS);
+        }
+        return columns;
+    }
+
+    private BeerDTO parseNdjsonRow(String line) throws MalformedRowException {
+        BeerDTO beerDTO;
+        try {
+            beerDTO = objectMapper.readValue(line, BeerDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new MalformedRowException("expected a beer as a JSON object", e);
+        }
+        if (beerDTO == null) {
+            throw new MalformedRowException("expected a beer but found null", null);
+        }
+        return beerDTO;
+    }
+
+    private static BeerDTO parseCsvRow(String line, Map<String, Integer> columns) throws MalformedRowException {
+        String[] values = line.split(",", -1);
+        if (values.length != columns.size()) {
+            throw new MalformedRowException(String.format("expected %d columns but found %d", columns.size(), values.length), null);
+        }
+
+        return BeerDTO.builder()
+                .name(values[columns.get("name")].trim())
+                .brand(values[columns.get("brand")].trim())
+                .max(parseCsvInteger(values, columns, "max"))
+                .quantity(parseCsvInteger(values, columns, "quantity"))
+                .type(parseCsvType(values, columns))
+                .build();
+    }
+
+    private static Integer parseCsvInteger(String[] values, Map<String, Integer> columns, String column) throws MalformedRowException {
+        try {
+            return Integer.valueOf(values[columns.get(column)].trim());
+        } catch (NumberFormatException e) {
+            throw new MalformedRowException(column + " must be a whole number", e);
+        }
+    }
+
+    private static BeerType parseCsvType(String[] values, Map<String, Integer> columns) throws MalformedRowException {
+        try {
+            return BeerType.valueOf(values[columns.get("type")].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new MalformedRowException("type must be one of " + Arrays.toString(BeerType.values()), e);
+        }
+    }
+
+    private static String describe(Set<ConstraintViolation<BeerDTO>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static BufferedReader newReader(InputStream inputStream) {
+        return new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        BeerDTO parse(String line) throws MalformedRowException;
+    }
+
+    private static class MalformedRowException extends Exception {
+        MalformedRowException(String reason, Throwable cause) {
+            super(reason, cause);
+        }
+    }
+
+    @lombok.Value
+    private static class ImportRow {
+        long line;
+        BeerDTO beerDTO;
+    }
+
+    private static class ImportReport {
+
+        private long imported;
+        private long rejected;
+        private final List<BeerImportRejectDTO> rejects = new ArrayList<>();
+
+        void imported(int count) {
+            imported += count;
+        }
+
+        void reject(long line, String name, String reason) {
+            rejected++;
+            if (rejects.size() < MAX_REPORTED_REJECTS) {
+                rejects.add(BeerImportRejectDTO.builder()
+                        .line(line)
+                        .name(name)
+                        .reason(reason)
+                        .build());
+            }
+        }
+
+        BeerImportResultDTO toDTO() {
+            rejects.sort(Comparator.comparingLong(BeerImportRejectDTO::getLine));
+            return BeerImportResultDTO.builder()
+                    .imported(imported)
+                    .rejected(rejected)
+                    .rejects(rejects)
+                    .build();
+        }
+    }
+}
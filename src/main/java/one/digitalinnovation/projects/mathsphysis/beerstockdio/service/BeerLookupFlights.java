@@ -0,0 +1,36 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link SingleFlight}s of the beer lookups that miss the {@link BeerCache}, so a burst of reads of the same beer
+ * runs a single query. Followers get their own copy of the {@link BeerDTO}. The leader caches what it read with the
+ * cache generation taken before its query, so the put is skipped when the beer was evicted during the flight.
+ */
+@Component
+public class BeerLookupFlights {
+
+    private final SingleFlight<String, BeerDTO> byName;
+    private final SingleFlight<Long, BeerDTO> byId;
+
+    public BeerLookupFlights(MeterRegistry meterRegistry,
+                             @Value("${beerstock.single-flight.enabled:true}") boolean enabled) {
+        this.byName = new SingleFlight<>(meterRegistry, "findByName", enabled, BeerLookupFlights::copyOf);
+        this.byId = new SingleFlight<>(meterRegistry, "findById", enabled, BeerLookupFlights::copyOf);
+    }
+
+    public SingleFlight<String, BeerDTO> byName() {
+        return byName;
+    }
+
+    public SingleFlight<Long, BeerDTO> byId() {
+        return byId;
+    }
+
+    private static BeerDTO copyOf(BeerDTO beerDTO) {
+        return beerDTO.toBuilder().build();
+    }
+}
@@ -1,69 +1,260 @@
 package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
 
 import lombok.AllArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.aspect.RetryOnConflict;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ListingProperties;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerSearchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementBatchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerCursorPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerPageDTO;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.MessageResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockMovementBatchResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockMovementResultDTO;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BatchMode;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.MovementStatus;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerVersionMismatchException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidCursorException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidSortException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerSpecifications;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.WarehouseStockRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor(onConstructor = @__(@Autowired))
 public class BeerService {
 
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "brand", "max", "quantity", "type");
+
     private final BeerRepository beerRepository;
+    private final StockEngine stockEngine;
+    private final BeerCache beerCache;
+    private final ListingProperties listingProperties;
+    private final StockMetrics stockMetrics;
+    private final LowStockMonitor lowStockMonitor;
+    private final StockLedger stockLedger;
+    private final BeerLookupFlights beerLookupFlights;
+    private final StockEventOutbox stockEventOutbox;
+    private final StockStream stockStream;
+    private final WarehouseStockRepository warehouseStockRepository;
     private final BeerMapper beerMapper = BeerMapper.INSTANCE;
 
+    @Transactional
     public BeerDTO createBeer(BeerDTO beerDTO) throws BeerAlreadyRegisteredException {
         verifyIfIsAlreadyRegistered(beerDTO.getName());
         Beer beer = beerMapper.toModel(beerDTO);
         Beer savedBeer = beerRepository.save(beer);
-
-        return beerMapper.toDTO(savedBeer);
+        lowStockMonitor.onStockChanged(savedBeer);
+        stockStream.onStockChanged(savedBeer);
+        stockLedger.record(savedBeer.getId(), savedBeer.getQuantity(), savedBeer.getQuantity());
+        stockEventOutbox.append(StockEventType.CREATED, savedBeer);
+
+        BeerDTO savedBeerDTO = beerMapper.toDTO(savedBeer);
+        beerCache.putAfterCommit(savedBeerDTO);
+        return savedBeerDTO;
     }
 
     public BeerDTO findByName(String name) throws BeerNotFoundException {
-        Beer beerFound = beerRepository.findByName(name).orElseThrow(() -> new BeerNotFoundException(name));
+        Optional<BeerDTO> cachedBeerDTO = beerCache.getByName(name);
+        if (cachedBeerDTO.isPresent()) {
+            return cachedBeerDTO.get();
+        }
 
-        return beerMapper.toDTO(beerFound);
+        return beerLookupFlights.byName().execute(name, () -> {
+            long readGeneration = beerCache.generation();
+            Beer beerFound = beerRepository.findByName(name).orElseThrow(() -> new BeerNotFoundException(name));
+
+            BeerDTO beerFoundDTO = beerMapper.toDTO(beerFound);
+            beerCache.put(beerFoundDTO, readGeneration);
+            return beerFoundDTO;
+        });
     }
 
+    @Transactional(readOnly = true)
     public List<BeerDTO> listAll() {
-        return beerRepository.findAll()
+        return beerRepository.findAllByOrderByIdAsc(PageRequest.of(0, listingProperties.getMaxResults()))
                 .stream()
                 .map(beerMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public BeerPageDTO listPage(Pageable pageable) throws InvalidSortException {
+        return toBeerPageDTO(beerRepository.findAll(stablePageable(pageable, listingProperties.getMaxPageSize())));
+    }
+
+    public List<BeerDTO> listLowStock() {
+        return lowStockMonitor.getLowStockBeers();
+    }
+
+    /**
+     * Pages through the beers matching every filter set in the search, sorted like {@link #listPage(Pageable)}.
+     */
+    @Transactional(readOnly = true)
+    public BeerPageDTO search(BeerSearchDTO search, Pageable pageable) throws InvalidSortException {
+        return toBeerPageDTO(beerRepository.findAll(BeerSpecifications.matching(search), stablePageable(pageable, listingProperties.getMaxPageSize())));
+    }
+
+    /**
+     * Adds id as the last sort key and clamps the page size. Only the fields of the listed beers can be sorted by;
+     * any other property is rejected instead of reaching the query.
+     */
+    static Pageable stablePageable(Pageable pageable, int maxPageSize) throws InvalidSortException {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORTABLE_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidSortException(order.getProperty());
+            }
+        }
+        Sort stableSort = pageable.getSort().getOrderFor("id") == null
+                ? pageable.getSort().and(Sort.by("id"))
+                : pageable.getSort();
+        return PageRequest.of(pageable.getPageNumber(), limitPageSize(pageable.getPageSize(), maxPageSize), stableSort);
+    }
+
+    private BeerPageDTO toBeerPageDTO(Page<Beer> beerPage) {
+        return BeerPageDTO.builder()
+                .content(beerPage.map(beerMapper::toDTO).getContent())
+                .page(beerPage.getNumber())
+                .size(beerPage.getSize())
+                .totalElements(beerPage.getTotalElements())
+                .totalPages(beerPage.getTotalPages())
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public BeerCursorPageDTO listAfter(String cursor, int limit) throws InvalidCursorException {
+        long afterId = cursor == null || cursor.isEmpty() ? 0L : decodeCursor(cursor);
+        int pageSize = limitPageSize(limit, listingProperties.getMaxPageSize());
+
+        List<Beer> beers = beerRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasNextPage = beers.size() > pageSize;
+        List<Beer> pageContent = hasNextPage ? beers.subList(0, pageSize) : beers;
+
+        return BeerCursorPageDTO.builder()
+                .content(pageContent.stream()
+                        .map(beerMapper::toDTO)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasNextPage ? encodeCursor(pageContent.get(pageSize - 1).getId()) : null)
+                .build();
+    }
+
+    @Transactional
     public void deleteById(Long id) throws BeerNotFoundException {
-        verifyIfExists(id);
+        stockEngine.evict(id);
+        Beer beerToDelete = verifyIfExists(id);
+        warehouseStockRepository.deleteByBeerId(id);
         beerRepository.deleteById(id);
+        beerRepository.flush();
+        stockEventOutbox.append(StockEventType.DELETED, beerToDelete);
+        beerCache.evict(id, beerToDelete.getName());
+        lowStockMonitor.onDeleted(id);
+        stockStream.onDeleted(beerToDelete);
     }
 
     public BeerDTO findById(Long id) throws BeerNotFoundException {
-        Beer beerFound = verifyIfExists(id);
-        return beerMapper.toDTO(beerFound);
+        Optional<BeerDTO> cachedBeerDTO = beerCache.getById(id);
+        if (cachedBeerDTO.isPresent()) {
+            return cachedBeerDTO.get();
+        }
+
+        return beerLookupFlights.byId().execute(id, () -> {
+            long readGeneration = beerCache.generation();
+            Beer beerFound = verifyIfExists(id);
+            BeerDTO beerFoundDTO = beerMapper.toDTO(beerFound);
+            beerCache.put(beerFoundDTO, readGeneration);
+            return beerFoundDTO;
+        });
     }
 
-    public MessageResponseDTO updateById(Long id, BeerDTO beerDTO) throws BeerNotFoundException {
-        verifyIfExists(id);
-        Beer beerToUpdate = beerMapper.toModel(beerDTO);
+    @RetryOnConflict
+    @Transactional
+    public MessageResponseDTO updateById(Long id, BeerDTO beerDTO) throws BeerNotFoundException, BeerVersionMismatchException, BeerNegativeStockException {
+        return updateById(id, beerDTO, null);
+    }
+
+    /**
+     * Copies the DTO onto the stored beer. The update is conditional when an expected version is given, or else
+     * when the DTO carries the version it was read at: a beer changed since then is rejected with
+     * {@link BeerVersionMismatchException}. An unconditional update that loses an optimistic locking race is
+     * retried against the fresh row. The quantity cannot be set below the part allocated to warehouse locations
+     * and reserved.
+     */
+    @RetryOnConflict
+    @Transactional
+    public MessageResponseDTO updateById(Long id, BeerDTO beerDTO, Long expectedVersion) throws BeerNotFoundException, BeerVersionMismatchException, BeerNegativeStockException {
+        stockEngine.evictAroundTransaction(Collections.singletonList(id));
+        Beer beerToUpdate = verifyIfExists(id);
+        String previousName = beerToUpdate.getName();
+        int previousQuantity = beerToUpdate.getQuantity();
+
+        Long requiredVersion = expectedVersion != null ? expectedVersion : beerDTO.getVersion();
+        if (requiredVersion != null && !requiredVersion.equals(beerToUpdate.getVersion())) {
+            beerCache.evict(id, previousName);
+            throw new BeerVersionMismatchException(id, String.valueOf(requiredVersion));
+        }
+        int heldQuantity = beerToUpdate.getAllocated() + beerToUpdate.getReserved();
+        if (beerDTO.getQuantity() < heldQuantity) {
+            throw new BeerNegativeStockException(id, heldQuantity - beerDTO.getQuantity());
+        }
 
-        Beer updatedBeer = beerRepository.save(beerToUpdate);
+        beerMapper.updateModel(beerDTO, beerToUpdate);
+        Beer updatedBeer = beerRepository.saveAndFlush(beerToUpdate);
+        lowStockMonitor.onStockChanged(updatedBeer);
+        stockStream.onStockChanged(updatedBeer);
+        stockLedger.record(id, updatedBeer.getQuantity() - previousQuantity, updatedBeer.getQuantity());
+        stockEventOutbox.append(StockEventType.UPDATED, updatedBeer);
+        beerCache.evictAfterCommit(id, previousName);
+        beerCache.evictAfterCommit(id, updatedBeer.getName());
 
         return getMessageResponseDTO("Updated Beer with ID: " + updatedBeer.getId());
     }
 
+    static int limitPageSize(int requestedPageSize, int maxPageSize) {
+        return Math.max(1, Math.min(requestedPageSize, maxPageSize));
+    }
+
+    static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static long decodeCursor(String cursor) throws InvalidCursorException {
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
     private MessageResponseDTO getMessageResponseDTO(String message) {
         return MessageResponseDTO.builder()
                 .message(message)
@@ -83,40 +274,157 @@ public class BeerService {
         return beerRepository.findById(id).orElseThrow(() -> new BeerNotFoundException(id));
     }
 
+    /**
+     * Re-reads the row after a conditional update: the second-level cache only drops the beer once the update
+     * commits, so {@link #verifyIfExists(Long)} could still return the quantity from before it.
+     */
+    private Beer verifyIfStored(Long id) throws BeerNotFoundException {
+        return beerRepository.findStoredById(id).orElseThrow(() -> new BeerNotFoundException(id));
+    }
 
-    public BeerDTO increment(Long id, Integer quantityToIncrement) throws BeerStockExceededException, BeerNotFoundException {
-        Beer beerToIncrementStock = verifyIfExists(id);
 
-        if(quantityToIncrement > beerToIncrementStock.getMax()){
-            throw new BeerStockExceededException(id, quantityToIncrement);
+    @RetryOnConflict
+    @Transactional
+    public BeerDTO increment(Long id, Integer quantityToIncrement) throws BeerStockExceededException, BeerNotFoundException {
+        if(stockEngine.isEnabled()) {
+            Beer incrementedBeer = stockEngine.increment(id, quantityToIncrement);
+            lowStockMonitor.onStockChanged(incrementedBeer);
+            stockStream.onStockChanged(incrementedBeer);
+            stockLedger.record(id, quantityToIncrement, incrementedBeer.getQuantity());
+            stockEventOutbox.append(StockEventType.INCREMENTED, incrementedBeer);
+            BeerDTO incrementedBeerDTO = beerMapper.toDTO(incrementedBeer);
+            beerCache.putAfterCommit(incrementedBeerDTO);
+            return incrementedBeerDTO;
         }
 
-        Integer amountLeftToMax = beerToIncrementStock.getMax() - beerToIncrementStock.getQuantity();
+        int updatedRows = beerRepository.incrementQuantity(id, quantityToIncrement);
 
-        if(quantityToIncrement > amountLeftToMax){
+        if(updatedRows == 0) {
+            verifyIfExists(id);
             throw new BeerStockExceededException(id, quantityToIncrement);
         }
 
-        Integer quantityAfterIncrement = beerToIncrementStock.getQuantity() + quantityToIncrement;
-
-        beerToIncrementStock.setQuantity(quantityAfterIncrement);
-        Beer incrementedBeerStock = beerRepository.save(beerToIncrementStock);
+        Beer incrementedBeerStock = verifyIfStored(id);
+        lowStockMonitor.onStockChanged(incrementedBeerStock);
+        stockStream.onStockChanged(incrementedBeerStock);
+        stockLedger.record(id, quantityToIncrement, incrementedBeerStock.getQuantity());
+        stockEventOutbox.append(StockEventType.INCREMENTED, incrementedBeerStock);
+        beerCache.evictAfterCommit(id, incrementedBeerStock.getName());
         return beerMapper.toDTO(incrementedBeerStock);
-
     }
 
+    @RetryOnConflict
+    @Transactional
     public BeerDTO decrement(Long id, Integer quantityToDecrement) throws BeerNotFoundException, BeerNegativeStockException {
-        Beer beerToDecrementStock = verifyIfExists(id);
+        if(stockEngine.isEnabled()) {
+            Beer decrementedBeer = stockEngine.decrement(id, quantityToDecrement);
+            lowStockMonitor.onStockChanged(decrementedBeer);
+            stockStream.onStockChanged(decrementedBeer);
+            stockLedger.record(id, -quantityToDecrement, decrementedBeer.getQuantity());
+            stockEventOutbox.append(StockEventType.DECREMENTED, decrementedBeer);
+            BeerDTO decrementedBeerDTO = beerMapper.toDTO(decrementedBeer);
+            beerCache.putAfterCommit(decrementedBeerDTO);
+            return decrementedBeerDTO;
+        }
+
+        int updatedRows = beerRepository.decrementQuantity(id, quantityToDecrement);
 
-        if(quantityToDecrement > beerToDecrementStock.getQuantity()) {
+        if(updatedRows == 0) {
+            verifyIfExists(id);
             throw new BeerNegativeStockException(id, quantityToDecrement);
         }
 
-        Integer quantityAfterDecrement = beerToDecrementStock.getQuantity() - quantityToDecrement;
+        Beer decrementedBeerStock = verifyIfStored(id);
+        lowStockMonitor.onStockChanged(decrementedBeerStock);
+        stockStream.onStockChanged(decrementedBeerStock);
+        stockLedger.record(id, -quantityToDecrement, decrementedBeerStock.getQuantity());
+        stockEventOutbox.append(StockEventType.DECREMENTED, decrementedBeerStock);
+        beerCache.evictAfterCommit(id, decrementedBeerStock.getName());
+        return beerMapper.toDTO(decrementedBeerStock);
+    }
 
-        beerToDecrementStock.setQuantity(quantityAfterDecrement);
-        Beer incrementedBeerStock = beerRepository.save(beerToDecrementStock);
-        return beerMapper.toDTO(incrementedBeerStock);
+    /**
+     * Applies every movement of the batch inside a single transaction. The affected beers are locked in id order,
+     * the deltas are validated with the same max and non-negative rules used by increment and decrement, and the
+     * resulting updates are flushed together as one JDBC batch.
+     */
+    @RetryOnConflict
+    @Transactional
+    public StockMovementBatchResponseDTO applyMovements(StockMovementBatchDTO movementBatchDTO) {
+        List<StockMovementDTO> movements = movementBatchDTO.getMovements();
+        List<Long> beerIds = movements.stream()
+                .map(StockMovementDTO::getId)
+                .distinct()
+                .collect(Collectors.toList());
+        stockEngine.evictAroundTransaction(beerIds);
+        Map<Long, Beer> beersById = beerRepository.findAllByIdInOrderByIdAsc(beerIds)
+                .stream()
+                .collect(Collectors.toMap(Beer::getId, Function.identity()));
+        beersById.values().forEach(beer -> beerCache.evictAfterCommit(beer.getId(), beer.getName()));
+
+        List<StockMovementResultDTO> results = new ArrayList<>(movements.size());
+        Map<Long, Beer> movedBeersById = new LinkedHashMap<>();
+        boolean anyRejected = false;
+
+        for (StockMovementDTO movement : movements) {
+            try {
+                Beer beerToMove = Optional.ofNullable(beersById.get(movement.getId()))
+                        .orElseThrow(() -> new BeerNotFoundException(movement.getId()));
+                applyStockDelta(beerToMove, movement.getDelta());
+                movedBeersById.put(beerToMove.getId(), beerToMove);
+                stockLedger.record(beerToMove.getId(), movement.getDelta(), beerToMove.getQuantity());
+                stockEventOutbox.append(movement.getDelta() < 0 ? StockEventType.DECREMENTED : StockEventType.INCREMENTED, beerToMove);
+                results.add(getStockMovementResultDTO(movement, MovementStatus.APPLIED, beerToMove.getQuantity(), null));
+            } catch (BeerNotFoundException | BeerStockExceededException | BeerNegativeStockException e) {
+                results.add(getStockMovementResultDTO(movement, MovementStatus.REJECTED, null, e.getMessage()));
+                stockMetrics.recordRejection("applyMovements", e);
+                anyRejected = true;
+            }
+        }
+
+        boolean committed = !(anyRejected && movementBatchDTO.getMode() == BatchMode.ALL_OR_NOTHING);
+        if (!committed) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            results.stream()
+                    .filter(result -> result.getStatus() == MovementStatus.APPLIED)
+                    .forEach(result -> {
+                        result.setStatus(MovementStatus.ROLLED_BACK);
+                        result.setQuantity(null);
+                    });
+        } else if (!movedBeersById.isEmpty()) {
+            beerRepository.flush();
+            lowStockMonitor.onStockChanged(movedBeersById.values());
+            stockStream.onStockChanged(movedBeersById.values());
+        }
+
+        return StockMovementBatchResponseDTO.builder()
+                .mode(movementBatchDTO.getMode())
+                .committed(committed)
+                .results(results)
+                .build();
+    }
 
+    private void applyStockDelta(Beer beer, int delta) throws BeerStockExceededException, BeerNegativeStockException {
+        long quantityAfterMovement = (long) beer.getQuantity() + delta;
+
+        if(StockRules.exceedsMax(beer, quantityAfterMovement)) {
+            throw new BeerStockExceededException(beer.getId(), delta);
+        }
+
+        if(StockRules.isBelowHeldStock(beer, quantityAfterMovement)) {
+            throw new BeerNegativeStockException(beer.getId(), Math.negateExact(delta));
+        }
+
+        beer.setQuantity((int) quantityAfterMovement);
+    }
+
+    private StockMovementResultDTO getStockMovementResultDTO(StockMovementDTO movement, MovementStatus status, Integer quantity, String message) {
+        return StockMovementResultDTO.builder()
+                .id(movement.getId())
+                .delta(movement.getDelta())
+                .status(status)
+                .quantity(quantity)
+                .message(message)
+                .build();
     }
 }
@@ -0,0 +1,61 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ListingProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerView;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerViewCursorPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerViewPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidCursorException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidSortException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Listings of {@link BeerView} projections, paged and sorted like the {@link BeerService} listings. The queries
+ * select the columns straight into the views inside read-only transactions, so no entity is loaded, snapshotted
+ * for dirty checking or mapped.
+ */
+@Service
+@Transactional(readOnly = true)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class BeerViewService {
+
+    private final BeerRepository beerRepository;
+    private final ListingProperties listingProperties;
+
+    public List<BeerView> listAll() {
+        return beerRepository.findAllViews(PageRequest.of(0, listingProperties.getMaxResults()));
+    }
+
+    public BeerViewPageDTO listPage(Pageable pageable) throws InvalidSortException {
+        Page<BeerView> beerViewPage = beerRepository.findViewsPage(BeerService.stablePageable(pageable, listingProperties.getMaxPageSize()));
+        return BeerViewPageDTO.builder()
+                .content(beerViewPage.getContent())
+                .page(beerViewPage.getNumber())
+                .size(beerViewPage.getSize())
+                .totalElements(beerViewPage.getTotalElements())
+                .totalPages(beerViewPage.getTotalPages())
+                .build();
+    }
+
+    public BeerViewCursorPageDTO listAfter(String cursor, int limit) throws InvalidCursorException {
+        long afterId = cursor == null || cursor.isEmpty() ? 0L : BeerService.decodeCursor(cursor);
+        int pageSize = BeerService.limitPageSize(limit, listingProperties.getMaxPageSize());
+
+        List<BeerView> beerViews = beerRepository.findViewsAfter(afterId, PageRequest.of(0, pageSize + 1));
+        boolean hasNextPage = beerViews.size() > pageSize;
+        List<BeerView> pageContent = hasNextPage ? beerViews.subList(0, pageSize) : beerViews;
+
+        return BeerViewCursorPageDTO.builder()
+                .content(pageContent)
+                .nextCursor(hasNextPage ? BeerService.encodeCursor(pageContent.get(pageSize - 1).id()) : null)
+                .build();
+    }
+}
@@ -0,0 +1,98 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.RateLimitProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.RateLimitBudget;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-client token buckets, one for each {@link RateLimitBudget}, kept in the generic cell rate form: instead of a
+ * token count and a refill time, a bucket is the single instant at which it would be full again. A request is
+ * allowed when that instant is no further ahead than the burst allows and then pushes it one emission interval
+ * further, published with a compare-and-set, so a decision never takes a lock and a client costs one long per
+ * budget. Clients live in a Caffeine cache bounded by {@code beerstock.rate-limit.max-clients} and forgotten after
+ * {@code idle-timeout}.
+ *
+ * <p>{@code beerstock.limiter.requests} counts the decisions tagged {@code limiter=rate}, the budget and
+ * {@code outcome=allowed} or {@code rejected}, and {@code beerstock.limiter.clients} the clients tracked.</p>
+ */
+public class ClientRateLimiter {
+
+    private static final RateLimitBudget[] BUDGETS = RateLimitBudget.values();
+
+    private final Cache<String, AtomicLongArray> clients;
+    private final long[] emissionIntervalNanos = new long[BUDGETS.length];
+    private final long[] burstToleranceNanos = new long[BUDGETS.length];
+    private final Counter[] allowed = new Counter[BUDGETS.length];
+    private final Counter[] rejected = new Counter[BUDGETS.length];
+
+    public ClientRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(properties.getIdleTimeout().toNanos(), TimeUnit.NANOSECONDS)
+                .build();
+        configure(RateLimitBudget.READ, properties.getReadsPerSecond(), properties.getReadBurst(), meterRegistry);
+        configure(RateLimitBudget.MUTATION, properties.getMutationsPerSecond(), properties.getMutationBurst(), meterRegistry);
+
+        Gauge.builder("beerstock.limiter.clients", clients, Cache::estimatedSize)
+                .description("Clients whose rate limit budgets are tracked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes a token from the client's bucket. Returns zero when the request is allowed, or else how many
+     * nanoseconds the client has to wait before the next request of this budget can be.
+     */
+    public long tryAcquire(String clientId, RateLimitBudget budget) {
+        AtomicLongArray fullAt = clients.get(clientId, id -> newBuckets());
+        int index = budget.ordinal();
+
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get(index);
+            long start = Math.max(current, now);
+            long waitNanos = start - now - burstToleranceNanos[index];
+            if (waitNanos > 0) {
+                rejected[index].increment();
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(index, current, start + emissionIntervalNanos[index])) {
+                allowed[index].increment();
+                return 0;
+            }
+        }
+    }
+
+    long trackedClients() {
+        clients.cleanUp();
+        return clients.estimatedSize();
+    }
+
+    private void configure(RateLimitBudget budget, double permitsPerSecond, int burst, MeterRegistry meterRegistry) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst of the " + budget.getDescription() + " budget must be positive");
+        }
+
+        int index = budget.ordinal();
+        emissionIntervalNanos[index] = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        burstToleranceNanos[index] = emissionIntervalNanos[index] * (burst - 1);
+        allowed[index] = meterRegistry.counter("beerstock.limiter.requests",
+                "limiter", "rate", "budget", budget.getDescription(), "outcome", "allowed");
+        rejected[index] = meterRegistry.counter("beerstock.limiter.requests",
+                "limiter", "rate", "budget", budget.getDescription(), "outcome", "rejected");
+    }
+
+    private static AtomicLongArray newBuckets() {
+        AtomicLongArray fullAt = new AtomicLongArray(BUDGETS.length);
+        for (int index = 0; index < BUDGETS.length; index++) {
+            fullAt.set(index, Long.MIN_VALUE);
+        }
+        return fullAt;
+    }
+}
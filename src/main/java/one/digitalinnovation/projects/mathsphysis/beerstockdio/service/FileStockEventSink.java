@@ -0,0 +1,54 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.OutboxProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.StockChangeEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends relayed events to a local file as newline-delimited JSON. A batch is forced to disk before the relay
+ * removes it from the outbox, so a crash can repeat lines but never lose them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.outbox", name = "sink", havingValue = "file")
+public class FileStockEventSink implements StockEventSink {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    public FileStockEventSink(OutboxProperties outboxProperties, ObjectMapper objectMapper) {
+        this.file = outboxProperties.getFile();
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<StockChangeEvent> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (StockChangeEvent event : events) {
+            lines.write(objectMapper.writeValueAsBytes(event));
+            lines.write('\n');
+        }
+
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.IdempotencyProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.IdempotencyRecord;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.IdempotencyKeyReusedException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidIdempotencyKeyException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.IdempotencyRecordRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Applies stock movements sent with an {@code Idempotency-Key} at most once per key. The response of the first
+ * request is stored with the key, in the same transaction as the movement, and repeats of the request get that
+ * response back without touching the stock again; the same key sent with a different request is rejected.
+ *
+ * <p>Responses are looked up in a bounded in-memory cache first and in the database after an eviction or a
+ * restart. Concurrent duplicates wait for the request already running under their key instead of running
+ * themselves. Two nodes racing on the same key collide on the primary key of the record, which rolls back the
+ * movement of the loser; with the stock engine enabled that includes its journal entry, and the counter drops the
+ * movement when the transaction completes. Movements run in a single transaction without conflict retries; a
+ * conflict fails the request, and a retry under the same key is then safe by design.</p>
+ */
+@Slf4j
+@Service
+public class IdempotentStockService {
+
+    private static final String REPLAYS = "beerstock.idempotency.replays";
+
+    private final BeerService beerService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyProperties idempotencyProperties;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, StoredResponse> responses;
+    private final ConcurrentMap<String, InFlightRequest> inFlightRequests = new ConcurrentHashMap<>();
+
+    public IdempotentStockService(BeerService beerService,
+                                  IdempotencyRecordRepository idempotencyRecordRepository,
+                                  IdempotencyProperties idempotencyProperties,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  PlatformTransactionManager transactionManager) {
+        if (idempotencyProperties.getMaxKeyLength() < 1 || idempotencyProperties.getMaxKeyLength() > IdempotencyRecord.MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency max-key-length must be between 1 and " + IdempotencyRecord.MAX_KEY_LENGTH);
+        }
+
+        this.beerService = beerService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.idempotencyProperties = idempotencyProperties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(idempotencyProperties.getMaximumSize())
+                .expireAfterWrite(idempotencyProperties.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "idempotencyResponses");
+    }
+
+    public BeerDTO incrementOnce(String idempotencyKey, Long id, Integer quantityToIncrement)
+            throws BeerNotFoundException, BeerStockExceededException, IdempotencyKeyReusedException, InvalidIdempotencyKeyException {
+        try {
+            return execute(idempotencyKey, "increment:" + id + ":" + quantityToIncrement,
+                    () -> beerService.increment(id, quantityToIncrement));
+        } catch (BeerNotFoundException | BeerStockExceededException | IdempotencyKeyReusedException | InvalidIdempotencyKeyException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public BeerDTO decrementOnce(String idempotencyKey, Long id, Integer quantityToDecrement)
+            throws BeerNotFoundException, BeerNegativeStockException, IdempotencyKeyReusedException, InvalidIdempotencyKeyException {
+        try {
+            return execute(idempotencyKey, "decrement:" + id + ":" + quantityToDecrement,
+                    () -> beerService.decrement(id, quantityToDecrement));
+        } catch (BeerNotFoundException | BeerNegativeStockException | IdempotencyKeyReusedException | InvalidIdempotencyKeyException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpiredRecords() {
+        Instant createdBefore = Instant.now().minus(idempotencyProperties.getTtl());
+        Integer purgedRecords = transactionTemplate.execute(status -> idempotencyRecordRepository.deleteCreatedBefore(createdBefore));
+        log.debug("Purged {} expired idempotency records", purgedRecords);
+    }
+
+    private BeerDTO execute(String idempotencyKey, String fingerprint, StockOperation operation) throws Exception {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > idempotencyProperties.getMaxKeyLength()) {
+            throw new InvalidIdempotencyKeyException(idempotencyProperties.getMaxKeyLength());
+        }
+
+        StoredResponse cachedResponse = responses.getIfPresent(idempotencyKey);
+        if (cachedResponse != null) {
+            return replay(idempotencyKey, fingerprint, cachedResponse, "memory");
+        }
+
+        InFlightRequest request = new InFlightRequest(fingerprint);
+        InFlightRequest runningRequest = inFlightRequests.putIfAbsent(idempotencyKey, request);
+        if (runningRequest != null) {
+            if (!runningRequest.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            return replay(idempotencyKey, fingerprint, runningRequest.await(), "in_flight");
+        }
+
+        try {
+            StoredResponse response = responses.getIfPresent(idempotencyKey);
+            String source = "memory";
+            if (response == null) {
+                response = findStoredResponse(idempotencyKey);
+                source = "database";
+            }
+            if (response == null) {
+                response = apply(idempotencyKey, fingerprint, operation);
+                source = null;
+            }
+
+            responses.put(idempotencyKey, response);
+            request.result.complete(response);
+            return source == null ? response.beerDTO : replay(idempotencyKey, fingerprint, response, source);
+        } catch (Exception e) {
+            request.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightRequests.remove(idempotencyKey, request);
+        }
+    }
+
+    private StoredResponse apply(String idempotencyKey, String fingerprint, StockOperation operation) throws Exception {
+        try {
+            return transactionTemplate.execute(status -> {
+                try {
+                    idempotencyRecordRepository.deleteExpired(idempotencyKey, Instant.now().minus(idempotencyProperties.getTtl()));
+                    BeerDTO beerDTO = operation.apply();
+                    idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                            .key(idempotencyKey)
+                            .fingerprint(fingerprint)
+                            .response(objectMapper.writeValueAsString(beerDTO))
+                            .createdAt(Instant.now())
+                            .build());
+                    return new StoredResponse(fingerprint, beerDTO);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new OperationFailedException(e);
+                }
+            });
+        } catch (OperationFailedException e) {
+            throw (Exception) e.getCause();
+        } catch (DataIntegrityViolationException e) {
+            StoredResponse concurrentResponse = findStoredResponse(idempotencyKey);
+            if (concurrentResponse == null) {
+                throw e;
+            }
+            if (!concurrentResponse.fingerprint.equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(idempotencyKey);
+            }
+            return concurrentResponse;
+        }
+    }
+
+    private StoredResponse findStoredResponse(String idempotencyKey) {
+        Instant createdAfter = Instant.now().minus(idempotencyProperties.getTtl());
+        return idempotencyRecordRepository.findById(idempotencyKey)
+                .filter(record -> record.getCreatedAt().isAfter(createdAfter))
+                .map(record -> new StoredResponse(record.getFingerprint(), readBeerDTO(record.getResponse())))
+                .orElse(null);
+    }
+
+    private BeerDTO replay(String idempotencyKey, String fingerprint, StoredResponse response, String source) throws IdempotencyKeyReusedException {
+        if (!response.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(idempotencyKey);
+        }
+
+        meterRegistry.counter(REPLAYS, "source", source).increment();
+        return response.beerDTO;
+    }
+
+    private BeerDTO readBeerDTO(String json) {
+        try {
+            return objectMapper.readValue(json, BeerDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StockOperation {
+        BeerDTO apply() throws Exception;
+    }
+
+    private static class StoredResponse {
+
+        private final String fingerprint;
+        private final BeerDTO beerDTO;
+
+        StoredResponse(String fingerprint, BeerDTO beerDTO) {
+            this.fingerprint = fingerprint;
+            this.beerDTO = beerDTO;
+        }
+    }
+
+    private static class InFlightRequest {
+
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        InFlightRequest(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        StoredResponse await() throws Exception {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the request already running under the key", e);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private static class OperationFailedException extends RuntimeException {
+        OperationFailedException(Exception cause) {
+            super(cause);
+        }
+    }
+}
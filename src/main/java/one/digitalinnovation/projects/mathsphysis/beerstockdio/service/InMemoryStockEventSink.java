@@ -0,0 +1,43 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.OutboxProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.StockChangeEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the latest relayed events in memory, for local runs and tests. The default sink.
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.outbox", name = "sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryStockEventSink implements StockEventSink {
+
+    private final int capacity;
+    private final Deque<StockChangeEvent> events = new ArrayDeque<>();
+
+    public InMemoryStockEventSink(OutboxProperties outboxProperties) {
+        this.capacity = outboxProperties.getMemoryCapacity();
+    }
+
+    @Override
+    public synchronized void publish(List<StockChangeEvent> events) {
+        for (StockChangeEvent event : events) {
+            if (this.events.size() == capacity) {
+                this.events.removeFirst();
+            }
+            this.events.addLast(event);
+        }
+    }
+
+    /**
+     * Events kept so far, oldest first.
+     */
+    public synchronized List<StockChangeEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
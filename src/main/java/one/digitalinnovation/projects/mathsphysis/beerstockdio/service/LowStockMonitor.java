@@ -0,0 +1,155 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.LowStockProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockAlert;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.LowStockEvent;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the set of beers whose quantity is below {@link LowStockProperties#getThreshold()} of their max in memory.
+ * The set is loaded once at startup and then updated from every committed stock change reported by the services,
+ * so serving it never queries the catalogue. A {@link LowStockEvent} is published only when a beer crosses the
+ * threshold, not on every movement that leaves it on the same side.
+ *
+ * <p>Changes are applied per beer in version order: a change reported with an older version than the last one seen
+ * is ignored, so commits finishing out of order cannot flip a beer back. Event listeners run after the commit on
+ * the committing thread and must start their own transaction to write.</p>
+ */
+@Slf4j
+@Component
+public class LowStockMonitor {
+
+    private final BeerRepository beerRepository;
+    private final LowStockProperties lowStockProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final ConcurrentMap<Long, StockLevel> stockLevels = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<Long, BeerDTO> lowStockBeers = new ConcurrentSkipListMap<>();
+
+    public LowStockMonitor(BeerRepository beerRepository,
+                           LowStockProperties lowStockProperties,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.lowStockProperties = lowStockProperties;
+        this.eventPublisher = eventPublisher;
+
+        Gauge.builder("beerstock.stock.low", lowStockBeers, Map::size)
+                .description("Number of beers below the low-stock threshold")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLowStockBeers() {
+        beerRepository.findBelowFillRatio(lowStockProperties.getThreshold())
+                .forEach(beer -> apply(beerMapper.toDTO(beer), false));
+    }
+
+    /**
+     * Beers currently below the threshold, in id order.
+     */
+    public List<BeerDTO> getLowStockBeers() {
+        return new ArrayList<>(lowStockBeers.values());
+    }
+
+    public void onStockChanged(Beer beer) {
+        onStockChanged(Collections.singletonList(beer));
+    }
+
+    /**
+     * Re-evaluates the beers once the current transaction commits, as they are when reported: callers report a
+     * beer after changing it and flushing the change, so the copy taken here carries the quantity and version the
+     * transaction commits. Changes of a rolled back transaction are dropped. Applies immediately when no
+     * transaction is active.
+     */
+    public void onStockChanged(Collection<Beer> beers) {
+        List<BeerDTO> changedBeers = beers.stream()
+                .map(beerMapper::toDTO)
+                .collect(Collectors.toList());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changedBeers.forEach(beerDTO -> apply(beerDTO, true));
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changedBeers.forEach(beerDTO -> apply(beerDTO, true));
+            }
+        });
+    }
+
+    public void onDeleted(Long id) {
+        stockLevels.remove(id);
+        lowStockBeers.remove(id);
+    }
+
+    private void apply(BeerDTO beerDTO, boolean publishCrossing) {
+        boolean low = beerDTO.getQuantity() < beerDTO.getMax() * lowStockProperties.getThreshold();
+        AtomicReference<StockAlert> crossing = new AtomicReference<>();
+
+        stockLevels.compute(beerDTO.getId(), (id, previousLevel) -> {
+            if (previousLevel != null && previousLevel.isNewerThan(beerDTO.getVersion())) {
+                return previousLevel;
+            }
+
+            if (low) {
+                lowStockBeers.put(id, beerDTO);
+            } else {
+                lowStockBeers.remove(id);
+            }
+
+            boolean wasLow = previousLevel != null && previousLevel.low;
+            if (low != wasLow) {
+                crossing.set(low ? StockAlert.LOW : StockAlert.RESTOCKED);
+            }
+            return new StockLevel(beerDTO.getVersion(), low);
+        });
+
+        if (publishCrossing && crossing.get() != null) {
+            log.info("Beer {} is {}: {} of {}", beerDTO.getId(), crossing.get().getDescription().toLowerCase(),
+                    beerDTO.getQuantity(), beerDTO.getMax());
+            eventPublisher.publishEvent(new LowStockEvent(crossing.get(), beerDTO));
+        }
+    }
+
+    private static class StockLevel {
+
+        private final Long version;
+        private final boolean low;
+
+        StockLevel(Long version, boolean low) {
+            this.version = version;
+            this.low = low;
+        }
+
+        boolean isNewerThan(Long otherVersion) {
+            return version != null && otherVersion != null && version > otherVersion;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.OutboxProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.OutboxEvent;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.OutboxEventStatus;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.StockChangeEvent;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.OutboxEventRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Relays the outbox to the configured {@link StockEventSink}: the oldest events are read in id order, handed to
+ * the sink as one batch and deleted only once the sink accepted them. A failed batch stays in the outbox and is
+ * sent again, whole and first, on the next poll, so delivery is at least once and the events of a beer are never
+ * reordered. Deleting delivered events instead of tracking an offset means an event that commits after a newer id
+ * was already relayed is still picked up.
+ *
+ * <p>Every failure counts an attempt against the events sent, and the relay waits {@code retry-backoff}, doubled
+ * per attempt up to {@code max-retry-backoff}, before sending again. An event that already failed is sent alone,
+ * so an event the sink keeps rejecting, such as one whose payload no longer reads, cannot hold back the rest of
+ * its batch; once it has failed {@code max-attempts} times it is marked dead lettered, counted in
+ * {@code beerstock.outbox.dead.lettered} and skipped, and the events behind it move on. Dead lettered events stay
+ * in the table to be inspected and put back to pending by hand.</p>
+ *
+ * <p>Latency is bounded by {@code beerstock.outbox.poll-interval-ms}; throughput by the batch size and the
+ * batches relayed per poll. A single relay is assumed per database: two nodes relaying at once would each deliver
+ * the same events.</p>
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final StockEventSink stockEventSink;
+    private final OutboxProperties outboxProperties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter relayedEvents;
+    private final Counter failedBatches;
+    private final Counter deadLetteredEvents;
+    private final Timer relayLag;
+    private Instant retryNotBefore = Instant.MIN;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       StockEventSink stockEventSink,
+                       OutboxProperties outboxProperties,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.stockEventSink = stockEventSink;
+        this.outboxProperties = outboxProperties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayedEvents = Counter.builder("beerstock.outbox.relayed")
+                .description("Stock change events delivered to the sink")
+                .register(meterRegistry);
+        this.failedBatches = Counter.builder("beerstock.outbox.failures")
+                .description("Outbox batches the sink rejected, to be sent again")
+                .register(meterRegistry);
+        this.deadLetteredEvents = Counter.builder("beerstock.outbox.dead.lettered")
+                .description("Stock change events given up on after the sink rejected them max-attempts times")
+                .register(meterRegistry);
+        this.relayLag = Timer.builder("beerstock.outbox.lag")
+                .description("Time from the commit of a stock change to its delivery")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays batches until the outbox is drained, a batch fails or the per-poll limit is reached. Does nothing
+     * while waiting out the backoff of the last failure.
+     *
+     * @return the number of events delivered
+     */
+    @Scheduled(fixedDelayString = "${beerstock.outbox.poll-interval-ms:200}")
+    public synchronized int relay() {
+        if (Instant.now().isBefore(retryNotBefore)) {
+            return 0;
+        }
+
+        int batchSize = outboxProperties.getBatchSize();
+        int relayed = 0;
+
+        for (int batchNumber = 0; batchNumber < outboxProperties.getMaxBatchesPerPoll(); batchNumber++) {
+            List<OutboxEvent> pending = outboxEventRepository.findByStatusOrderByIdAsc(OutboxEventStatus.PENDING, PageRequest.of(0, batchSize));
+            if (pending.isEmpty()) {
+                break;
+            }
+            List<OutboxEvent> batch = pending.get(0).getAttempts() > 0 ? pending.subList(0, 1) : pending;
+
+            try {
+                stockEventSink.publish(batch.stream().map(this::toStockChangeEvent).collect(Collectors.toList()));
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                failedBatches.increment();
+                if (recordFailedAttempt(batch, e)) {
+                    continue;
+                }
+                break;
+            }
+            retryNotBefore = Instant.MIN;
+
+            List<Long> ids = batch.stream().map(OutboxEvent::getId).collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllByIdInBatch(ids));
+
+            Instant deliveredAt = Instant.now();
+            batch.forEach(event -> relayLag.record(Duration.between(event.getCreatedAt(), deliveredAt)));
+            relayedEvents.increment(batch.size());
+            relayed += batch.size();
+
+            if (pending.size() < batchSize) {
+                break;
+            }
+        }
+
+        return relayed;
+    }
+
+    /**
+     * Counts the failed attempt against the events of the batch, dead lettering the event if it was sent alone and
+     * has now failed {@code max-attempts} times.
+     *
+     * @return whether the event was dead lettered, so the events behind it can be relayed right away
+     */
+    private boolean recordFailedAttempt(List<OutboxEvent> batch, Exception e) {
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).collect(Collectors.toList());
+        OutboxEvent head = batch.get(0);
+        int attempts = head.getAttempts() + 1;
+        boolean deadLettered = batch.size() == 1 && attempts >= outboxProperties.getMaxAttempts();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.incrementAttemptsByIdIn(ids);
+            if (deadLettered) {
+                outboxEventRepository.updateStatusById(head.getId(), OutboxEventStatus.DEAD_LETTERED);
+            }
+        });
+
+        if (deadLettered) {
+            deadLetteredEvents.increment();
+            log.error("Stock change event {} of beer {} was rejected {} times, it is dead lettered and will not be sent again",
+                    head.getId(), head.getBeerId(), attempts, e);
+            return true;
+        }
+
+        retryNotBefore = Instant.now().plus(retryBackoff(attempts));
+        log.warn("Could not relay {} stock change events, they will be sent again", batch.size(), e);
+        return false;
+    }
+
+    private Duration retryBackoff(int attempts) {
+        Duration backoff = outboxProperties.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(outboxProperties.getMaxRetryBackoff()) > 0 ? outboxProperties.getMaxRetryBackoff() : backoff;
+    }
+
+    private StockChangeEvent toStockChangeEvent(OutboxEvent outboxEvent) {
+        try {
+            return StockChangeEvent.builder()
+                    .id(outboxEvent.getId())
+                    .type(outboxEvent.getType())
+                    .beerId(outboxEvent.getBeerId())
+                    .beer(objectMapper.readValue(outboxEvent.getPayload(), BeerDTO.class))
+                    .occurredAt(outboxEvent.getCreatedAt())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import lombok.AllArgsConstructor;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ListingProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.MessageResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.ReactiveBeerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking counterpart of {@link BeerService}. Reads go through R2DBC and stream with backpressure. Changes are
+ * made by the {@link BeerService} itself on the bounded elastic scheduler, so they apply the same rules, signal the
+ * same exceptions as errors of the returned publishers, and commit the stock ledger entry, the outbox event, the
+ * warehouse rows of a deleted beer and the low-stock, stream and cache updates in the transaction of the change,
+ * exactly as on the servlet stack.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@AllArgsConstructor(onConstructor = @__(@Autowired))
+public class ReactiveBeerService {
+
+    private final ReactiveBeerRepository beerRepository;
+    private final BeerService beerService;
+    private final ListingProperties listingProperties;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    /**
+     * Inserts the beer unless its name is taken. Two creates of the same name racing past the lookup are told apart
+     * by the unique name constraint, and the loser gets the same {@link BeerAlreadyRegisteredException}.
+     */
+    public Mono<BeerDTO> createBeer(BeerDTO beerDTO) {
+        return change(() -> beerService.createBeer(beerDTO))
+                .onErrorMap(DataIntegrityViolationException.class, e -> new BeerAlreadyRegisteredException(beerDTO.getName()));
+    }
+
+    public Mono<BeerDTO> findByName(String name) {
+        return beerRepository.findByName(name)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(name)))
+                .map(beerMapper::toDTO);
+    }
+
+    /**
+     * Streams the catalogue in id order, capped like {@link BeerService#listAll()}. Rows are pulled from the
+     * database only as fast as the subscriber requests them.
+     */
+    public Flux<BeerDTO> listAll() {
+        return beerRepository.findAllByOrderByIdAsc(PageRequest.of(0, listingProperties.getMaxResults()))
+                .map(beerMapper::toDTO);
+    }
+
+    public Mono<BeerDTO> findById(Long id) {
+        return beerRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new BeerNotFoundException(id)))
+                .map(beerMapper::toDTO);
+    }
+
+    public Mono<Void> deleteById(Long id) {
+        return change(() -> {
+            beerService.deleteById(id);
+            return id;
+        }).then();
+    }
+
+    /**
+     * Replaces the beer like {@link BeerService#updateById(Long, BeerDTO)}: conditionally on the version carried by
+     * the DTO when there is one, never below the stock held by warehouse locations and reservations, and retried
+     * when an unconditional update loses an optimistic locking race.
+     */
+    public Mono<MessageResponseDTO> updateById(Long id, BeerDTO beerDTO) {
+        return change(() -> beerService.updateById(id, beerDTO));
+    }
+
+    public Mono<BeerDTO> increment(Long id, Integer quantityToIncrement) {
+        return change(() -> beerService.increment(id, quantityToIncrement));
+    }
+
+    public Mono<BeerDTO> decrement(Long id, Integer quantityToDecrement) {
+        return change(() -> beerService.decrement(id, quantityToDecrement));
+    }
+
+    private static <T> Mono<T> change(Callable<T> change) {
+        return Mono.fromCallable(change).subscribeOn(Schedulers.boundedElastic());
+    }
+}
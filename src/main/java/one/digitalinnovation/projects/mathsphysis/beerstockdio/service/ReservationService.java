@@ -0,0 +1,279 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ReservationProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.ReservationResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.StockReservation;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.ReservationNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.StockReservationRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Holds stock for checkouts. A reservation moves quantity from the stock available to movements without a location
+ * into {@link Beer#getReserved()} with one conditional update of the beer row, so it is atomic against concurrent
+ * decrements: whichever commits first takes the stock and the other is rejected. Confirming turns the reservation
+ * into a decrement; releasing it, or letting it expire, gives the stock back.
+ *
+ * <p>Active reservations are stored, and are also kept in memory on a {@link ReservationTimingWheel} that the reaper
+ * advances every tick, releasing what expired in batches of one transaction each. The wheel is rebuilt from the
+ * table on startup, so reservations survive a restart and are reaped once they expire. Ending a reservation deletes
+ * its row, and only the caller whose delete removed it goes on to move the stock, so a confirmation racing the reaper
+ * or a release ends the reservation exactly once. Each instance reaps the reservations it made or loaded.</p>
+ */
+@Slf4j
+@Service
+public class ReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final BeerRepository beerRepository;
+    private final StockEngine stockEngine;
+    private final BeerCache beerCache;
+    private final LowStockMonitor lowStockMonitor;
+    private final StockLedger stockLedger;
+    private final StockEventOutbox stockEventOutbox;
+    private final StockStream stockStream;
+    private final ReservationProperties reservationProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final ReservationTimingWheel timingWheel;
+    private final ConcurrentMap<Long, ReservationTimingWheel.Entry> activeReservations = new ConcurrentHashMap<>();
+    private final List<ReservationTimingWheel.Entry> expiredReservations = new ArrayList<>();
+    private final Counter expiredCounter;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    public ReservationService(StockReservationRepository stockReservationRepository,
+                              BeerRepository beerRepository,
+                              StockEngine stockEngine,
+                              BeerCache beerCache,
+                              LowStockMonitor lowStockMonitor,
+                              StockLedger stockLedger,
+                              StockEventOutbox stockEventOutbox,
+                              StockStream stockStream,
+                              ReservationProperties reservationProperties,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry) {
+        this.stockReservationRepository = stockReservationRepository;
+        this.beerRepository = beerRepository;
+        this.stockEngine = stockEngine;
+        this.beerCache = beerCache;
+        this.lowStockMonitor = lowStockMonitor;
+        this.stockLedger = stockLedger;
+        this.stockEventOutbox = stockEventOutbox;
+        this.stockStream = stockStream;
+        this.reservationProperties = reservationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.timingWheel = new ReservationTimingWheel(reservationProperties.getTickMs(), reservationProperties.getWheelSize(),
+                System.currentTimeMillis());
+
+        Gauge.builder("beerstock.reservation.active", timingWheel, ReservationTimingWheel::size)
+                .description("Reservations holding stock")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("beerstock.reservation.expired")
+                .description("Reservations released by the reaper after their time to live")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Holds the quantity for {@code ttl}, the configured default when {@code null}, capped at the configured maximum.
+     */
+    @Transactional
+    public ReservationResponseDTO reserve(Long beerId, int quantity, Duration ttl) throws BeerNotFoundException, BeerNegativeStockException {
+        stockEngine.evictAroundTransaction(Collections.singletonList(beerId));
+        if (beerRepository.reserveQuantity(beerId, quantity) == 0) {
+            verifyIfExists(beerId);
+            throw new BeerNegativeStockException(beerId, quantity);
+        }
+
+        Duration holdFor = ttl == null ? reservationProperties.getDefaultTtl() : min(ttl, reservationProperties.getMaxTtl());
+        StockReservation reservation = stockReservationRepository.save(StockReservation.builder()
+                .beerId(beerId)
+                .quantity(quantity)
+                .expiresAt(Instant.now().plus(holdFor))
+                .build());
+        Beer reservedBeer = verifyIfStored(beerId);
+        beerCache.evictAfterCommit(beerId, reservedBeer.getName());
+        scheduleAfterCommit(reservation);
+
+        return toDTO(reservation);
+    }
+
+    /**
+     * Ends the reservation by taking its quantity out of the stock, like a decrement of the same quantity.
+     */
+    @Transactional
+    public BeerDTO confirm(Long reservationId) throws ReservationNotFoundException, BeerNotFoundException {
+        StockReservation reservation = end(reservationId);
+        if (beerRepository.confirmReservedQuantity(reservation.getBeerId(), reservation.getQuantity()) == 0) {
+            throw new BeerNotFoundException(reservation.getBeerId());
+        }
+
+        Beer confirmedBeer = verifyIfStored(reservation.getBeerId());
+        lowStockMonitor.onStockChanged(confirmedBeer);
+        stockStream.onStockChanged(confirmedBeer);
+        stockLedger.record(confirmedBeer.getId(), -reservation.getQuantity(), confirmedBeer.getQuantity());
+        stockEventOutbox.append(StockEventType.DECREMENTED, confirmedBeer);
+        beerCache.evictAfterCommit(confirmedBeer.getId(), confirmedBeer.getName());
+        return beerMapper.toDTO(confirmedBeer);
+    }
+
+    /**
+     * Ends the reservation by giving its quantity back to the available stock.
+     */
+    @Transactional
+    public void release(Long reservationId) throws ReservationNotFoundException {
+        StockReservation reservation = end(reservationId);
+        beerRepository.releaseReservedQuantity(reservation.getBeerId(), reservation.getQuantity());
+        beerRepository.findStoredById(reservation.getBeerId())
+                .ifPresent(beer -> beerCache.evictAfterCommit(beer.getId(), beer.getName()));
+    }
+
+    /**
+     * Advances the timing wheel and releases every reservation that expired, in batches. A batch that fails goes
+     * back on the wheel and is retried on the next tick.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.reservation.tick-ms:1000}")
+    public synchronized void expireReservations() {
+        timingWheel.advance(System.currentTimeMillis(), expiredReservations);
+        try {
+            int batchSize = reservationProperties.getReapBatchSize();
+            for (int from = 0; from < expiredReservations.size(); from += batchSize) {
+                releaseExpired(expiredReservations.subList(from, Math.min(from + batchSize, expiredReservations.size())));
+            }
+        } finally {
+            expiredReservations.clear();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void loadActiveReservations() {
+        try (Stream<StockReservation> reservations = stockReservationRepository.streamAllBy()) {
+            reservations.forEach(this::schedule);
+        }
+        log.info("Loaded {} active stock reservations", timingWheel.size());
+    }
+
+    private StockReservation end(Long reservationId) throws ReservationNotFoundException {
+        StockReservation reservation = stockReservationRepository.findById(reservationId)
+                .filter(activeReservation -> activeReservation.getExpiresAt().isAfter(Instant.now()))
+                .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+        if (stockReservationRepository.deleteReservation(reservationId) == 0) {
+            throw new ReservationNotFoundException(reservationId);
+        }
+
+        stockEngine.evictAroundTransaction(Collections.singletonList(reservation.getBeerId()));
+        cancelAfterCommit(reservationId);
+        return reservation;
+    }
+
+    private void releaseExpired(List<ReservationTimingWheel.Entry> expired) {
+        List<Long> reservationIds = expired.stream()
+                .map(ReservationTimingWheel.Entry::getId)
+                .collect(Collectors.toList());
+        try {
+            int released = transactionTemplate.execute(status -> {
+                List<StockReservation> reservations = stockReservationRepository.findAllByIdInOrderByIdAsc(reservationIds);
+                Map<Long, Integer> quantitiesByBeer = new TreeMap<>();
+                reservations.forEach(reservation -> quantitiesByBeer.merge(reservation.getBeerId(), reservation.getQuantity(), Integer::sum));
+
+                stockEngine.evictAroundTransaction(quantitiesByBeer.keySet());
+                quantitiesByBeer.forEach(beerRepository::releaseReservedQuantity);
+                stockReservationRepository.deleteAllByIdInBatch(reservations.stream()
+                        .map(StockReservation::getId)
+                        .collect(Collectors.toList()));
+                beerRepository.findAllById(quantitiesByBeer.keySet())
+                        .forEach(beer -> beerCache.evictAfterCommit(beer.getId(), beer.getName()));
+                return reservations.size();
+            });
+            reservationIds.forEach(activeReservations::remove);
+            expiredCounter.increment(released);
+        } catch (RuntimeException e) {
+            log.warn("Could not release {} expired reservations, retrying on the next tick", expired.size(), e);
+            expired.forEach(timingWheel::schedule);
+        }
+    }
+
+    private void scheduleAfterCommit(StockReservation reservation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedule(reservation);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedule(reservation);
+            }
+        });
+    }
+
+    private void schedule(StockReservation reservation) {
+        ReservationTimingWheel.Entry entry = new ReservationTimingWheel.Entry(reservation.getId(), reservation.getBeerId(),
+                reservation.getQuantity(), reservation.getExpiresAt().toEpochMilli());
+        if (activeReservations.putIfAbsent(reservation.getId(), entry) == null) {
+            timingWheel.schedule(entry);
+        }
+    }
+
+    private void cancelAfterCommit(Long reservationId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ReservationTimingWheel.Entry entry = activeReservations.remove(reservationId);
+                if (entry != null) {
+                    timingWheel.cancel(entry);
+                }
+            }
+        });
+    }
+
+    private Beer verifyIfExists(Long beerId) throws BeerNotFoundException {
+        return beerRepository.findById(beerId).orElseThrow(() -> new BeerNotFoundException(beerId));
+    }
+
+    private Beer verifyIfStored(Long beerId) throws BeerNotFoundException {
+        return beerRepository.findStoredById(beerId).orElseThrow(() -> new BeerNotFoundException(beerId));
+    }
+
+    private static Duration min(Duration first, Duration second) {
+        return first.compareTo(second) <= 0 ? first : second;
+    }
+
+    private static ReservationResponseDTO toDTO(StockReservation reservation) {
+        return ReservationResponseDTO.builder()
+                .id(reservation.getId())
+                .beerId(reservation.getBeerId())
+                .quantity(reservation.getQuantity())
+                .expiresAt(reservation.getExpiresAt())
+                .build();
+    }
+}
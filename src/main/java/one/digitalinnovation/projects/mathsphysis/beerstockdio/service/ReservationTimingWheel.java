@@ -0,0 +1,141 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import java.util.List;
+
+/**
+ * Hashed timing wheel of reservation expiries. A reservation goes into the slot of the tick it expires at, modulo
+ * the wheel size, so scheduling and cancelling are constant time whatever the number of reservations, and each
+ * tick only walks the reservations of its own slot. Reservations further away than one turn stay in their slot and
+ * are skipped until the turn they expire in.
+ *
+ * <p>Slots are intrusive doubly linked lists threaded through the {@link Entry} objects themselves, so the wheel
+ * allocates nothing per reservation beyond its entry and nothing at all per tick, and cancelling only relinks
+ * neighbours. Every method runs under the wheel's lock; none of them does more than walk one slot.</p>
+ */
+public class ReservationTimingWheel {
+
+    private final long tickMillis;
+    private final Entry[] slots;
+    private final int mask;
+    private long currentTick;
+    private int size;
+
+    public ReservationTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("Tick and wheel size must be positive");
+        }
+        int slotCount = Integer.highestOneBit(wheelSize);
+        if (slotCount < wheelSize) {
+            slotCount <<= 1;
+        }
+
+        this.tickMillis = tickMillis;
+        this.slots = new Entry[slotCount];
+        this.mask = slotCount - 1;
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedules the entry to expire at the first tick at or after its expiry, or at the next tick when that one has
+     * already passed.
+     */
+    public synchronized void schedule(Entry entry) {
+        if (entry.slot >= 0) {
+            throw new IllegalStateException("Reservation " + entry.id + " is already scheduled");
+        }
+
+        long expiryTick = (entry.expiresAtMillis + tickMillis - 1) / tickMillis;
+        entry.deadlineTick = Math.max(expiryTick, currentTick + 1);
+        entry.slot = (int) (entry.deadlineTick & mask);
+        entry.previous = null;
+        entry.next = slots[entry.slot];
+        if (entry.next != null) {
+            entry.next.previous = entry;
+        }
+        slots[entry.slot] = entry;
+        size++;
+    }
+
+    /**
+     * Takes the entry off the wheel. Returns {@code false} when it was not scheduled or has already expired.
+     */
+    public synchronized boolean cancel(Entry entry) {
+        if (entry.slot < 0) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    /**
+     * Moves the wheel to {@code nowMillis} and takes off every entry whose tick has come, adding it to
+     * {@code expired}. A gap longer than one turn visits every slot once.
+     */
+    public synchronized void advance(long nowMillis, List<Entry> expired) {
+        long nowTick = nowMillis / tickMillis;
+        long ticks = Math.min(nowTick - currentTick, slots.length);
+
+        for (long tick = 1; tick <= ticks; tick++) {
+            Entry entry = slots[(int) ((currentTick + tick) & mask)];
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.deadlineTick <= nowTick) {
+                    unlink(entry);
+                    expired.add(entry);
+                }
+                entry = next;
+            }
+        }
+        currentTick = Math.max(currentTick, nowTick);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.previous != null) {
+            entry.previous.next = entry.next;
+        } else {
+            slots[entry.slot] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.previous = entry.previous;
+        }
+        entry.previous = null;
+        entry.next = null;
+        entry.slot = -1;
+        size--;
+    }
+
+    public static final class Entry {
+
+        private final Long id;
+        private final Long beerId;
+        private final int quantity;
+        private final long expiresAtMillis;
+        private long deadlineTick;
+        private int slot = -1;
+        private Entry previous;
+        private Entry next;
+
+        public Entry(Long id, Long beerId, int quantity, long expiresAtMillis) {
+            this.id = id;
+            this.beerId = beerId;
+            this.quantity = quantity;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Long getBeerId() {
+            return beerId;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+    }
+}
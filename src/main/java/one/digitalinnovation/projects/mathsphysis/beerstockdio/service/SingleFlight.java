@@ -0,0 +1,109 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Collapses concurrent loads of the same key into one: the first caller runs the loader and every caller arriving
+ * while it runs waits for its result, or its exception. Each follower gets its own copy of the result, made with
+ * the copier the flight was built with, so mutable values are never shared between callers. Nothing is kept once
+ * the load completes, so a caller arriving afterwards starts a new load. A caller that joins a load started just
+ * before a concurrent write gets the value from before that write, as if it had arrived a moment earlier.
+ *
+ * <p>{@code beerstock.singleflight.calls} counts the callers of each operation tagged {@code role=leader} when
+ * they ran the loader and {@code role=follower} when they shared a result, and
+ * {@code beerstock.singleflight.followers} records how many followers each load had.</p>
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final UnaryOperator<V> copier;
+    private final Counter leaders;
+    private final Counter followers;
+    private final DistributionSummary followersPerFlight;
+
+    /**
+     * Flight of immutable values, shared as they are.
+     */
+    public SingleFlight(MeterRegistry meterRegistry, String operation, boolean enabled) {
+        this(meterRegistry, operation, enabled, UnaryOperator.identity());
+    }
+
+    public SingleFlight(MeterRegistry meterRegistry, String operation, boolean enabled, UnaryOperator<V> copier) {
+        this.enabled = enabled;
+        this.copier = copier;
+        this.leaders = meterRegistry.counter("beerstock.singleflight.calls", "operation", operation, "role", "leader");
+        this.followers = meterRegistry.counter("beerstock.singleflight.calls", "operation", operation, "role", "follower");
+        this.followersPerFlight = DistributionSummary.builder("beerstock.singleflight.followers")
+                .description("Callers that shared the result of a single load")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    public <E extends Exception> V execute(K key, Loader<V, E> loader) throws E {
+        if (!enabled) {
+            return loader.load();
+        }
+
+        Flight<V> flight = new Flight<>();
+        Flight<V> runningFlight = flights.putIfAbsent(key, flight);
+        if (runningFlight != null) {
+            runningFlight.followers.incrementAndGet();
+            followers.increment();
+            V value = runningFlight.<E>await();
+            return value == null ? null : copier.apply(value);
+        }
+
+        leaders.increment();
+        try {
+            V value = loader.load();
+            flight.result.complete(value);
+            return value;
+        } catch (Throwable failure) {
+            flight.result.completeExceptionally(failure);
+            throw failure;
+        } finally {
+            flights.remove(key, flight);
+            followersPerFlight.record(flight.followers.get());
+        }
+    }
+
+    @FunctionalInterface
+    public interface Loader<V, E extends Exception> {
+        V load() throws E;
+    }
+
+    private static class Flight<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+
+        @SuppressWarnings("unchecked")
+        <E extends Exception> V await() throws E {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a shared load", e);
+            } catch (ExecutionException e) {
+                Throwable failure = e.getCause();
+                if (failure instanceof RuntimeException) {
+                    throw (RuntimeException) failure;
+                }
+                if (failure instanceof Error) {
+                    throw (Error) failure;
+                }
+                throw (E) failure;
+            }
+        }
+    }
+}
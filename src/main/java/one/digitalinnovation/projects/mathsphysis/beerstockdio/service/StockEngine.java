@@ -0,0 +1,449 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.PendingStockDelta;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.PendingStockDeltaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Optional in-memory stock engine for hot beers. While enabled, every beer touched by increment or decrement gets
+ * a counter that validates movements against {@code max} and the {@code allocated} and {@code reserved} stock
+ * without updating the beer row, which is where concurrent movements of a hot beer would otherwise queue.
+ *
+ * <p>Each accepted movement is journaled as a {@link PendingStockDelta} in the transaction that makes it, so it
+ * commits or rolls back with the rest of the request and survives a crash. The counter holds a movement as pending
+ * until its transaction completes: a commit moves it into the quantity and a rollback drops it, and pending
+ * increments and decrements both count against the limits, so no outcome of the transactions in flight can break
+ * them. The journal is folded into the beer rows on the flush interval, once the committed movements of a beer
+ * reach the flush threshold, when the beer is evicted and at startup, which applies whatever a crash left
+ * behind.</p>
+ */
+@Slf4j
+@Component
+public class StockEngine {
+
+    private static final int FLUSH_BATCH_SIZE = 1000;
+
+    private final BeerRepository beerRepository;
+    private final PendingStockDeltaRepository pendingStockDeltaRepository;
+    private final TransactionTemplate flushTransactionTemplate;
+    private final TransactionTemplate loadTransactionTemplate;
+    private final boolean enabled;
+    private final int flushThreshold;
+    private final long evictTimeoutMillis;
+    private final Object flushLock = new Object();
+    private final ConcurrentMap<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final ExecutorService thresholdFlushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "stock-engine-flush");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public StockEngine(BeerRepository beerRepository,
+                       PendingStockDeltaRepository pendingStockDeltaRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${beerstock.stock-engine.enabled:false}") boolean enabled,
+                       @Value("${beerstock.stock-engine.flush-threshold:100}") int flushThreshold,
+                       @Value("${beerstock.stock-engine.evict-timeout-ms:10000}") long evictTimeoutMillis) {
+        this.beerRepository = beerRepository;
+        this.pendingStockDeltaRepository = pendingStockDeltaRepository;
+        this.flushTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.flushTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.loadTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.loadTransactionTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.flushThreshold = flushThreshold;
+        this.evictTimeoutMillis = evictTimeoutMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Beer increment(Long id, int quantityToIncrement) throws BeerNotFoundException, BeerStockExceededException {
+        Beer incrementedBeer = move(id, quantityToIncrement);
+        if (incrementedBeer == null) {
+            throw new BeerStockExceededException(id, quantityToIncrement);
+        }
+        return incrementedBeer;
+    }
+
+    /**
+     * Takes a positive quantity, as validated by {@code QuantityDTO}; {@link Integer#MIN_VALUE} has no negation.
+     */
+    public Beer decrement(Long id, int quantityToDecrement) throws BeerNotFoundException, BeerNegativeStockException {
+        Beer decrementedBeer = move(id, Math.negateExact(quantityToDecrement));
+        if (decrementedBeer == null) {
+            throw new BeerNegativeStockException(id, quantityToDecrement);
+        }
+        return decrementedBeer;
+    }
+
+    /**
+     * Flushes the journal of the beer and drops its counter, so the next movement reloads it from the database.
+     * Must be called before any write that bypasses the engine. The counter is retired first, so movements arriving
+     * meanwhile wait for the eviction and then reload, and the flush waits for the movements already in flight to
+     * commit or roll back, up to {@code beerstock.stock-engine.evict-timeout-ms}.
+     */
+    public void evict(Long id) {
+        StockCounter counter = counters.get(id);
+        if (counter == null) {
+            return;
+        }
+        if (!counter.retire()) {
+            counter.awaitEviction();
+            return;
+        }
+
+        try {
+            if (!counter.awaitMovements(ownMovements(counter), evictTimeoutMillis)) {
+                log.warn("Evicting beer {} while movements of its stock counter are still in flight", id);
+            }
+            flush(id);
+        } finally {
+            counters.remove(id, counter);
+            counter.evicted();
+        }
+    }
+
+    /**
+     * Evicts the beers now and once more after the current transaction commits, so counters loaded while the
+     * transaction was running do not keep serving quantities from before it.
+     */
+    public void evictAroundTransaction(Collection<Long> ids) {
+        if (!enabled) {
+            return;
+        }
+
+        ids.forEach(this::evict);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(StockEngine.this::evict);
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.stock-engine.flush-interval-ms:1000}")
+    public void flushAll() {
+        if (enabled) {
+            pendingStockDeltaRepository.findBeerIds().forEach(this::flush);
+        }
+    }
+
+    /**
+     * Applies the journal left by a previous run that stopped before flushing it, whether the engine is enabled now
+     * or not, before the rest of the application reads stored quantities.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void flushPreviousRun() {
+        List<Long> beerIds = pendingStockDeltaRepository.findBeerIds();
+        if (!beerIds.isEmpty()) {
+            log.info("Flushing pending stock deltas of {} beers left by the previous run", beerIds.size());
+            beerIds.forEach(this::flush);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        thresholdFlushExecutor.shutdown();
+        thresholdFlushExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        flushAll();
+    }
+
+    private Beer move(Long id, int delta) throws BeerNotFoundException {
+        while (true) {
+            StockCounter counter = getCounter(id);
+            int quantityAfterMovement = counter.reserve(delta);
+
+            if (quantityAfterMovement == StockCounter.RETIRED) {
+                counter.awaitEviction();
+                continue;
+            }
+            if (quantityAfterMovement == StockCounter.REJECTED) {
+                return null;
+            }
+
+            journal(counter, delta);
+            return counter.toBeer(quantityAfterMovement);
+        }
+    }
+
+    private StockCounter getCounter(Long id) throws BeerNotFoundException {
+        StockCounter counter = counters.computeIfAbsent(id, this::loadCounter);
+
+        if (counter == null) {
+            throw new BeerNotFoundException(id);
+        }
+        return counter;
+    }
+
+    private StockCounter loadCounter(Long id) {
+        return loadTransactionTemplate.execute(status -> beerRepository.findStoredById(id)
+                .map(beer -> new StockCounter(beer, Math.toIntExact(beer.getQuantity() + pendingStockDeltaRepository.sumDeltaByBeerId(id))))
+                .orElse(null));
+    }
+
+    private void journal(StockCounter counter, int delta) {
+        try {
+            pendingStockDeltaRepository.save(PendingStockDelta.builder()
+                    .beerId(counter.getId())
+                    .delta(delta)
+                    .build());
+        } catch (RuntimeException e) {
+            counter.complete(delta, false);
+            throw e;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            afterCompletion(counter, delta, true);
+            return;
+        }
+
+        AtomicInteger transactionMovements = (AtomicInteger) TransactionSynchronizationManager.getResource(counter);
+        if (transactionMovements == null) {
+            transactionMovements = new AtomicInteger();
+            TransactionSynchronizationManager.bindResource(counter, transactionMovements);
+        }
+        transactionMovements.incrementAndGet();
+
+        AtomicInteger movementsOfTransaction = transactionMovements;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (movementsOfTransaction.decrementAndGet() == 0) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(counter);
+                }
+                StockEngine.this.afterCompletion(counter, delta, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private void afterCompletion(StockCounter counter, int delta, boolean committed) {
+        counter.complete(delta, committed);
+
+        if (committed && counter.scheduleFlush(flushThreshold)) {
+            try {
+                thresholdFlushExecutor.execute(() -> {
+                    counter.flushStarted();
+                    flush(counter.getId());
+                });
+            } catch (RejectedExecutionException e) {
+                counter.flushStarted();
+            }
+        }
+    }
+
+    private static int ownMovements(StockCounter counter) {
+        AtomicInteger transactionMovements = (AtomicInteger) TransactionSynchronizationManager.getResource(counter);
+        return transactionMovements == null ? 0 : transactionMovements.get();
+    }
+
+    /**
+     * Folds the committed journal of the beer into its row, one batch per transaction. Flushes run one at a time,
+     * and a batch whose entries were already deleted by another node rolls back instead of applying them twice.
+     */
+    private void flush(Long beerId) {
+        synchronized (flushLock) {
+            try {
+                Boolean moreBatches;
+                do {
+                    moreBatches = flushTransactionTemplate.execute(status -> flushBatch(beerId));
+                } while (Boolean.TRUE.equals(moreBatches));
+            } catch (RuntimeException e) {
+                log.warn("Could not flush pending stock deltas of beer {}, they will be retried", beerId, e);
+            }
+        }
+    }
+
+    private boolean flushBatch(Long beerId) {
+        List<PendingStockDelta> pendingDeltas = pendingStockDeltaRepository.findByBeerIdOrderByIdAsc(beerId, PageRequest.of(0, FLUSH_BATCH_SIZE));
+        if (pendingDeltas.isEmpty()) {
+            return false;
+        }
+
+        List<Long> ids = pendingDeltas.stream()
+                .map(PendingStockDelta::getId)
+                .collect(Collectors.toList());
+        if (pendingStockDeltaRepository.deleteByIdIn(ids) != ids.size()) {
+            throw new ConcurrencyFailureException("Pending stock deltas of beer " + beerId + " were flushed concurrently");
+        }
+
+        int delta = Math.toIntExact(pendingDeltas.stream().mapToLong(PendingStockDelta::getDelta).sum());
+        if (delta != 0 && beerRepository.applyQuantityDelta(beerId, delta) == 0) {
+            log.warn("Dropping stock delta {} of beer {} because it no longer exists", delta, beerId);
+        }
+        return pendingDeltas.size() == FLUSH_BATCH_SIZE;
+    }
+
+    private static class StockCounter {
+
+        private static final int REJECTED = Integer.MIN_VALUE;
+        private static final int RETIRED = Integer.MIN_VALUE + 1;
+
+        private final Beer snapshot;
+        private final CountDownLatch evicted = new CountDownLatch(1);
+        private int quantity;
+        private int pendingIncrease;
+        private int pendingDecrease;
+        private int inFlight;
+        private long unflushed;
+        private boolean flushScheduled;
+        private boolean retired;
+
+        StockCounter(Beer beer, int quantity) {
+            this.snapshot = copyOf(beer, quantity);
+            this.quantity = quantity;
+        }
+
+        Long getId() {
+            return snapshot.getId();
+        }
+
+        /**
+         * Holds the movement as pending if the limits allow it whether the pending movements commit or not, and
+         * returns the quantity it leaves, or {@link #REJECTED} or {@link #RETIRED}.
+         */
+        synchronized int reserve(int delta) {
+            if (retired) {
+                return RETIRED;
+            }
+
+            long highestQuantity = (long) quantity + pendingIncrease + Math.max(delta, 0);
+            long lowestQuantity = (long) quantity - pendingDecrease + Math.min(delta, 0);
+            if (StockRules.exceedsMax(snapshot, highestQuantity) || StockRules.isBelowHeldStock(snapshot, lowestQuantity)) {
+                return REJECTED;
+            }
+
+            if (delta > 0) {
+                pendingIncrease += delta;
+            } else {
+                pendingDecrease -= delta;
+            }
+            inFlight++;
+            return quantity + pendingIncrease - pendingDecrease;
+        }
+
+        synchronized void complete(int delta, boolean committed) {
+            if (delta > 0) {
+                pendingIncrease -= delta;
+            } else {
+                pendingDecrease += delta;
+            }
+            if (committed) {
+                quantity += delta;
+                unflushed += Math.abs((long) delta);
+            }
+            inFlight--;
+            notifyAll();
+        }
+
+        /**
+         * Claims the threshold flush of the counter, so at most one is queued however many movements reach it.
+         */
+        synchronized boolean scheduleFlush(int flushThreshold) {
+            if (flushScheduled || unflushed < flushThreshold) {
+                return false;
+            }
+            flushScheduled = true;
+            unflushed = 0;
+            return true;
+        }
+
+        synchronized void flushStarted() {
+            flushScheduled = false;
+        }
+
+        synchronized boolean retire() {
+            if (retired) {
+                return false;
+            }
+            retired = true;
+            return true;
+        }
+
+        synchronized boolean awaitMovements(int ownMovements, long timeoutMillis) {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            try {
+                while (inFlight > ownMovements) {
+                    long remainingMillis = deadline - System.currentTimeMillis();
+                    if (remainingMillis <= 0) {
+                        return false;
+                    }
+                    wait(remainingMillis);
+                }
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        void evicted() {
+            evicted.countDown();
+        }
+
+        void awaitEviction() {
+            try {
+                evicted.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the stock counter to be evicted", e);
+            }
+        }
+
+        Beer toBeer(int currentQuantity) {
+            return copyOf(snapshot, currentQuantity);
+        }
+
+        private static Beer copyOf(Beer beer, int currentQuantity) {
+            return Beer.builder()
+                    .id(beer.getId())
+                    .name(beer.getName())
+                    .brand(beer.getBrand())
+                    .max(beer.getMax())
+                    .quantity(currentQuantity)
+                    .allocated(beer.getAllocated())
+                    .reserved(beer.getReserved())
+                    .type(beer.getType())
+                    .version(beer.getVersion())
+                    .build();
+        }
+    }
+}
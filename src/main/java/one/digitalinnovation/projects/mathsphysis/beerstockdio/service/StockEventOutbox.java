@@ -0,0 +1,50 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.OutboxEvent;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+/**
+ * Writes stock changes to the outbox table in the transaction that makes them, so an event exists if and only if
+ * its change commits. {@link OutboxRelay} delivers them afterwards.
+ *
+ * <p>Callers append only once the beer row is locked or written, which keeps the ids of one beer's events in
+ * commit order. Movements served by the in-memory stock engine do not lock the row, so concurrent movements of the
+ * same beer can be numbered out of order there; the quantity in each event is still the one that movement left.</p>
+ */
+@Component
+public class StockEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    public StockEventOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(StockEventType type, Beer beer) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .beerId(beer.getId())
+                    .type(type)
+                    .payload(objectMapper.writeValueAsString(beerMapper.toDTO(beer)))
+                    .createdAt(Instant.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.StockChangeEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the events relayed from the outbox, chosen with {@code beerstock.outbox.sink}.
+ */
+public interface StockEventSink {
+
+    /**
+     * Delivers the batch in order. Returning means every event was delivered; throwing makes the relay send the
+     * whole batch again later, so a sink may see events it already delivered.
+     */
+    void publish(List<StockChangeEvent> events) throws Exception;
+}
@@ -0,0 +1,145 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockLevelDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockReplayDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.StockSnapshot;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.PendingStockDeltaRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.StockMovementRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.StockSnapshotRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers stock history questions from the {@link StockLedger}: the quantity of a beer at a past instant, and
+ * replays that rebuild the current quantity from the latest snapshot plus the ledger entries after it and compare
+ * it with the stored one. The stored quantity includes the movements still journaled by the {@link StockEngine},
+ * and each replay reads everything in one repeatable read transaction, so a beer moved while it is being replayed
+ * is not reported inconsistent.
+ *
+ * <p>Every beer is also reconciled on {@code reconcile-interval-ms}: inconsistent beers are logged and counted
+ * in the {@code beerstock.ledger.inconsistent} gauge, as they point at a change made around the services.</p>
+ */
+@Slf4j
+@Service
+public class StockHistoryService {
+
+    private static final int REPLAY_CHUNK_SIZE = 500;
+
+    private final BeerRepository beerRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final PendingStockDeltaRepository pendingStockDeltaRepository;
+    private final TransactionTemplate replayTransactionTemplate;
+    private final AtomicInteger inconsistentBeers = new AtomicInteger();
+
+    public StockHistoryService(BeerRepository beerRepository,
+                               StockMovementRepository stockMovementRepository,
+                               StockSnapshotRepository stockSnapshotRepository,
+                               PendingStockDeltaRepository pendingStockDeltaRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockSnapshotRepository = stockSnapshotRepository;
+        this.pendingStockDeltaRepository = pendingStockDeltaRepository;
+        this.replayTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.replayTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.replayTransactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.replayTransactionTemplate.setReadOnly(true);
+        Gauge.builder("beerstock.ledger.inconsistent", inconsistentBeers, AtomicInteger::get)
+                .description("Beers whose stored quantity did not match the stock ledger on the last reconciliation")
+                .register(meterRegistry);
+    }
+
+    public StockLevelDTO quantityAt(Long id, Instant at) throws BeerNotFoundException {
+        if (!beerRepository.existsById(id)) {
+            throw new BeerNotFoundException(id);
+        }
+
+        Optional<StockSnapshot> snapshot = stockSnapshotRepository.findFirstByBeerIdAndCoveredUntilLessThanEqualOrderByCoveredUntilDesc(id, at);
+        long quantity = snapshot.map(StockSnapshot::getQuantity).orElse(0L)
+                + stockMovementRepository.sumDeltaCreatedBetween(id, snapshot.map(StockSnapshot::getCoveredUntil).orElse(Instant.EPOCH), at);
+        if (quantity < Integer.MIN_VALUE || quantity > Integer.MAX_VALUE) {
+            throw new IllegalStateException(String.format("Stock ledger of beer with ID %s sums to %s at %s, outside the quantity range", id, quantity, at));
+        }
+
+        return StockLevelDTO.builder()
+                .id(id)
+                .at(at)
+                .quantity((int) quantity)
+                .build();
+    }
+
+    public StockReplayDTO replay(Long id) throws BeerNotFoundException {
+        StockReplayDTO replay = replayTransactionTemplate.execute(status -> beerRepository.findStoredById(id)
+                .map(this::replay)
+                .orElse(null));
+        if (replay == null) {
+            throw new BeerNotFoundException(id);
+        }
+        return replay;
+    }
+
+    /**
+     * Replays every beer in id order and returns the ones whose stored quantity does not match the ledger.
+     */
+    public List<StockReplayDTO> replayAll() {
+        List<StockReplayDTO> inconsistentReplays = new ArrayList<>();
+        long afterId = 0L;
+        List<Beer> beers;
+        do {
+            beers = beerRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, REPLAY_CHUNK_SIZE));
+            for (Beer beer : beers) {
+                replayTransactionTemplate.execute(status -> beerRepository.findStoredById(beer.getId())
+                        .map(this::replay))
+                        .filter(replay -> !replay.isConsistent())
+                        .ifPresent(inconsistentReplays::add);
+                afterId = beer.getId();
+            }
+        } while (beers.size() == REPLAY_CHUNK_SIZE);
+
+        return inconsistentReplays;
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.ledger.reconcile-interval-ms:3600000}",
+            initialDelayString = "${beerstock.ledger.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        List<StockReplayDTO> inconsistentReplays = replayAll();
+        inconsistentBeers.set(inconsistentReplays.size());
+        for (StockReplayDTO replay : inconsistentReplays) {
+            log.warn("Stock ledger of beer {} replays to {} but {} is stored", replay.getId(),
+                    replay.getReplayedQuantity(), replay.getStoredQuantity());
+        }
+    }
+
+    private StockReplayDTO replay(Beer beer) {
+        Optional<StockSnapshot> snapshot = stockSnapshotRepository.findFirstByBeerIdOrderByCoveredUntilDesc(beer.getId());
+        long replayedQuantity = snapshot.map(StockSnapshot::getQuantity).orElse(0L)
+                + stockMovementRepository.sumDeltaCreatedAfter(beer.getId(), snapshot.map(StockSnapshot::getCoveredUntil).orElse(Instant.EPOCH));
+        long storedQuantity = beer.getQuantity() + pendingStockDeltaRepository.sumDeltaByBeerId(beer.getId());
+
+        return StockReplayDTO.builder()
+                .id(beer.getId())
+                .storedQuantity(storedQuantity)
+                .replayedQuantity(replayedQuantity)
+                .snapshotMovementId(snapshot.map(StockSnapshot::getMovementId).orElse(null))
+                .consistent(replayedQuantity == storedQuantity)
+                .build();
+    }
+}
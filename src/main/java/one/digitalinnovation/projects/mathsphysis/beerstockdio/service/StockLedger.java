@@ -0,0 +1,106 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.StockMovement;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.StockSnapshot;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.StockMovementRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.StockSnapshotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only ledger of stock changes. Each change is written in the transaction that makes it, so the entry
+ * commits or rolls back together with the quantity and nothing is held in memory where a crash could lose it;
+ * the insert is batched with the other statements of the transaction at flush time.
+ *
+ * <p>Snapshots are taken on their own interval from the ledger itself: each one adds the deltas created since
+ * the previous snapshot of the beer, so "stock at time T" and replays only read the entries after the latest
+ * snapshot. Entry ids do not follow commit order, so a snapshot covers the entries created up to a cutoff kept
+ * {@code snapshot-grace-ms} behind the clock, which must be longer than any transaction that moves stock.</p>
+ */
+@Component
+public class StockLedger {
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final TransactionTemplate snapshotTransactionTemplate;
+    private final Duration snapshotGrace;
+
+    public StockLedger(StockMovementRepository stockMovementRepository,
+                       StockSnapshotRepository stockSnapshotRepository,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${beerstock.ledger.snapshot-grace-ms:300000}") long snapshotGraceMillis) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockSnapshotRepository = stockSnapshotRepository;
+        this.snapshotTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.snapshotGrace = Duration.ofMillis(snapshotGraceMillis);
+    }
+
+    /**
+     * Records that the quantity of the beer changed by {@code delta} to {@code quantity}. Inside a transaction the
+     * entry is part of it, so changes of a rolled back transaction are never recorded.
+     */
+    public void record(Long beerId, int delta, int quantity) {
+        if (delta == 0) {
+            return;
+        }
+
+        stockMovementRepository.save(StockMovement.builder()
+                .beerId(beerId)
+                .delta(delta)
+                .quantity(quantity)
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    /**
+     * Snapshots every beer with ledger entries created since the previous snapshots, up to the grace cutoff.
+     */
+    @Scheduled(fixedDelayString = "${beerstock.ledger.snapshot-interval-ms:300000}")
+    public void takeSnapshots() {
+        takeSnapshots(Instant.now().minus(snapshotGrace));
+    }
+
+    synchronized void takeSnapshots(Instant coveredUntil) {
+        snapshotTransactionTemplate.executeWithoutResult(status -> {
+            Instant previousCutoff = stockSnapshotRepository.findMaxCoveredUntil();
+            Instant after = previousCutoff == null ? Instant.EPOCH : previousCutoff;
+            if (!coveredUntil.isAfter(after)) {
+                return;
+            }
+
+            List<Object[]> deltasByBeer = stockMovementRepository.sumDeltaByBeerCreatedBetween(after, coveredUntil);
+            Map<Long, StockSnapshot> previousSnapshots = stockSnapshotRepository.findLatestByBeerIdIn(deltasByBeer.stream()
+                            .map(row -> (Long) row[0])
+                            .collect(Collectors.toList()))
+                    .stream()
+                    .collect(Collectors.toMap(StockSnapshot::getBeerId, Function.identity()));
+
+            Instant takenAt = Instant.now();
+            stockSnapshotRepository.saveAll(deltasByBeer.stream()
+                    .map(row -> StockSnapshot.builder()
+                            .beerId((Long) row[0])
+                            .quantity(quantityOf(previousSnapshots.get((Long) row[0])) + ((Number) row[1]).longValue())
+                            .movementId((Long) row[2])
+                            .coveredUntil(coveredUntil)
+                            .takenAt(takenAt)
+                            .build())
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    private static long quantityOf(StockSnapshot snapshot) {
+        return snapshot == null ? 0L : snapshot.getQuantity();
+    }
+}
@@ -0,0 +1,68 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stock level metrics: {@code beerstock.stock.rejections} counts stock movements refused for exceeding max or
+ * going below zero, tagged by operation and reason, and {@code beerstock.stock.quantity} gauges the total
+ * quantity in stock per {@link BeerType}. The gauges are refreshed from the database on a schedule rather than
+ * on every scrape, so scraping never queries the catalogue.
+ */
+@Component
+public class StockMetrics {
+
+    private final BeerRepository beerRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<BeerType, AtomicLong> quantitiesByType = new EnumMap<>(BeerType.class);
+
+    public StockMetrics(BeerRepository beerRepository, MeterRegistry meterRegistry) {
+        this.beerRepository = beerRepository;
+        this.meterRegistry = meterRegistry;
+
+        for (BeerType type : BeerType.values()) {
+            AtomicLong quantity = new AtomicLong();
+            quantitiesByType.put(type, quantity);
+            Gauge.builder("beerstock.stock.quantity", quantity, AtomicLong::get)
+                    .description("Total quantity in stock of the beers of a type")
+                    .tag("type", type.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Counts the failure as a stock rejection when it is one; other failures are ignored.
+     */
+    public void recordRejection(String operation, Throwable failure) {
+        String reason;
+        if (failure instanceof BeerStockExceededException) {
+            reason = "max_exceeded";
+        } else if (failure instanceof BeerNegativeStockException) {
+            reason = "negative_stock";
+        } else {
+            return;
+        }
+
+        meterRegistry.counter("beerstock.stock.rejections", "operation", operation, "reason", reason).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.metrics.stock-refresh-interval-ms:15000}")
+    public void refreshStockQuantities() {
+        Map<BeerType, Long> totals = new EnumMap<>(BeerType.class);
+        for (Object[] row : beerRepository.sumQuantityByType()) {
+            totals.put((BeerType) row[0], ((Number) row[1]).longValue());
+        }
+
+        quantitiesByType.forEach((type, quantity) -> quantity.set(totals.getOrDefault(type, 0L)));
+    }
+}
@@ -0,0 +1,23 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+
+/**
+ * The limits every in-memory stock movement is validated against: the quantity of a beer never goes above its
+ * {@code max} nor below the stock held by warehouse locations and reservations. Quantities are taken as longs, so
+ * callers add the delta with {@code (long) quantity + delta} and a delta near the int range is rejected instead of
+ * wrapping around.
+ */
+final class StockRules {
+
+    private StockRules() {
+    }
+
+    static boolean exceedsMax(Beer beer, long quantity) {
+        return quantity > beer.getMax();
+    }
+
+    static boolean isBelowHeldStock(Beer beer, long quantity) {
+        return quantity < (long) beer.getAllocated() + beer.getReserved();
+    }
+}
@@ -0,0 +1,315 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes committed beer changes to Server-Sent Events subscribers, optionally filtered by beer id and type. Each
+ * change is sent as a {@code beer} event carrying the {@link BeerDTO} after the change, or as a {@code deleted}
+ * event carrying the last state of a deleted beer. Clients subscribe first and then load the current state.
+ *
+ * <p>The committing thread only hands the change to the matching subscribers' buffers; sending happens on a virtual
+ * thread per busy subscriber, so a slow client never holds up a commit or the other clients. A buffer keeps only the
+ * latest change of each beer not yet sent, so a client that falls behind skips intermediate quantities rather than
+ * queueing them. A client with more distinct beers pending than the buffer holds is disconnected and is expected to
+ * reconnect and reload. Changes committed concurrently can reach a client out of order; the {@code version} of each
+ * beer tells which one is newer.</p>
+ */
+@Slf4j
+@Component
+public class StockStream {
+
+    private final int bufferSize;
+    private final Duration timeout;
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> unfilteredSubscribers = ConcurrentHashMap.newKeySet();
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribersById = new ConcurrentHashMap<>();
+    private final ConcurrentMap<BeerType, Set<Subscriber>> subscribersByType = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter coalescedChanges;
+    private final Counter droppedSubscribers;
+
+    public StockStream(MeterRegistry meterRegistry,
+                       @Value("${beerstock.stream.buffer-size:256}") int bufferSize,
+                       @Value("${beerstock.stream.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+
+        Gauge.builder("beerstock.stream.subscribers", subscribers, Set::size)
+                .description("Clients subscribed to the stock stream")
+                .register(meterRegistry);
+        this.coalescedChanges = Counter.builder("beerstock.stream.coalesced")
+                .description("Stock changes replaced by a newer change of the same beer before being sent")
+                .register(meterRegistry);
+        this.droppedSubscribers = Counter.builder("beerstock.stream.dropped")
+                .description("Stock stream clients disconnected for falling too far behind")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Subscribes to the changes of the given beers and types; an empty set does not filter. Both filters must match
+     * when both are given.
+     */
+    public SseEmitter subscribe(Set<Long> ids, Set<BeerType> types) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        subscribe(ids, types, emitter);
+        return emitter;
+    }
+
+    void subscribe(Set<Long> ids, Set<BeerType> types, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, Set.copyOf(ids), Set.copyOf(types));
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(error -> unsubscribe(subscriber));
+
+        subscribers.add(subscriber);
+        if (!subscriber.ids.isEmpty()) {
+            subscriber.ids.forEach(id -> subscribersById.computeIfAbsent(id, key -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        } else if (!subscriber.types.isEmpty()) {
+            subscriber.types.forEach(type -> subscribersByType.computeIfAbsent(type, key -> ConcurrentHashMap.newKeySet()).add(subscriber));
+        } else {
+            unfilteredSubscribers.add(subscriber);
+        }
+    }
+
+    public void onStockChanged(Beer beer) {
+        onStockChanged(Collections.singletonList(beer));
+    }
+
+    /**
+     * Streams the beers once the current transaction commits, or immediately when no transaction is active.
+     */
+    public void onStockChanged(Collection<Beer> beers) {
+        afterCommit(beers, false);
+    }
+
+    public void onDeleted(Beer beer) {
+        afterCommit(Collections.singletonList(beer), true);
+    }
+
+    @Scheduled(fixedDelayString = "${beerstock.stream.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void afterCommit(Collection<Beer> beers, boolean deleted) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            beers.forEach(beer -> publish(beer, deleted));
+            return;
+        }
+
+        List<Beer> changedBeers = new ArrayList<>(beers);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                changedBeers.forEach(beer -> publish(beer, deleted));
+            }
+        });
+    }
+
+    private void publish(Beer beer, boolean deleted) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        StockChange change = new StockChange(beerMapper.toDTO(beer), deleted);
+        unfilteredSubscribers.forEach(subscriber -> subscriber.offer(change));
+        subscribersById.getOrDefault(beer.getId(), Collections.emptySet()).forEach(subscriber -> subscriber.offer(change));
+        if (beer.getType() != null) {
+            subscribersByType.getOrDefault(beer.getType(), Collections.emptySet()).forEach(subscriber -> subscriber.offer(change));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscriber.close();
+        subscribers.remove(subscriber);
+        unfilteredSubscribers.remove(subscriber);
+        subscriber.ids.forEach(id -> subscribersById.computeIfPresent(id, (key, idSubscribers) -> {
+            idSubscribers.remove(subscriber);
+            return idSubscribers.isEmpty() ? null : idSubscribers;
+        }));
+        subscriber.types.forEach(type -> subscribersByType.computeIfPresent(type, (key, typeSubscribers) -> {
+            typeSubscribers.remove(subscriber);
+            return typeSubscribers.isEmpty() ? null : typeSubscribers;
+        }));
+    }
+
+    private void execute(Runnable task) {
+        try {
+            senders.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Stock stream is shutting down, dropping a send");
+        }
+    }
+
+    private static class StockChange {
+
+        private final BeerDTO beer;
+        private final boolean deleted;
+
+        StockChange(BeerDTO beer, boolean deleted) {
+            this.beer = beer;
+            this.deleted = deleted;
+        }
+
+        boolean isOlderThan(StockChange other) {
+            if (other.deleted || deleted) {
+                return other.deleted && !deleted;
+            }
+            return beer.getVersion() != null && other.beer.getVersion() != null && beer.getVersion() < other.beer.getVersion();
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            return SseEmitter.event()
+                    .name(deleted ? "deleted" : "beer")
+                    .data(beer);
+        }
+    }
+
+    private class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Set<Long> ids;
+        private final Set<BeerType> types;
+        private final Map<Long, StockChange> pendingChanges = new LinkedHashMap<>();
+        private boolean heartbeatPending;
+        private boolean sending;
+        private boolean closed;
+
+        Subscriber(SseEmitter emitter, Set<Long> ids, Set<BeerType> types) {
+            this.emitter = emitter;
+            this.ids = ids;
+            this.types = types;
+        }
+
+        void offer(StockChange change) {
+            if (!types.isEmpty() && !types.contains(change.beer.getType())) {
+                return;
+            }
+
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+
+                StockChange pendingChange = pendingChanges.get(change.beer.getId());
+                if (pendingChange != null) {
+                    coalescedChanges.increment();
+                    if (!change.isOlderThan(pendingChange)) {
+                        pendingChanges.put(change.beer.getId(), change);
+                    }
+                } else if (pendingChanges.size() == bufferSize) {
+                    dropSlowSubscriber();
+                    return;
+                } else {
+                    pendingChanges.put(change.beer.getId(), change);
+                }
+
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            execute(this::send);
+        }
+
+        void heartbeat() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                heartbeatPending = true;
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            }
+            execute(this::send);
+        }
+
+        synchronized void close() {
+            closed = true;
+            pendingChanges.clear();
+        }
+
+        private void dropSlowSubscriber() {
+            droppedSubscribers.increment();
+            closed = true;
+            pendingChanges.clear();
+            execute(() -> {
+                unsubscribe(this);
+                emitter.complete();
+            });
+        }
+
+        private void send() {
+            while (true) {
+                List<StockChange> changes;
+                boolean heartbeat;
+                synchronized (this) {
+                    if (closed || (pendingChanges.isEmpty() && !heartbeatPending)) {
+                        sending = false;
+                        return;
+                    }
+                    changes = new ArrayList<>(pendingChanges.values());
+                    pendingChanges.clear();
+                    heartbeat = heartbeatPending;
+                    heartbeatPending = false;
+                }
+
+                try {
+                    if (heartbeat) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                    for (StockChange change : changes) {
+                        emitter.send(change.toEvent());
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Stock stream client went away", e);
+                    unsubscribe(this);
+                    synchronized (this) {
+                        sending = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.WarehouseStockDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.WarehouseStock;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.WarehouseStockNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.WarehouseStockRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stock of beers per warehouse location. A location movement is a conditional update of its own
+ * {@link WarehouseStock} row, validated against the capacity of that location, followed in the same transaction by
+ * a conditional update of the beer totals validated against the {@code max} of the beer.
+ *
+ * <p>The beer row keeps the aggregate view served by the existing endpoints: {@code quantity} is the total stock and
+ * {@code allocated} the part of it held in locations, so both always match the sum of the locations. Keeping the
+ * totals exact and the {@code max} of the beer enforced means every location of a beer serializes on the beer row;
+ * it is updated last, which keeps that lock as short as the transaction allows. The change is recorded in the
+ * ledger, the outbox and the stock stream like any other stock change.</p>
+ */
+@Service
+public class WarehouseStockService {
+
+    private final WarehouseStockRepository warehouseStockRepository;
+    private final BeerRepository beerRepository;
+    private final StockEngine stockEngine;
+    private final BeerCache beerCache;
+    private final LowStockMonitor lowStockMonitor;
+    private final StockLedger stockLedger;
+    private final StockEventOutbox stockEventOutbox;
+    private final StockStream stockStream;
+
+    public WarehouseStockService(WarehouseStockRepository warehouseStockRepository,
+                                 BeerRepository beerRepository,
+                                 StockEngine stockEngine,
+                                 BeerCache beerCache,
+                                 LowStockMonitor lowStockMonitor,
+                                 StockLedger stockLedger,
+                                 StockEventOutbox stockEventOutbox,
+                                 StockStream stockStream) {
+        this.warehouseStockRepository = warehouseStockRepository;
+        this.beerRepository = beerRepository;
+        this.stockEngine = stockEngine;
+        this.beerCache = beerCache;
+        this.lowStockMonitor = lowStockMonitor;
+        this.stockLedger = stockLedger;
+        this.stockEventOutbox = stockEventOutbox;
+        this.stockStream = stockStream;
+    }
+
+    public List<WarehouseStockDTO> listLocations(Long beerId) throws BeerNotFoundException {
+        verifyIfBeerExists(beerId);
+        return warehouseStockRepository.findByBeerIdOrderByWarehouseIdAsc(beerId)
+                .stream()
+                .map(WarehouseStockService::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Registers the beer in the warehouse with the given capacity, or changes the capacity of an existing location.
+     * A capacity below the quantity already stored only rejects further increments.
+     */
+    @Transactional
+    public WarehouseStockDTO setCapacity(Long beerId, Long warehouseId, int max) throws BeerNotFoundException {
+        verifyIfBeerExists(beerId);
+        WarehouseStock location = warehouseStockRepository.findByBeerIdAndWarehouseId(beerId, warehouseId)
+                .orElseGet(() -> WarehouseStock.builder()
+                        .beerId(beerId)
+                        .warehouseId(warehouseId)
+                        .build());
+        location.setMax(max);
+        return toDTO(warehouseStockRepository.save(location));
+    }
+
+    /**
+     * Increments the location, rejecting movements beyond the capacity of the location or the max of the beer.
+     */
+    @Transactional
+    public WarehouseStockDTO increment(Long beerId, Long warehouseId, int quantityToIncrement) throws WarehouseStockNotFoundException, BeerStockExceededException {
+        stockEngine.evictAroundTransaction(Collections.singletonList(beerId));
+        int updatedRows = warehouseStockRepository.incrementQuantity(beerId, warehouseId, quantityToIncrement);
+
+        if (updatedRows == 0) {
+            verifyIfLocationExists(beerId, warehouseId);
+            throw new BeerStockExceededException(beerId, warehouseId, quantityToIncrement);
+        }
+
+        if (beerRepository.applyAllocatedDelta(beerId, quantityToIncrement) == 0) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            throw new BeerStockExceededException(beerId, quantityToIncrement);
+        }
+
+        recordTotals(beerId, quantityToIncrement);
+        return toDTO(verifyIfLocationExists(beerId, warehouseId));
+    }
+
+    @Transactional
+    public WarehouseStockDTO decrement(Long beerId, Long warehouseId, int quantityToDecrement) throws WarehouseStockNotFoundException, BeerNegativeStockException {
+        stockEngine.evictAroundTransaction(Collections.singletonList(beerId));
+        int updatedRows = warehouseStockRepository.decrementQuantity(beerId, warehouseId, quantityToDecrement);
+
+        if (updatedRows == 0) {
+            verifyIfLocationExists(beerId, warehouseId);
+            throw new BeerNegativeStockException(beerId, warehouseId, quantityToDecrement);
+        }
+
+        beerRepository.applyAllocatedDelta(beerId, -quantityToDecrement);
+        recordTotals(beerId, -quantityToDecrement);
+        return toDTO(verifyIfLocationExists(beerId, warehouseId));
+    }
+
+    private void recordTotals(Long beerId, int delta) {
+        Beer beer = beerRepository.findStoredById(beerId).orElseThrow();
+        stockLedger.record(beerId, delta, beer.getQuantity());
+        stockEventOutbox.append(delta < 0 ? StockEventType.DECREMENTED : StockEventType.INCREMENTED, beer);
+        beerCache.evictAfterCommit(beerId, beer.getName());
+        lowStockMonitor.onStockChanged(beer);
+        stockStream.onStockChanged(beer);
+    }
+
+    private void verifyIfBeerExists(Long beerId) throws BeerNotFoundException {
+        if (!beerRepository.existsById(beerId)) {
+            throw new BeerNotFoundException(beerId);
+        }
+    }
+
+    private WarehouseStock verifyIfLocationExists(Long beerId, Long warehouseId) throws WarehouseStockNotFoundException {
+        return warehouseStockRepository.findByBeerIdAndWarehouseId(beerId, warehouseId)
+                .orElseThrow(() -> new WarehouseStockNotFoundException(beerId, warehouseId));
+    }
+
+    private static WarehouseStockDTO toDTO(WarehouseStock location) {
+        return WarehouseStockDTO.builder()
+                .beerId(location.getBeerId())
+                .warehouseId(location.getWarehouseId())
+                .max(location.getMax())
+                .quantity(location.getQuantity())
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.OutboxProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.StockChangeEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * Posts each relayed batch to an HTTP endpoint as a JSON array. Any answer other than 2xx fails the batch, which
+ * is then posted again, so the receiver should drop event ids it has already seen.
+ */
+@Component
+@ConditionalOnProperty(prefix = "beerstock.outbox", name = "sink", havingValue = "webhook")
+public class WebhookStockEventSink implements StockEventSink {
+
+    private final OutboxProperties outboxProperties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public WebhookStockEventSink(OutboxProperties outboxProperties, ObjectMapper objectMapper) {
+        this.outboxProperties = outboxProperties;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(outboxProperties.getWebhookTimeout())
+                .build();
+    }
+
+    @Override
+    public void publish(List<StockChangeEvent> events) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(outboxProperties.getWebhookUrl())
+                .timeout(outboxProperties.getWebhookTimeout())
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(events)))
+                .build();
+
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook " + outboxProperties.getWebhookUrl() + " answered " + response.statusCode());
+        }
+    }
+}
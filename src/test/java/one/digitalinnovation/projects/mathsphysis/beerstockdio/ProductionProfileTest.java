@@ -0,0 +1,63 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio;
+
+import com.zaxxer.hikari.HikariDataSource;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+@ActiveProfiles("production")
+public class ProductionProfileTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Value("${spring.jpa.open-in-view}")
+    private boolean openInView;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenProductionProfileIsActiveThenPoolShouldBeSizedAndWatchedForLeaks() {
+        assertThat(dataSource, is(instanceOf(HikariDataSource.class)));
+        HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
+
+        assertThat(hikariDataSource.getPoolName(), is("beerstock"));
+        assertThat(hikariDataSource.getMaximumPoolSize(), is(16));
+        assertThat(hikariDataSource.getMinimumIdle(), is(16));
+        assertThat(hikariDataSource.getLeakDetectionThreshold(), is(10_000L));
+        assertThat(hikariDataSource.isAutoCommit(), is(false));
+        assertThat(openInView, is(false));
+    }
+
+    @Test
+    void whenAutoCommitIsOffThenStockChangesShouldStillBeCommitted() throws Exception {
+        BeerDTO createdBeer = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+
+        beerService.increment(createdBeer.getId(), 5);
+
+        assertThat(beerRepository.findById(createdBeer.getId()).orElseThrow().getQuantity(), is(createdBeer.getQuantity() + 5));
+    }
+}
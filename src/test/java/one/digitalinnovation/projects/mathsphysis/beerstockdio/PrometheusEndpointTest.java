@@ -0,0 +1,83 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.StockMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class PrometheusEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private StockMetrics stockMetrics;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenServiceIsUsedThenItsMetricsShouldBeScrapeableInPrometheusFormat() throws Exception {
+        Long id = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO()).getId();
+        assertThrows(BeerStockExceededException.class, () -> beerService.increment(id, 100));
+        stockMetrics.refreshStockQuantities();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("beerstock_service_seconds_bucket{exception=\"none\",method=\"createBeer\",outcome=\"success\"")))
+                .andExpect(content().string(containsString("beerstock_service_seconds{exception=\"BeerStockExceededException\",method=\"increment\",outcome=\"error\",quantile=\"0.99\"")))
+                .andExpect(content().string(containsString("beerstock_stock_rejections_total{operation=\"increment\",reason=\"max_exceeded\"")))
+                .andExpect(content().string(containsString("beerstock_stock_quantity{type=\"IPA\",} 10.0")));
+    }
+
+    @Test
+    void whenDatabaseIsUsedThenConnectionPoolSaturationShouldBeScrapeable() throws Exception {
+        beerService.listAll();
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hikaricp_connections_active{pool=")))
+                .andExpect(content().string(containsString("hikaricp_connections_idle{pool=")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending{pool=")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{pool=")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds{pool=")));
+    }
+
+    @Test
+    void whenSecondLevelCacheIsUsedThenItsRegionStatisticsShouldBeScrapeable() throws Exception {
+        Long id = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO()).getId();
+        beerRepository.findById(id);
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total{")))
+                .andExpect(content().string(containsString("region=\"beer\",result=\"hit\",}")))
+                .andExpect(content().string(containsString("hibernate_cache_natural_id_requests_total{")))
+                .andExpect(content().string(containsString("hibernate_cache_query_requests_total{")));
+    }
+}
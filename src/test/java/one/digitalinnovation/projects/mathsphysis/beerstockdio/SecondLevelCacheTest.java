@@ -0,0 +1,112 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenBeerIsLoadedAndSavedRepeatedlyThenOnlyTheFirstLoadShouldSelectIt() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        entityManagerFactory.getCache().evict(Beer.class, beerDTO.getId());
+
+        EntityStatistics coldStatistics = loadAndSave(beerDTO.getId(), 11);
+        assertThat(coldStatistics.getLoadCount(), is(1L));
+        assertThat(coldStatistics.getUpdateCount(), is(1L));
+
+        EntityStatistics warmStatistics = loadAndSave(beerDTO.getId(), 12);
+        assertThat(warmStatistics.getLoadCount(), is(0L));
+        assertThat(warmStatistics.getUpdateCount(), is(1L));
+        assertThat(statistics.getDomainDataRegionStatistics(Beer.CACHE_REGION).getHitCount(), is(greaterThan(0L)));
+        assertThat(beerRepository.findStoredById(beerDTO.getId()).orElseThrow().getQuantity(), is(12));
+    }
+
+    @Test
+    void whenBeerIsFoundByNameAgainThenTheNaturalIdCacheShouldAnswerWithoutQueries() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        beerRepository.findByName(beerDTO.getName()).orElseThrow();
+
+        statistics.clear();
+        Beer beer = beerRepository.findByName(beerDTO.getName()).orElseThrow();
+
+        assertThat(beer.getId(), is(beerDTO.getId()));
+        assertThat(statistics.getNaturalIdQueryExecutionCount(), is(0L));
+        assertThat(statistics.getEntityStatistics(Beer.class.getName()).getLoadCount(), is(0L));
+        assertThat(statistics.getNaturalIdCacheHitCount(), is(greaterThan(0L)));
+    }
+
+    @Test
+    void whenBeerIsRenamedThenTheNaturalIdLookupShouldFollowTheNewName() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        beerRepository.findByName(beerDTO.getName()).orElseThrow();
+
+        beerService.updateById(beerDTO.getId(), BeerDTOBuilder.builder().id(beerDTO.getId()).name("Colorado Appia").build().toBeerDTO());
+
+        assertThat(beerRepository.findByName(beerDTO.getName()).isPresent(), is(false));
+        assertThat(beerRepository.findByName("Colorado Appia").orElseThrow().getId(), is(beerDTO.getId()));
+    }
+
+    @Test
+    void whenListingIsRepeatedThenTheQueryCacheShouldAnswerItUntilABeerChanges() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        beerRepository.findAllByOrderByIdAsc(PageRequest.of(0, 10));
+
+        statistics.clear();
+        beerRepository.findAllByOrderByIdAsc(PageRequest.of(0, 10));
+        assertThat(statistics.getQueryCacheMissCount(), is(0L));
+        assertThat(statistics.getQueryCacheHitCount(), is(1L));
+
+        beerService.increment(beerDTO.getId(), 5);
+        List<Beer> beers = beerRepository.findAllByOrderByIdAsc(PageRequest.of(0, 10));
+        assertThat(beers.get(0).getQuantity(), is(15));
+    }
+
+    private EntityStatistics loadAndSave(Long id, int quantity) {
+        statistics.clear();
+        Beer beer = beerRepository.findById(id).orElseThrow();
+        beer.setQuantity(quantity);
+        beerRepository.save(beer);
+        return statistics.getEntityStatistics(Beer.class.getName());
+    }
+}
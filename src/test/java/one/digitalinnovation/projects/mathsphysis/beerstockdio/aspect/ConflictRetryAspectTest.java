@@ -0,0 +1,72 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.aspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.RetryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConflictRetryAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ConflictingOperation conflictingOperation;
+
+    private ConflictingOperation proxy;
+
+    @BeforeEach
+    void setUp() {
+        RetryProperties retryProperties = new RetryProperties();
+        retryProperties.setMaxAttempts(3);
+        retryProperties.setInitialBackoff(Duration.ofMillis(1));
+        retryProperties.setMaxBackoff(Duration.ofMillis(2));
+        meterRegistry = new SimpleMeterRegistry();
+        conflictingOperation = new ConflictingOperation();
+
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(conflictingOperation);
+        proxyFactory.addAspect(new ConflictRetryAspect(retryProperties, meterRegistry));
+        proxy = proxyFactory.getProxy();
+    }
+
+    @Test
+    void whenConflictIsTransientThenTheOperationShouldBeRetriedUntilItSucceeds() {
+        conflictingOperation.conflictsLeft = 2;
+
+        assertThat(proxy.run(), is("done"));
+        assertThat(conflictingOperation.attempts, is(3));
+        assertThat(meterRegistry.get("beerstock.conflict.retries").tag("operation", "run").counter().count(), is(2.0));
+        assertThat(meterRegistry.get("beerstock.conflict.calls").tag("operation", "run").counter().count(), is(1.0));
+    }
+
+    @Test
+    void whenConflictOutlastsMaxAttemptsThenTheConflictShouldBeRethrown() {
+        conflictingOperation.conflictsLeft = 5;
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.run());
+        assertThat(conflictingOperation.attempts, is(3));
+        assertThat(meterRegistry.get("beerstock.conflict.exhausted").tag("operation", "run").counter().count(), is(1.0));
+    }
+
+    public static class ConflictingOperation {
+
+        int conflictsLeft;
+        int attempts;
+
+        @RetryOnConflict
+        public String run() {
+            attempts++;
+            if (conflictsLeft-- > 0) {
+                throw new ObjectOptimisticLockingFailureException("Beer", 1L);
+            }
+            return "done";
+        }
+    }
+}
@@ -25,7 +25,10 @@ public class BeerDTOBuilder {
     @Builder.Default
     private BeerType type = BeerType.IPA;
 
+    @Builder.Default
+    private Long version = null;
+
     public BeerDTO toBeerDTO() {
-        return new BeerDTO(id, name, brand, max, quantity, type);
+        return new BeerDTO(id, name, brand, max, quantity, type, version);
     }
 }
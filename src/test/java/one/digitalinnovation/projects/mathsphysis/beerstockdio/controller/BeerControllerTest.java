@@ -2,31 +2,68 @@ package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
 
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerSearchDTO;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.QuantityDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementBatchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerCursorPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerImportResultDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerView;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerViewCursorPageDTO;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.MessageResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockLevelDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockMovementBatchResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockMovementResultDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BatchMode;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.MovementStatus;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerVersionMismatchException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.IdempotencyKeyReusedException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidCursorException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidSortException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerExportService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerImportService;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerViewService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.IdempotentStockService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.StockHistoryService;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.StockStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
 
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Collections;
 
 import static one.digitalinnovation.projects.mathsphysis.beerstockdio.utils.JsonConvertionUtils.asJsonString;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,12 +75,33 @@ public class BeerControllerTest {
     private static final String BEER_API_SUBPATH_INCREMENT_URL = "/increment";
     private static final String BEER_API_SUBPATH_DECREMENT_URL = "/decrement";
     private static final String NOT_EXISTING_BEER_NAME = "Not Existing";
+    private static final String BEER_API_SUBPATH_STOCK_MOVEMENTS_URL = "/stock-movements";
+    private static final String BEER_API_SUBPATH_EXPORT_URL = "/export";
+    private static final String BEER_API_SUBPATH_IMPORT_URL = "/import";
 
     private MockMvc mockMvc;
 
     @Mock
     private BeerService beerService;
 
+    @Mock
+    private BeerExportService beerExportService;
+
+    @Mock
+    private BeerImportService beerImportService;
+
+    @Mock
+    private StockHistoryService stockHistoryService;
+
+    @Mock
+    private IdempotentStockService idempotentStockService;
+
+    @Mock
+    private StockStream stockStream;
+
+    @Mock
+    private BeerViewService beerViewService;
+
     @InjectMocks
     private BeerController beerController;
 
@@ -86,7 +144,7 @@ public class BeerControllerTest {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         MessageResponseDTO expectedMessageResponseDTO = MessageResponseDTO.builder().message("Updated Beer with ID: " + beerDTO.getId()).build();
 
-        when(beerService.updateById(VALID_BEER_ID, beerDTO)).thenReturn(expectedMessageResponseDTO);
+        when(beerService.updateById(VALID_BEER_ID, beerDTO, null)).thenReturn(expectedMessageResponseDTO);
 
         mockMvc.perform(put(BEER_API_URL_PATH + "/" + VALID_BEER_ID)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -95,6 +153,36 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$.message", is(expectedMessageResponseDTO.getMessage())));
     }
 
+    @Test
+    void whenPOSTIsCalledWithTheNameOfALiteralRouteThenRespondWithBadRequestStatus() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setName("export");
+
+        mockMvc.perform(post(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(beerDTO)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(put(BEER_API_URL_PATH + "/" + VALID_BEER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(beerDTO)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(beerService);
+    }
+
+    @Test
+    void whenPOSTIsCalledWithTheNameOfTheViewsRouteThenRespondWithBadRequestStatus() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setName("views");
+
+        mockMvc.perform(post(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(beerDTO)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(beerService);
+    }
+
     @Test
     void whenPUTIsCalledWithoutRequiredFieldThenRespondWithBadRequestStatus() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -110,7 +198,7 @@ public class BeerControllerTest {
     void whenPUTIsCalledWithInvalidIdThenRespondWithNotFoundStatus() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
 
-        when(beerService.updateById(INVALID_BEER_ID, beerDTO)).thenThrow(BeerNotFoundException.class);
+        when(beerService.updateById(INVALID_BEER_ID, beerDTO, null)).thenThrow(BeerNotFoundException.class);
 
         mockMvc.perform(put(BEER_API_URL_PATH + "/" + INVALID_BEER_ID)
                 .contentType(MediaType.APPLICATION_JSON)
@@ -118,6 +206,47 @@ public class BeerControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void whenPUTIsCalledWithIfMatchThenTheETagVersionShouldBeExpected() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        MessageResponseDTO expectedMessageResponseDTO = MessageResponseDTO.builder().message("Updated Beer with ID: " + beerDTO.getId()).build();
+
+        when(beerService.updateById(VALID_BEER_ID, beerDTO, 3L)).thenReturn(expectedMessageResponseDTO);
+
+        mockMvc.perform(put(BEER_API_URL_PATH + "/" + VALID_BEER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .content(asJsonString(beerDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message", is(expectedMessageResponseDTO.getMessage())));
+    }
+
+    @Test
+    void whenPUTIsCalledWithStaleIfMatchThenRespondWithPreconditionFailedStatus() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.updateById(VALID_BEER_ID, beerDTO, 2L)).thenThrow(BeerVersionMismatchException.class);
+
+        mockMvc.perform(put(BEER_API_URL_PATH + "/" + VALID_BEER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .content(asJsonString(beerDTO)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void whenGETIsCalledForVersionedBeerThenRespondWithETag() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().version(4L).build().toBeerDTO();
+
+        when(beerService.findById(VALID_BEER_ID)).thenReturn(beerDTO);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "?id=" + VALID_BEER_ID)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
     @Test
     void whenGETIsCalledWithValidNameThenRespondWithOKStatus() throws Exception {
         BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -180,6 +309,225 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$[0].type", is(expectedBeerDTO.getType().toString())));
     }
 
+    @Test
+    void whenGETPageIsCalledThenRespondWithOkStatus() throws Exception {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerPageDTO expectedPage = BeerPageDTO.builder()
+                .content(Collections.singletonList(expectedBeerDTO))
+                .page(0)
+                .size(10)
+                .totalElements(1)
+                .totalPages(1)
+                .build();
+
+        when(beerService.listPage(PageRequest.of(0, 10))).thenReturn(expectedPage);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "?page=0&size=10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(expectedBeerDTO.getName())))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    void whenGETSearchIsCalledThenRespondWithMatchingPage() throws Exception {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerSearchDTO expectedSearch = BeerSearchDTO.builder()
+                .brand(expectedBeerDTO.getBrand())
+                .type(BeerType.LAGER)
+                .maxFillRatio(0.2)
+                .build();
+        BeerPageDTO expectedPage = BeerPageDTO.builder()
+                .content(Collections.singletonList(expectedBeerDTO))
+                .page(0)
+                .size(10)
+                .totalElements(1)
+                .totalPages(1)
+                .build();
+
+        when(beerService.search(expectedSearch, PageRequest.of(0, 10))).thenReturn(expectedPage);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/search")
+                .param("brand", expectedBeerDTO.getBrand())
+                .param("type", "LAGER")
+                .param("maxFillRatio", "0.2")
+                .param("page", "0")
+                .param("size", "10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(expectedBeerDTO.getName())))
+                .andExpect(jsonPath("$.totalElements", is(1)));
+    }
+
+    @Test
+    void whenGETSearchIsCalledWithFillRatioAboveOneThenRespondWithBadRequestStatus() throws Exception {
+        mockMvc.perform(get(BEER_API_URL_PATH + "/search?minFillRatio=1.5")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(beerService);
+    }
+
+    @Test
+    void whenGETLowStockIsCalledThenRespondWithLowStockBeers() throws Exception {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().quantity(1).build().toBeerDTO();
+
+        when(beerService.listLowStock()).thenReturn(Collections.singletonList(expectedBeerDTO));
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/low-stock")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is(expectedBeerDTO.getName())))
+                .andExpect(jsonPath("$[0].quantity", is(1)));
+    }
+
+    @Test
+    void whenGETStreamIsCalledWithFiltersThenSubscribeToMatchingChanges() throws Exception {
+        when(stockStream.subscribe(Collections.singleton(VALID_BEER_ID), Collections.singleton(BeerType.IPA))).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/stream")
+                .param("id", String.valueOf(VALID_BEER_ID))
+                .param("type", BeerType.IPA.name())
+                .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(stockStream).subscribe(Collections.singleton(VALID_BEER_ID), Collections.singleton(BeerType.IPA));
+    }
+
+    @Test
+    void whenGETWithLimitIsCalledThenRespondWithNextCursor() throws Exception {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerCursorPageDTO expectedPage = BeerCursorPageDTO.builder()
+                .content(Collections.singletonList(expectedBeerDTO))
+                .nextCursor("MQ")
+                .build();
+
+        when(beerService.listAfter(null, 1)).thenReturn(expectedPage);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "?limit=1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is(expectedBeerDTO.getName())))
+                .andExpect(jsonPath("$.nextCursor", is("MQ")));
+    }
+
+    @Test
+    void whenGETViewsIsCalledThenRespondWithTheSameFieldsAsTheEntityListing() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().version(3L).build().toBeerDTO();
+        BeerView beerView = new BeerView(beerDTO.getId(), beerDTO.getName(), beerDTO.getBrand(), beerDTO.getMax(),
+                beerDTO.getQuantity(), beerDTO.getType(), beerDTO.getVersion());
+
+        when(beerViewService.listAll()).thenReturn(Collections.singletonList(beerView));
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/views")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id", is(beerDTO.getId().intValue())))
+                .andExpect(jsonPath("$[0].name", is(beerDTO.getName())))
+                .andExpect(jsonPath("$[0].brand", is(beerDTO.getBrand())))
+                .andExpect(jsonPath("$[0].max", is(beerDTO.getMax())))
+                .andExpect(jsonPath("$[0].quantity", is(beerDTO.getQuantity())))
+                .andExpect(jsonPath("$[0].type", is(beerDTO.getType().toString())))
+                .andExpect(jsonPath("$[0].version", is(3)));
+        verifyNoInteractions(beerService);
+    }
+
+    @Test
+    void whenGETViewsWithLimitIsCalledThenRespondWithNextCursor() throws Exception {
+        BeerView beerView = new BeerView(VALID_BEER_ID, "Colorado Kuya", "Cervejaria Colorado", 20, 10, BeerType.IPA, 0L);
+        BeerViewCursorPageDTO expectedPage = BeerViewCursorPageDTO.builder()
+                .content(Collections.singletonList(beerView))
+                .nextCursor("MQ")
+                .build();
+
+        when(beerViewService.listAfter(null, 1)).thenReturn(expectedPage);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/views?limit=1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name", is("Colorado Kuya")))
+                .andExpect(jsonPath("$.nextCursor", is("MQ")));
+    }
+
+    @Test
+    void whenGETWithUnknownSortPropertyIsCalledThenRespondWithBadRequestStatus() throws Exception {
+        when(beerService.listPage(PageRequest.of(0, 10, Sort.by("unknown")))).thenThrow(InvalidSortException.class);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "?page=0&size=10&sort=unknown")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETWithBothPageAndLimitIsCalledThenRespondWithBadRequestStatus() throws Exception {
+        mockMvc.perform(get(BEER_API_URL_PATH + "?page=0&limit=10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(BEER_API_URL_PATH + "/views?page=0&limit=10")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(beerService, beerViewService);
+    }
+
+    @Test
+    void whenGETWithIdAndPagingIsCalledThenRespondWithBadRequestStatus() throws Exception {
+        mockMvc.perform(get(BEER_API_URL_PATH + "?id=" + VALID_BEER_ID + "&page=0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(BEER_API_URL_PATH + "?id=" + VALID_BEER_ID + "&limit=10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(BEER_API_URL_PATH + "?id=" + VALID_BEER_ID + "&page=0&limit=10"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(beerService);
+    }
+
+    @Test
+    void whenGETWithInvalidCursorIsCalledThenRespondWithBadRequestStatus() throws Exception {
+        when(beerService.listAfter("invalid", 1)).thenThrow(InvalidCursorException.class);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "?after=invalid&limit=1")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETExportIsCalledThenRespondWithNewlineDelimitedJson() throws Exception {
+        String exportedBeers = asJsonString(BeerDTOBuilder.builder().build().toBeerDTO()) + "\n";
+
+        when(beerExportService.exportTo(any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write(exportedBeers.getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult mvcResult = mockMvc.perform(get(BEER_API_URL_PATH + BEER_API_SUBPATH_EXPORT_URL))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(exportedBeers));
+    }
+
+    @Test
+    void whenPOSTImportIsCalledWithCsvThenRespondWithImportReport() throws Exception {
+        BeerImportResultDTO expectedResult = BeerImportResultDTO.builder()
+                .imported(1)
+                .rejected(0)
+                .rejects(Collections.emptyList())
+                .build();
+
+        when(beerImportService.importCsv(any(InputStream.class))).thenReturn(expectedResult);
+
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_IMPORT_URL)
+                .contentType("text/csv")
+                .content("name,brand,max,quantity,type\nColorado Kuya,Cervejaria Colorado,20,10,IPA\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(1)))
+                .andExpect(jsonPath("$.rejected", is(0)));
+    }
+
     @Test
     void whenDELETEIsCalledWithValidIdThenRespondWithNoContentStatus() throws Exception {
         doNothing().when(beerService).deleteById(VALID_BEER_ID);
@@ -223,6 +571,40 @@ public class BeerControllerTest {
                 .andExpect(jsonPath("$.quantity", is(beerDTO.getQuantity())));
     }
 
+    @Test
+    void whenPATCHIsCalledToIncrementWithIdempotencyKeyThenItShouldBeAppliedOncePerKey() throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder()
+                .quantity(10)
+                .build();
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(20).build().toBeerDTO();
+
+        when(idempotentStockService.incrementOnce("scan-42", VALID_BEER_ID, quantityDTO.getQuantity())).thenReturn(beerDTO);
+
+        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+                .header("Idempotency-Key", "scan-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(20)));
+
+        verify(beerService, never()).increment(VALID_BEER_ID, quantityDTO.getQuantity());
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementWithReusedIdempotencyKeyThenRespondWithUnprocessableEntityStatus() throws Exception {
+        QuantityDTO quantityDTO = QuantityDTO.builder()
+                .quantity(5)
+                .build();
+
+        when(idempotentStockService.decrementOnce("scan-42", VALID_BEER_ID, quantityDTO.getQuantity())).thenThrow(IdempotencyKeyReusedException.class);
+
+        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+                .header("Idempotency-Key", "scan-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(quantityDTO)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
     @Test
     void whenPATCHIsCalledToIncrementWithQuantityGreaterThanAmountLeftThenRespondWithBadRequestStatus() throws Exception {
         QuantityDTO quantityDTO = QuantityDTO.builder()
@@ -334,4 +716,90 @@ public class BeerControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenPATCHIsCalledToDecrementWithNonPositiveQuantityThenRespondWithBadRequestStatus() throws Exception {
+        for (int quantity : new int[]{Integer.MIN_VALUE, -1, 0}) {
+            mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(QuantityDTO.builder().quantity(quantity).build())))
+                    .andExpect(status().isBadRequest());
+        }
+
+        verifyNoInteractions(beerService, idempotentStockService);
+    }
+
+    @Test
+    void whenPOSTIsCalledWithStockMovementsThenRespondWithPerLineResults() throws Exception {
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .mode(BatchMode.PARTIAL)
+                .movements(Collections.singletonList(StockMovementDTO.builder().id(VALID_BEER_ID).delta(5).build()))
+                .build();
+        StockMovementBatchResponseDTO expectedResponse = StockMovementBatchResponseDTO.builder()
+                .mode(BatchMode.PARTIAL)
+                .committed(true)
+                .results(Collections.singletonList(StockMovementResultDTO.builder()
+                        .id(VALID_BEER_ID)
+                        .delta(5)
+                        .status(MovementStatus.APPLIED)
+                        .quantity(15)
+                        .build()))
+                .build();
+
+        when(beerService.applyMovements(movementBatchDTO)).thenReturn(expectedResponse);
+
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_MOVEMENTS_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(movementBatchDTO)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed", is(true)))
+                .andExpect(jsonPath("$.results[0].status", is(MovementStatus.APPLIED.toString())))
+                .andExpect(jsonPath("$.results[0].quantity", is(15)));
+    }
+
+    @Test
+    void whenPOSTIsCalledWithoutStockMovementsThenRespondWithBadRequestStatus() throws Exception {
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .movements(Collections.emptyList())
+                .build();
+
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_MOVEMENTS_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(movementBatchDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenPOSTIsCalledWithStockMovementOfMinimumIntThenRespondWithBadRequestStatus() throws Exception {
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .movements(Collections.singletonList(StockMovementDTO.builder().id(VALID_BEER_ID).delta(Integer.MIN_VALUE).build()))
+                .build();
+
+        mockMvc.perform(post(BEER_API_URL_PATH + BEER_API_SUBPATH_STOCK_MOVEMENTS_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(movementBatchDTO)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenGETStockAtInstantIsCalledThenRespondWithLedgerQuantity() throws Exception {
+        Instant at = Instant.parse("2026-10-01T12:00:00Z");
+        StockLevelDTO expectedStockLevelDTO = StockLevelDTO.builder().id(VALID_BEER_ID).at(at).quantity(7).build();
+
+        when(stockHistoryService.quantityAt(VALID_BEER_ID, at)).thenReturn(expectedStockLevelDTO);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/stock?at=2026-10-01T12:00:00Z")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(7)));
+    }
+
+    @Test
+    void whenGETStockIsCalledWithInvalidIdThenRespondWithNotFoundStatus() throws Exception {
+        when(stockHistoryService.quantityAt(eq(INVALID_BEER_ID), any(Instant.class))).thenThrow(BeerNotFoundException.class);
+
+        mockMvc.perform(get(BEER_API_URL_PATH + "/" + INVALID_BEER_ID + "/stock")
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
 }
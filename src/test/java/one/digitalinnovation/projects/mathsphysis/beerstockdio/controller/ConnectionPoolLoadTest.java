@@ -0,0 +1,136 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.utils.LoadGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Shows what the connection pool settings do to the latency of the {@code BeerController} endpoints: an
+ * undersized pool, the Spring Boot defaults and the {@code production} profile each run in a fresh application
+ * while 400 clients page through the catalogue, search it by brand and look beers up by id. Request p50/p99 and
+ * the p99 wait for a pooled connection of every run are logged side by side, and the production pool must wait
+ * less for connections than both other pools and serve more requests than the undersized one. Each run activates
+ * the profile named after it, so only the production run picks up {@code application-production.properties}. Its
+ * rate and concurrency limits are turned off, since all clients share one address and the runs measure the pool
+ * alone. Run with {@code mvn test -P stress}.
+ */
+@Tag("stress")
+public class ConnectionPoolLoadTest {
+
+    private static final int CLIENTS = 400;
+    private static final int CATALOGUE_SIZE = 2_000;
+    private static final int BRANDS = 50;
+    private static final int PAGE_SIZE = 20;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionPoolLoadTest.class);
+
+    @Test
+    void whenLoadedThroughDifferentPoolSettingsThenTheProductionPoolShouldWaitLeastForConnections() throws Exception {
+        PoolRun undersizedPool = runLoad("undersized", "spring.datasource.hikari.maximum-pool-size=2");
+        PoolRun defaultPool = runLoad("defaults");
+        PoolRun productionPool = runLoad("production");
+
+        log.info("undersized pool: {}", undersizedPool);
+        log.info("default pool:    {}", defaultPool);
+        log.info("production pool: {}", productionPool);
+
+        for (PoolRun run : Arrays.asList(undersizedPool, defaultPool, productionPool)) {
+            assertThat(run.result.getErrors(), is(0L));
+            assertThat(run.result.getRequests(), greaterThan(0L));
+        }
+        assertThat(productionPool.acquireP99, lessThan(undersizedPool.acquireP99));
+        assertThat(productionPool.acquireP99, lessThanOrEqualTo(defaultPool.acquireP99));
+        assertThat(productionPool.result.getThroughput(), greaterThan(undersizedPool.result.getThroughput()));
+    }
+
+    private static PoolRun runLoad(String name, String... properties) throws Exception {
+        String[] runProperties = Arrays.copyOf(properties, properties.length + 5);
+        runProperties[properties.length] = "server.port=0";
+        runProperties[properties.length + 1] = "spring.datasource.url=jdbc:h2:mem:pool-" + name + ";DB_CLOSE_DELAY=-1";
+        runProperties[properties.length + 2] = "logging.level.root=WARN";
+        runProperties[properties.length + 3] = "beerstock.rate-limit.enabled=false";
+        runProperties[properties.length + 4] = "beerstock.concurrency-limit.enabled=false";
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BeerstockApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .profiles(name)
+                .properties(runProperties)
+                .run()) {
+            context.getBean(JdbcTemplate.class).update("insert into beer (id, name, brand, max, quantity, type, version) " +
+                    "select x, concat('Beer ', x), concat('Brand ', mod(x, ?)), 100, 10, 'LAGER', 0 from system_range(1, ?)",
+                    BRANDS, CATALOGUE_SIZE);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadGenerator loadGenerator = new LoadGenerator(CLIENTS);
+
+            loadGenerator.run(WARMUP, sequence -> endpointUri(port, sequence));
+            Timer acquireTimer = context.getBean(MeterRegistry.class).get("hikaricp.connections.acquire").timer();
+            double acquiredBefore = acquireTimer.count();
+            LoadGenerator.Result result = loadGenerator.run(MEASUREMENT, sequence -> endpointUri(port, sequence));
+
+            return new PoolRun(result, acquireTimer.count() - acquiredBefore, acquireP99(acquireTimer));
+        }
+    }
+
+    private static URI endpointUri(int port, int sequence) {
+        String baseUri = "http://localhost:" + port + "/api/v1/beers";
+        switch (sequence % 3) {
+            case 0:
+                return URI.create(baseUri + "?page=" + (sequence / 3) % (CATALOGUE_SIZE / PAGE_SIZE) + "&size=" + PAGE_SIZE);
+            case 1:
+                return URI.create(baseUri + "/search?brand=Brand%20" + (sequence / 3) % BRANDS + "&size=" + PAGE_SIZE);
+            default:
+                return URI.create(baseUri + "?id=" + ((sequence / 3) % CATALOGUE_SIZE + 1));
+        }
+    }
+
+    private static Duration acquireP99(Timer acquireTimer) {
+        return Arrays.stream(acquireTimer.takeSnapshot().percentileValues())
+                .filter(percentile -> percentile.percentile() == 0.99)
+                .map(percentile -> Duration.ofNanos((long) percentile.value(TimeUnit.NANOSECONDS)))
+                .findFirst()
+                .orElse(Duration.ZERO);
+    }
+
+    private static class PoolRun {
+
+        private final LoadGenerator.Result result;
+        private final double connectionsAcquired;
+        private final Duration acquireP99;
+
+        PoolRun(LoadGenerator.Result result, double connectionsAcquired, Duration acquireP99) {
+            this.result = result;
+            this.connectionsAcquired = connectionsAcquired;
+            this.acquireP99 = acquireP99;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s, %.0f connections acquired, acquire p99 %.2f ms",
+                    result, connectionsAcquired, acquireP99.toNanos() / 1_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ConcurrencyLimitProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.RateLimitProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.QuantityDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+
+import java.time.Duration;
+
+import static one.digitalinnovation.projects.mathsphysis.beerstockdio.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class LoadSheddingInterceptorTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+    private static final Long VALID_BEER_ID = 1L;
+    private static final int READ_BURST = 2;
+
+    private MockMvc mockMvc;
+
+    private MeterRegistry meterRegistry;
+
+    private ConcurrencyLimitInterceptor concurrencyLimitInterceptor;
+
+    @Mock
+    private BeerService beerService;
+
+    @InjectMocks
+    private BeerController beerController;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimitProperties rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setReadsPerSecond(0.001);
+        rateLimitProperties.setReadBurst(READ_BURST);
+        rateLimitProperties.setClientHeader("X-Client-Id");
+        ConcurrencyLimitProperties concurrencyLimitProperties = new ConcurrencyLimitProperties();
+        concurrencyLimitProperties.setInitialLimit(1);
+        concurrencyLimitProperties.setMinLimit(1);
+        concurrencyLimitProperties.setMaxLimit(1);
+        concurrencyLimitInterceptor = new ConcurrencyLimitInterceptor(concurrencyLimitProperties, meterRegistry);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(beerController)
+                .addInterceptors(new RateLimitInterceptor(rateLimitProperties, meterRegistry), concurrencyLimitInterceptor)
+                .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
+                .build();
+    }
+
+    @Test
+    void whenClientSpendsItsReadBudgetThenReadsShouldBeRejectedWithTooManyRequestsButMutationsAllowed() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        when(beerService.findById(VALID_BEER_ID)).thenReturn(beerDTO);
+        when(beerService.increment(VALID_BEER_ID, 5)).thenReturn(beerDTO);
+
+        for (int request = 0; request < READ_BURST; request++) {
+            mockMvc.perform(get(BEER_API_URL_PATH).param("id", String.valueOf(VALID_BEER_ID)))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get(BEER_API_URL_PATH).param("id", String.valueOf(VALID_BEER_ID)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(patch(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/increment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(QuantityDTO.builder().quantity(5).build())))
+                .andExpect(status().isOk());
+
+        assertThat(meterRegistry.get("beerstock.limiter.requests").tags("limiter", "rate", "budget", "read", "outcome", "rejected").counter().count(), is(1.0));
+    }
+
+    @Test
+    void whenClientsAreNamedByHeaderThenEachShouldHaveItsOwnBudget() throws Exception {
+        when(beerService.findById(VALID_BEER_ID)).thenReturn(BeerDTOBuilder.builder().build().toBeerDTO());
+
+        for (int request = 0; request < READ_BURST; request++) {
+            mockMvc.perform(get(BEER_API_URL_PATH).param("id", String.valueOf(VALID_BEER_ID)).header("X-Client-Id", "scanner"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get(BEER_API_URL_PATH).param("id", String.valueOf(VALID_BEER_ID)).header("X-Client-Id", "scanner"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get(BEER_API_URL_PATH).param("id", String.valueOf(VALID_BEER_ID)).header("X-Client-Id", "dashboard"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenConcurrencyLimitIsReachedThenRequestsShouldBeShedWithServiceUnavailable() throws Exception {
+        when(beerService.findById(VALID_BEER_ID)).thenReturn(BeerDTOBuilder.builder().build().toBeerDTO());
+        concurrencyLimitInterceptor.getConcurrencyLimiter().tryAcquire();
+
+        mockMvc.perform(get(BEER_API_URL_PATH).param("id", String.valueOf(VALID_BEER_ID)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        concurrencyLimitInterceptor.getConcurrencyLimiter().release();
+        mockMvc.perform(get(BEER_API_URL_PATH).param("id", String.valueOf(VALID_BEER_ID)))
+                .andExpect(status().isOk());
+        verify(beerService).findById(VALID_BEER_ID);
+        assertThat(concurrencyLimitInterceptor.getConcurrencyLimiter().getInFlight(), is(0));
+    }
+
+    @Test
+    void whenSlowRequestIsAnImportThenItShouldNotCutTheLimit() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setLatencyThreshold(Duration.ZERO);
+        properties.setBackoffRatio(0.5);
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(properties, new SimpleMeterRegistry());
+
+        MockHttpServletRequest importRequest = new MockHttpServletRequest("POST", BEER_API_URL_PATH + "/import");
+        interceptor.preHandle(importRequest, new MockHttpServletResponse(), beerController);
+        Thread.sleep(1);
+        interceptor.afterCompletion(importRequest, new MockHttpServletResponse(), beerController, null);
+        assertThat(interceptor.getConcurrencyLimiter().getLimit(), is(10));
+
+        MockHttpServletRequest readRequest = new MockHttpServletRequest("GET", BEER_API_URL_PATH + "/" + VALID_BEER_ID);
+        interceptor.preHandle(readRequest, new MockHttpServletResponse(), beerController);
+        Thread.sleep(1);
+        interceptor.afterCompletion(readRequest, new MockHttpServletResponse(), beerController, null);
+        assertThat(interceptor.getConcurrencyLimiter().getLimit(), is(5));
+        assertThat(interceptor.getConcurrencyLimiter().getInFlight(), is(0));
+    }
+}
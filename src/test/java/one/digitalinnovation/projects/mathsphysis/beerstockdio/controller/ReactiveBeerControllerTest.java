@@ -0,0 +1,133 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.QuantityDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.ReactiveBeerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveBeerControllerTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+    private static final Long VALID_BEER_ID = 1L;
+    private static final Long INVALID_BEER_ID = 2L;
+    private static final String BEER_API_SUBPATH_INCREMENT_URL = "/increment";
+    private static final String BEER_API_SUBPATH_DECREMENT_URL = "/decrement";
+
+    private WebTestClient webTestClient;
+
+    @Mock
+    private ReactiveBeerService beerService;
+
+    @InjectMocks
+    private ReactiveBeerController beerController;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(beerController).build();
+    }
+
+    @Test
+    void whenPOSTIsCalledThenRespondWithCreatedStatus() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerService.createBeer(beerDTO)).thenReturn(Mono.just(beerDTO));
+
+        webTestClient.post().uri(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo(beerDTO.getName())
+                .jsonPath("$.type").isEqualTo(beerDTO.getType().toString());
+    }
+
+    @Test
+    void whenPOSTIsCalledWithoutRequiredFieldThenRespondWithBadRequestStatus() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        beerDTO.setBrand(null);
+
+        webTestClient.post().uri(BEER_API_URL_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(beerDTO)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenGETIsCalledWithInvalidIdThenRespondWithNotFoundStatus() {
+        when(beerService.findById(INVALID_BEER_ID)).thenReturn(Mono.error(new BeerNotFoundException(INVALID_BEER_ID)));
+
+        webTestClient.get().uri(BEER_API_URL_PATH + "?id=" + INVALID_BEER_ID)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenGETListIsCalledWithNdjsonThenBeersShouldBeStreamedOnePerLine() {
+        BeerDTO firstBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO secondBeerDTO = BeerDTOBuilder.builder().id(INVALID_BEER_ID).name("Colorado Appia").build().toBeerDTO();
+
+        when(beerService.listAll()).thenReturn(Flux.just(firstBeerDTO, secondBeerDTO));
+
+        List<BeerDTO> streamedBeers = webTestClient.get().uri(BEER_API_URL_PATH)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(BeerDTO.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(streamedBeers, contains(firstBeerDTO, secondBeerDTO));
+    }
+
+    @Test
+    void whenPATCHIsCalledToIncrementGreaterThanMaxThenRespondWithBadRequestStatus() {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(30).build();
+
+        when(beerService.increment(VALID_BEER_ID, quantityDTO.getQuantity()))
+                .thenReturn(Mono.error(new BeerStockExceededException(VALID_BEER_ID, quantityDTO.getQuantity())));
+
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_INCREMENT_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(quantityDTO)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementBelowZeroThenRespondWithBadRequestStatus() {
+        QuantityDTO quantityDTO = QuantityDTO.builder().quantity(60).build();
+
+        when(beerService.decrement(VALID_BEER_ID, quantityDTO.getQuantity()))
+                .thenReturn(Mono.error(new BeerNegativeStockException(VALID_BEER_ID, quantityDTO.getQuantity())));
+
+        webTestClient.patch().uri(BEER_API_URL_PATH + "/" + VALID_BEER_ID + BEER_API_SUBPATH_DECREMENT_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(quantityDTO)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+}
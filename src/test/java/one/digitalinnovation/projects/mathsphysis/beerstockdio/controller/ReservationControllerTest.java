@@ -0,0 +1,139 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.ReservationDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.ReservationResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.ReservationNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.ReservationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static one.digitalinnovation.projects.mathsphysis.beerstockdio.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationControllerTest {
+
+    private static final String BEER_API_URL_PATH = "/api/v1/beers";
+    private static final Long VALID_BEER_ID = 1L;
+    private static final Long VALID_RESERVATION_ID = 10L;
+    private static final Long INVALID_RESERVATION_ID = 11L;
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private ReservationService reservationService;
+
+    @InjectMocks
+    private ReservationController reservationController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(reservationController)
+                .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
+                .build();
+    }
+
+    @Test
+    void whenPOSTIsCalledToReserveThenRespondWithCreatedStatus() throws Exception {
+        ReservationResponseDTO reservation = ReservationResponseDTO.builder()
+                .id(VALID_RESERVATION_ID)
+                .beerId(VALID_BEER_ID)
+                .quantity(5)
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+        when(reservationService.reserve(VALID_BEER_ID, 5, Duration.ofSeconds(60))).thenReturn(reservation);
+
+        mockMvc.perform(post(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(ReservationDTO.builder().quantity(5).ttlSeconds(60L).build())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(VALID_RESERVATION_ID.intValue())))
+                .andExpect(jsonPath("$.quantity", is(5)));
+    }
+
+    @Test
+    void whenPOSTIsCalledToReserveWithoutTtlThenTheDefaultShouldApply() throws Exception {
+        mockMvc.perform(post(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(ReservationDTO.builder().quantity(5).build())))
+                .andExpect(status().isCreated());
+
+        verify(reservationService).reserve(VALID_BEER_ID, 5, null);
+    }
+
+    @Test
+    void whenPOSTIsCalledToReserveMoreThanAvailableThenRespondWithBadRequestStatus() throws Exception {
+        when(reservationService.reserve(VALID_BEER_ID, 50, null)).thenThrow(BeerNegativeStockException.class);
+
+        mockMvc.perform(post(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(ReservationDTO.builder().quantity(50).build())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenPOSTIsCalledToReserveNothingThenRespondWithBadRequestStatus() throws Exception {
+        mockMvc.perform(post(BEER_API_URL_PATH + "/" + VALID_BEER_ID + "/reservations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(ReservationDTO.builder().quantity(0).build())))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reservationService);
+    }
+
+    @Test
+    void whenPOSTIsCalledToConfirmThenRespondWithTheDecrementedBeer() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().quantity(5).build().toBeerDTO();
+        when(reservationService.confirm(VALID_RESERVATION_ID)).thenReturn(beerDTO);
+
+        mockMvc.perform(post(BEER_API_URL_PATH + "/reservations/" + VALID_RESERVATION_ID + "/confirm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity", is(5)));
+    }
+
+    @Test
+    void whenPOSTIsCalledToConfirmAnEndedReservationThenRespondWithNotFoundStatus() throws Exception {
+        when(reservationService.confirm(INVALID_RESERVATION_ID)).thenThrow(ReservationNotFoundException.class);
+
+        mockMvc.perform(post(BEER_API_URL_PATH + "/reservations/" + INVALID_RESERVATION_ID + "/confirm"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenDELETEIsCalledThenTheReservationShouldBeReleased() throws Exception {
+        mockMvc.perform(delete(BEER_API_URL_PATH + "/reservations/" + VALID_RESERVATION_ID))
+                .andExpect(status().isNoContent());
+
+        verify(reservationService).release(VALID_RESERVATION_ID);
+    }
+
+    @Test
+    void whenDELETEIsCalledForAnEndedReservationThenRespondWithNotFoundStatus() throws Exception {
+        doThrow(ReservationNotFoundException.class).when(reservationService).release(INVALID_RESERVATION_ID);
+
+        mockMvc.perform(delete(BEER_API_URL_PATH + "/reservations/" + INVALID_RESERVATION_ID))
+                .andExpect(status().isNotFound());
+    }
+}
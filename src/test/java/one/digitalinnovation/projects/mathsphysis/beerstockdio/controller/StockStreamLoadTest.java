@@ -0,0 +1,99 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.BeerService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Opens 2,000 Server-Sent Events connections to {@code /api/v1/beers/stream}, half of them filtered to the beer
+ * under test, then moves its stock and checks every client ends on the final quantity. Prints how long the slowest
+ * client took to see it. Run with {@code mvn test -P stress}.
+ */
+@Tag("stress")
+public class StockStreamLoadTest {
+
+    private static final int SUBSCRIBERS = 2_000;
+    private static final int MOVEMENTS = 200;
+    private static final Duration DEADLINE = Duration.ofSeconds(60);
+
+    private static final Logger log = LoggerFactory.getLogger(StockStreamLoadTest.class);
+
+    @Test
+    void whenThousandsOfClientsAreSubscribedThenEveryClientShouldSeeTheFinalQuantity() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BeerstockApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:stream-load;DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run()) {
+            BeerService beerService = context.getBean(BeerService.class);
+            BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(MOVEMENTS + 10).quantity(0).build().toBeerDTO());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String finalQuantity = "\"quantity\":" + MOVEMENTS;
+
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            CountDownLatch connected = new CountDownLatch(SUBSCRIBERS);
+            CountDownLatch sawFinalQuantity = new CountDownLatch(SUBSCRIBERS);
+            List<CompletableFuture<HttpResponse<Stream<String>>>> connections = new ArrayList<>(SUBSCRIBERS);
+
+            for (int subscriber = 0; subscriber < SUBSCRIBERS; subscriber++) {
+                String filter = subscriber % 2 == 0 ? "" : "?id=" + beerDTO.getId();
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/beers/stream" + filter))
+                        .header("Accept", "text/event-stream")
+                        .GET()
+                        .build();
+                connections.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                        .whenComplete((response, error) -> {
+                            connected.countDown();
+                            if (response != null) {
+                                Thread.ofVirtual().start(() -> response.body()
+                                        .filter(line -> line.startsWith("data:") && line.contains(finalQuantity))
+                                        .findFirst()
+                                        .ifPresent(line -> sawFinalQuantity.countDown()));
+                            }
+                        }));
+            }
+            assertThat(connected.await(DEADLINE.toSeconds(), TimeUnit.SECONDS), is(true));
+
+            long start = System.nanoTime();
+            for (int movement = 0; movement < MOVEMENTS; movement++) {
+                beerService.increment(beerDTO.getId(), 1);
+            }
+            boolean everyClientUpToDate = sawFinalQuantity.await(DEADLINE.toSeconds(), TimeUnit.SECONDS);
+            log.info("{} clients, {} movements, last client up to date after {} ms",
+                    SUBSCRIBERS, MOVEMENTS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            connections.forEach(connection -> connection.cancel(true));
+            assertThat(everyClientUpToDate, is(true));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.utils.LoadGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Compares the platform thread pool with the virtual thread mode: each mode runs in a fresh application, and
+ * 1,200 concurrent clients page through the catalogue against it, so every request waits on JDBC.
+ * Throughput and p50/p99 latency of both runs are logged side by side, and the virtual thread mode must keep at
+ * least {@value #MIN_VIRTUAL_TO_PLATFORM_THROUGHPUT} of the platform throughput: both wait on the same connection
+ * pool, so it can only lose by scheduling overhead. Run with {@code mvn test -P stress}.
+ */
+@Tag("stress")
+public class VirtualThreadLoadTest {
+
+    private static final int CLIENTS = 1_200;
+    private static final int CATALOGUE_SIZE = 2_000;
+    private static final int PAGE_SIZE = 20;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(20);
+    private static final double MIN_VIRTUAL_TO_PLATFORM_THROUGHPUT = 0.8;
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadTest.class);
+
+    @Test
+    void whenLoadedWithThousandsOfClientsThenVirtualThreadsShouldServeEveryRequestAtPlatformThroughput() throws Exception {
+        LoadGenerator.Result platformThreads = runLoad(false);
+        LoadGenerator.Result virtualThreads = runLoad(true);
+
+        log.info("platform threads: {}", platformThreads);
+        log.info("virtual threads:  {}", virtualThreads);
+
+        assertThat(platformThreads.getErrors(), is(0L));
+        assertThat(virtualThreads.getErrors(), is(0L));
+        assertThat(platformThreads.getRequests(), greaterThan(0L));
+        assertThat(virtualThreads.getRequests(), greaterThan(0L));
+        assertThat(virtualThreads.getThroughput(), greaterThanOrEqualTo(platformThreads.getThroughput() * MIN_VIRTUAL_TO_PLATFORM_THROUGHPUT));
+    }
+
+    private static LoadGenerator.Result runLoad(boolean virtualThreadsEnabled) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BeerstockApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .properties(
+                        "server.port=0",
+                        "beerstock.virtual-threads.enabled=" + virtualThreadsEnabled,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreadsEnabled + ";DB_CLOSE_DELAY=-1",
+                        "logging.level.root=WARN")
+                .run()) {
+            context.getBean(JdbcTemplate.class).update("insert into beer (id, name, brand, max, quantity, type, version) " +
+                    "select x, concat('Beer ', x), 'Brand', 100, 10, 'LAGER', 0 from system_range(1, ?)", CATALOGUE_SIZE);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            int pages = CATALOGUE_SIZE / PAGE_SIZE;
+            LoadGenerator loadGenerator = new LoadGenerator(CLIENTS);
+
+            loadGenerator.run(WARMUP, sequence -> pageUri(port, sequence % pages));
+            return loadGenerator.run(MEASUREMENT, sequence -> pageUri(port, sequence % pages));
+        }
+    }
+
+    private static URI pageUri(int port, int page) {
+        return URI.create("http://localhost:" + port + "/api/v1/beers?page=" + page + "&size=" + PAGE_SIZE);
+    }
+}
@@ -0,0 +1,154 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.controller;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.QuantityDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.WarehouseCapacityDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.WarehouseStockDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.WarehouseStockNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.service.WarehouseStockService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.view.json.MappingJackson2JsonView;
+
+import java.util.Arrays;
+
+import static one.digitalinnovation.projects.mathsphysis.beerstockdio.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+public class WarehouseStockControllerTest {
+
+    private static final String WAREHOUSE_API_URL_PATH = "/api/v1/beers/1/warehouses";
+    private static final Long VALID_BEER_ID = 1L;
+    private static final Long VALID_WAREHOUSE_ID = 7L;
+    private static final Long INVALID_WAREHOUSE_ID = 8L;
+
+    private MockMvc mockMvc;
+
+    @Mock
+    private WarehouseStockService warehouseStockService;
+
+    @InjectMocks
+    private WarehouseStockController warehouseStockController;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(warehouseStockController)
+                .setViewResolvers((s, locale) -> new MappingJackson2JsonView())
+                .build();
+    }
+
+    @Test
+    void whenGETIsCalledThenRespondWithEveryLocationOfTheBeer() throws Exception {
+        when(warehouseStockService.listLocations(VALID_BEER_ID)).thenReturn(Arrays.asList(
+                warehouseStockDTO(VALID_WAREHOUSE_ID, 10),
+                warehouseStockDTO(INVALID_WAREHOUSE_ID, 0)));
+
+        mockMvc.perform(get(WAREHOUSE_API_URL_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].warehouseId", is(VALID_WAREHOUSE_ID.intValue())))
+                .andExpect(jsonPath("$[0].quantity", is(10)))
+                .andExpect(jsonPath("$[1].warehouseId", is(INVALID_WAREHOUSE_ID.intValue())));
+    }
+
+    @Test
+    void whenPUTIsCalledThenTheLocationCapacityShouldBeSet() throws Exception {
+        when(warehouseStockService.setCapacity(VALID_BEER_ID, VALID_WAREHOUSE_ID, 100)).thenReturn(warehouseStockDTO(VALID_WAREHOUSE_ID, 0));
+
+        mockMvc.perform(put(WAREHOUSE_API_URL_PATH + "/" + VALID_WAREHOUSE_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(WarehouseCapacityDTO.builder().max(100).build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.max", is(100)));
+    }
+
+    @Test
+    void whenPUTIsCalledWithNegativeCapacityThenRespondWithBadRequestStatus() throws Exception {
+        mockMvc.perform(put(WAREHOUSE_API_URL_PATH + "/" + VALID_WAREHOUSE_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(WarehouseCapacityDTO.builder().max(-1).build())))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(warehouseStockService);
+    }
+
+    @Test
+    void whenPATCHIsCalledToIncrementThenOnlyTheLocationShouldBeReturned() throws Exception {
+        when(warehouseStockService.increment(VALID_BEER_ID, VALID_WAREHOUSE_ID, 10)).thenReturn(warehouseStockDTO(VALID_WAREHOUSE_ID, 10));
+
+        mockMvc.perform(patch(WAREHOUSE_API_URL_PATH + "/" + VALID_WAREHOUSE_ID + "/increment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(QuantityDTO.builder().quantity(10).build())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.beerId", is(VALID_BEER_ID.intValue())))
+                .andExpect(jsonPath("$.quantity", is(10)));
+    }
+
+    @Test
+    void whenPATCHIsCalledWithNegativeQuantityThenRespondWithBadRequestStatus() throws Exception {
+        mockMvc.perform(patch(WAREHOUSE_API_URL_PATH + "/" + VALID_WAREHOUSE_ID + "/increment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(QuantityDTO.builder().quantity(-5).build())))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch(WAREHOUSE_API_URL_PATH + "/" + VALID_WAREHOUSE_ID + "/decrement")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(QuantityDTO.builder().quantity(-5).build())))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(warehouseStockService);
+    }
+
+    @Test
+    void whenPATCHIsCalledToIncrementAboveLocationCapacityThenRespondWithBadRequestStatus() throws Exception {
+        when(warehouseStockService.increment(VALID_BEER_ID, VALID_WAREHOUSE_ID, 200)).thenThrow(BeerStockExceededException.class);
+
+        mockMvc.perform(patch(WAREHOUSE_API_URL_PATH + "/" + VALID_WAREHOUSE_ID + "/increment")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(QuantityDTO.builder().quantity(200).build())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenPATCHIsCalledToDecrementBelowZeroThenRespondWithBadRequestStatus() throws Exception {
+        when(warehouseStockService.decrement(VALID_BEER_ID, VALID_WAREHOUSE_ID, 5)).thenThrow(BeerNegativeStockException.class);
+
+        mockMvc.perform(patch(WAREHOUSE_API_URL_PATH + "/" + VALID_WAREHOUSE_ID + "/decrement")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(QuantityDTO.builder().quantity(5).build())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenPATCHIsCalledForUnknownLocationThenRespondWithNotFoundStatus() throws Exception {
+        when(warehouseStockService.decrement(VALID_BEER_ID, INVALID_WAREHOUSE_ID, 5)).thenThrow(WarehouseStockNotFoundException.class);
+
+        mockMvc.perform(patch(WAREHOUSE_API_URL_PATH + "/" + INVALID_WAREHOUSE_ID + "/decrement")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(asJsonString(QuantityDTO.builder().quantity(5).build())))
+                .andExpect(status().isNotFound());
+    }
+
+    private static WarehouseStockDTO warehouseStockDTO(Long warehouseId, int quantity) {
+        return WarehouseStockDTO.builder()
+                .beerId(VALID_BEER_ID)
+                .warehouseId(warehouseId)
+                .max(100)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private MeterRegistry meterRegistry;
+
+    private ConcurrencyLimitProperties properties;
+
+    private long clock;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(12);
+        properties.setLatencyThreshold(Duration.ofMillis(500));
+        properties.setBackoffRatio(0.5);
+        clock = System.nanoTime();
+    }
+
+    @Test
+    void whenLimitIsReachedThenFurtherRequestsShouldBeRejectedUntilOneEnds() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+        for (int request = 0; request < 10; request++) {
+            assertThat(limiter.tryAcquire(), is(true));
+        }
+
+        assertThat(limiter.tryAcquire(), is(false));
+        release(limiter, FAST);
+        assertThat(limiter.tryAcquire(), is(true));
+        assertThat(meterRegistry.get("beerstock.limiter.requests").tags("limiter", "concurrency", "outcome", "rejected").counter().count(), is(1.0));
+        assertThat(meterRegistry.get("beerstock.limiter.in.flight").gauge().value(), is(10.0));
+    }
+
+    @Test
+    void whenRequestsGetSlowThenTheLimitShouldBeCutButNotBelowTheMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+
+        limiter.tryAcquire();
+        release(limiter, SLOW);
+        assertThat(limiter.getLimit(), is(5));
+
+        for (int request = 0; request < 5; request++) {
+            limiter.tryAcquire();
+            release(limiter, SLOW);
+        }
+        assertThat(limiter.getLimit(), is(2));
+        assertThat(meterRegistry.get("beerstock.limiter.concurrency").gauge().value(), is(2.0));
+    }
+
+    @Test
+    void whenBusyRequestsAreFastThenTheLimitShouldGrowUpToTheMaximum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+        for (int request = 0; request < 10; request++) {
+            limiter.tryAcquire();
+        }
+
+        for (int round = 0; round < 10; round++) {
+            release(limiter, FAST);
+            limiter.tryAcquire();
+        }
+
+        assertThat(limiter.getLimit(), is(12));
+    }
+
+    @Test
+    void whenFewRequestsAreInProgressThenFastOnesShouldNotRaiseTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+
+        for (int request = 0; request < 100; request++) {
+            limiter.tryAcquire();
+            release(limiter, FAST);
+        }
+
+        assertThat(limiter.getLimit(), is(10));
+        assertThat(limiter.getInFlight(), is(0));
+    }
+
+    @Test
+    void whenSlowRequestsOfTheSameBurstEndThenTheLimitShouldOnlyBeCutOnce() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+        long burstStartedAt = clock;
+        for (int request = 0; request < 4; request++) {
+            limiter.tryAcquire();
+        }
+
+        for (int request = 0; request < 4; request++) {
+            limiter.release(burstStartedAt, burstStartedAt + SLOW + request);
+        }
+        assertThat(limiter.getLimit(), is(5));
+
+        clock = burstStartedAt + SLOW + 4;
+        limiter.tryAcquire();
+        release(limiter, SLOW);
+        assertThat(limiter.getLimit(), is(2));
+    }
+
+    @Test
+    void whenRequestIsReleasedWithoutSampleThenTheLimitShouldNotMove() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties, meterRegistry);
+        for (int request = 0; request < 10; request++) {
+            limiter.tryAcquire();
+        }
+
+        limiter.release();
+
+        assertThat(limiter.getLimit(), is(10));
+        assertThat(limiter.getInFlight(), is(9));
+    }
+
+    private void release(AdaptiveConcurrencyLimiter limiter, long latencyNanos) {
+        long startedAt = clock;
+        clock += latencyNanos;
+        limiter.release(startedAt, clock);
+    }
+}
@@ -0,0 +1,117 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class BeerCacheTest {
+
+    private static final Long VALID_BEER_ID = 1L;
+    private static final String RENAMED_BEER_NAME = "Colorado Appia";
+
+    private MeterRegistry meterRegistry;
+
+    private BeerCache beerCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        beerCache = new BeerCache(meterRegistry, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void whenBeerIsCachedThenItShouldBeFoundByIdAndByName() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        beerCache.put(beerDTO, beerCache.generation());
+
+        assertThat(beerCache.getById(VALID_BEER_ID), is(Optional.of(beerDTO)));
+        assertThat(beerCache.getByName(beerDTO.getName()), is(Optional.of(beerDTO)));
+    }
+
+    @Test
+    void whenCachedBeerIsRenamedThenTheOldNameShouldBeInvalidated() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        BeerDTO renamedBeerDTO = BeerDTOBuilder.builder().name(RENAMED_BEER_NAME).build().toBeerDTO();
+
+        beerCache.put(beerDTO, beerCache.generation());
+        beerCache.put(renamedBeerDTO, beerCache.generation());
+
+        assertThat(beerCache.getByName(beerDTO.getName()), is(Optional.empty()));
+        assertThat(beerCache.getByName(RENAMED_BEER_NAME), is(Optional.of(renamedBeerDTO)));
+    }
+
+    @Test
+    void whenBeerIsEvictedThenItShouldNotBeFoundByIdOrByName() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        beerCache.put(beerDTO, beerCache.generation());
+        beerCache.evictAfterCommit(VALID_BEER_ID, beerDTO.getName());
+
+        assertThat(beerCache.getById(VALID_BEER_ID), is(Optional.empty()));
+        assertThat(beerCache.getByName(beerDTO.getName()), is(Optional.empty()));
+    }
+
+    @Test
+    void whenCacheIsQueriedThenHitsAndMissesShouldBeRecorded() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        beerCache.put(beerDTO, beerCache.generation());
+        beerCache.getById(VALID_BEER_ID);
+        beerCache.getById(VALID_BEER_ID + 1);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "beersById").tag("result", "hit").functionCounter().count(), is(1.0));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "beersById").tag("result", "miss").functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    void whenBeerIsEvictedWhileItIsReadThenTheValueReadShouldNotBeCached() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        long readGeneration = beerCache.generation();
+
+        beerCache.evictAfterCommit(VALID_BEER_ID, beerDTO.getName());
+        beerCache.put(beerDTO, readGeneration);
+
+        assertThat(beerCache.getById(VALID_BEER_ID), is(Optional.empty()));
+        assertThat(beerCache.getByName(beerDTO.getName()), is(Optional.empty()));
+
+        beerCache.put(beerDTO, beerCache.generation());
+        assertThat(beerCache.getById(VALID_BEER_ID), is(Optional.of(beerDTO)));
+    }
+
+    @Test
+    void whenCachedOrReturnedBeerIsMutatedThenTheCacheShouldKeepItsOwnCopy() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        beerCache.put(beerDTO, beerCache.generation());
+        beerDTO.setQuantity(0);
+        beerCache.getById(VALID_BEER_ID).orElseThrow().setQuantity(1);
+
+        assertThat(beerCache.getById(VALID_BEER_ID).orElseThrow().getQuantity(), is(BeerDTOBuilder.builder().build().toBeerDTO().getQuantity()));
+        assertThat(beerCache.getByName(beerDTO.getName()).orElseThrow().getQuantity(), is(BeerDTOBuilder.builder().build().toBeerDTO().getQuantity()));
+    }
+
+    @Test
+    void whenTombstonesAreForgottenThenValuesReadBeforeThemShouldNotBeCached() {
+        BeerCache smallCache = new BeerCache(meterRegistry, 1, Duration.ofMinutes(1));
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        long readGeneration = smallCache.generation();
+
+        smallCache.evict(VALID_BEER_ID, beerDTO.getName());
+        for (long id = VALID_BEER_ID + 1; id < VALID_BEER_ID + 100; id++) {
+            smallCache.evict(id, "Beer " + id);
+        }
+        smallCache.put(beerDTO, readGeneration);
+
+        assertThat(smallCache.getById(VALID_BEER_ID), is(Optional.empty()));
+    }
+}
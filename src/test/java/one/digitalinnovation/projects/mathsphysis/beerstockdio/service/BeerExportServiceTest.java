@@ -0,0 +1,63 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class BeerExportServiceTest {
+
+    @Autowired
+    private BeerExportService beerExportService;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from beer");
+    }
+
+    @Test
+    void whenCatalogueIsExportedThenEachBeerShouldBeWrittenAsOneJsonLine() throws Exception {
+        BeerDTO firstBeerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        BeerDTO secondBeerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).name("Colorado Appia").build().toBeerDTO());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exportedBeers = beerExportService.exportTo(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exportedBeers, is(2L));
+        assertThat(lines.length, is(2));
+        assertThat(objectMapper.readValue(lines[0], BeerDTO.class), is(firstBeerDTO));
+        assertThat(objectMapper.readValue(lines[1], BeerDTO.class), is(secondBeerDTO));
+    }
+
+    @Test
+    void whenCatalogueIsEmptyThenNothingShouldBeWritten() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long exportedBeers = beerExportService.exportTo(outputStream);
+
+        assertThat(exportedBeers, is(0L));
+        assertThat(outputStream.size(), is(0));
+    }
+}
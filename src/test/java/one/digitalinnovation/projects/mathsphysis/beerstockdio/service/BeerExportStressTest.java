@@ -0,0 +1,75 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Exports a million beers with the heap capped at 128 MB by the stress profile ({@code mvn test -P stress}).
+ * The catalogue lives in a file-backed H2 database so that only the export itself competes for the heap:
+ * materializing every entity and DTO does not fit, streaming them does.
+ */
+@Tag("stress")
+@SpringBootTest(classes = BeerstockApplication.class, properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/export-stress;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class BeerExportStressTest {
+
+    private static final int CATALOGUE_SIZE = 1_000_000;
+
+    @Autowired
+    private BeerExportService beerExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from beer");
+    }
+
+    @Test
+    void whenMillionBeersAreExportedThenEveryBeerShouldBeStreamed() throws Exception {
+        jdbcTemplate.update("insert into beer (id, name, brand, max, quantity, type, version) " +
+                "select x, concat('Beer ', x), 'Brand', 100, 10, 'LAGER', 0 from system_range(1, ?)", CATALOGUE_SIZE);
+        LineCountingOutputStream outputStream = new LineCountingOutputStream();
+
+        long exportedBeers = beerExportService.exportTo(outputStream);
+
+        assertThat(exportedBeers, is((long) CATALOGUE_SIZE));
+        assertThat(outputStream.getLines(), is((long) CATALOGUE_SIZE));
+    }
+
+    private static class LineCountingOutputStream extends OutputStream {
+
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            for (int i = off; i < off + len; i++) {
+                write(b[i]);
+            }
+        }
+
+        long getLines() {
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerImportResultDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidImportFileException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static one.digitalinnovation.projects.mathsphysis.beerstockdio.utils.JsonConvertionUtils.asJsonString;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class BeerImportServiceTest {
+
+    private static final String CSV_HEADER = "name,brand,max,quantity,type\n";
+
+    @Autowired
+    private BeerImportService beerImportService;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenCsvIsImportedThenValidRowsShouldBeInsertedAndDuplicatesRejected() throws Exception {
+        BeerDTO registeredBeerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        String csv = CSV_HEADER
+                + "Colorado Appia,Cervejaria Colorado,50,10,ale\n"
+                + registeredBeerDTO.getName() + ",Cervejaria Colorado,50,10,IPA\n"
+                + "Colorado Appia,Cervejaria Colorado,50,10,ALE\n"
+                + "Colorado Vixnu,,50,10,IPA\n"
+                + "Colorado Ithaca,Cervejaria Colorado,fifty,10,STOUT\n";
+
+        BeerImportResultDTO result = beerImportService.importCsv(asInputStream(csv));
+
+        assertThat(result.getImported(), is(1L));
+        assertThat(result.getRejected(), is(4L));
+        assertThat(result.getRejects().get(0).getLine(), is(3L));
+        assertThat(result.getRejects().get(0).getReason(), is(new BeerAlreadyRegisteredException(registeredBeerDTO.getName()).getMessage()));
+        assertThat(result.getRejects().get(1).getLine(), is(4L));
+        assertThat(result.getRejects().get(1).getReason(), is(new BeerAlreadyRegisteredException("Colorado Appia").getMessage()));
+        assertThat(result.getRejects().get(2).getLine(), is(5L));
+        assertThat(result.getRejects().get(2).getReason(), containsString("brand"));
+        assertThat(result.getRejects().get(3).getLine(), is(6L));
+        assertThat(result.getRejects().get(3).getReason(), is("Malformed row: max must be a whole number"));
+        assertThat(beerRepository.findByName("Colorado Appia").orElseThrow().getMax(), is(50));
+    }
+
+    @Test
+    void whenCsvHeaderIsMissingColumnsThenItShouldThrowAnException() {
+        assertThrows(InvalidImportFileException.class, () -> beerImportService.importCsv(asInputStream("name,brand\n")));
+    }
+
+    @Test
+    void whenCsvHeaderNamesAColumnTwiceThenItShouldThrowAnException() {
+        assertThrows(InvalidImportFileException.class, () -> beerImportService.importCsv(asInputStream(
+                "name,brand,max,quantity,type,Quantity\nColorado Appia,Cervejaria Colorado,50,10,ALE,20\n")));
+        assertThat(beerRepository.count(), is(0L));
+    }
+
+    @Test
+    void whenNdjsonLineIsNullThenItShouldBeRejectedWithItsLineNumber() throws Exception {
+        String ndjson = asJsonString(BeerDTOBuilder.builder().id(null).build().toBeerDTO()) + "\nnull\n";
+
+        BeerImportResultDTO result = beerImportService.importNdjson(asInputStream(ndjson));
+
+        assertThat(result.getImported(), is(1L));
+        assertThat(result.getRejected(), is(1L));
+        assertThat(result.getRejects().get(0).getLine(), is(2L));
+        assertThat(result.getRejects().get(0).getReason(), containsString("null"));
+    }
+
+    @Test
+    void whenNdjsonLineIsNotABeerThenItShouldBeRejectedWithoutTheParserDetails() throws Exception {
+        String ndjson = "{\"name\":\"Colorado Appia\",\"type\":\"PILSEN\"}\n{\"name\":\n";
+
+        BeerImportResultDTO result = beerImportService.importNdjson(asInputStream(ndjson));
+
+        assertThat(result.getRejected(), is(2L));
+        assertThat(result.getRejects().get(0).getReason(), is("Malformed row: expected a beer as a JSON object"));
+        assertThat(result.getRejects().get(1).getReason(), is("Malformed row: expected a beer as a JSON object"));
+    }
+
+    @Test
+    void whenNdjsonSpanningSeveralChunksIsImportedThenEveryBeerShouldBeInserted() throws Exception {
+        int beers = 1_234;
+        String ndjson = IntStream.rangeClosed(1, beers)
+                .mapToObj(index -> asJsonString(BeerDTOBuilder.builder().id(null).name("Beer " + index).build().toBeerDTO()))
+                .collect(Collectors.joining("\n"));
+
+        BeerImportResultDTO result = beerImportService.importNdjson(asInputStream(ndjson + "\n{not json}\n"));
+
+        assertThat(result.getImported(), is((long) beers));
+        assertThat(result.getRejected(), is(1L));
+        assertThat(result.getRejects().get(0).getLine(), is((long) beers + 1));
+        assertThat(beerRepository.count(), is((long) beers));
+    }
+
+    private static InputStream asInputStream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,93 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerSearchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class BeerSearchIntegrationTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenSearchingByTypeAndFillRatioThenOnlyMatchingBeersShouldBeReturnedInSortOrder() throws Exception {
+        createBeer("Colorado Appia", "Cervejaria Colorado", BeerType.LAGER, 10, 100);
+        createBeer("Colorado Ithaca", "Cervejaria Colorado", BeerType.LAGER, 5, 50);
+        createBeer("Colorado Vixnu", "Cervejaria Colorado", BeerType.LAGER, 40, 50);
+        createBeer("Baden Baden Red", "Baden Baden", BeerType.IPA, 1, 100);
+
+        BeerSearchDTO search = BeerSearchDTO.builder().type(BeerType.LAGER).maxFillRatio(0.1).build();
+        BeerPageDTO page = beerService.search(search, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "quantity")));
+
+        assertThat(page.getTotalElements(), is(2L));
+        assertThat(page.getContent().stream().map(BeerDTO::getName).collect(Collectors.toList()),
+                contains("Colorado Appia", "Colorado Ithaca"));
+    }
+
+    @Test
+    void whenSearchingByBrandAndQuantityRangeThenOnlyMatchingBeersShouldBeReturned() throws Exception {
+        createBeer("Colorado Appia", "Cervejaria Colorado", BeerType.LAGER, 10, 100);
+        createBeer("Colorado Ithaca", "Cervejaria Colorado", BeerType.STOUT, 30, 50);
+        createBeer("Baden Baden Red", "Baden Baden", BeerType.IPA, 20, 100);
+
+        BeerSearchDTO search = BeerSearchDTO.builder().brand("Cervejaria Colorado").minQuantity(15).maxQuantity(40).build();
+        BeerPageDTO page = beerService.search(search, PageRequest.of(0, 10));
+
+        assertThat(page.getContent().stream().map(BeerDTO::getName).collect(Collectors.toList()),
+                contains("Colorado Ithaca"));
+    }
+
+    @Test
+    void whenFilteringByBrandOrTypeAndQuantityThenTheQueryPlanShouldUseTheBeerIndexes() {
+        assertThat(explain("select id from beer where brand = 'Cervejaria Colorado'"),
+                containsString("IDX_BEER_BRAND"));
+        assertThat(explain("select id from beer where type = 'LAGER' and quantity <= 10"),
+                containsString("IDX_BEER_TYPE_QUANTITY"));
+    }
+
+    private void createBeer(String name, String brand, BeerType type, int quantity, int max) throws Exception {
+        beerService.createBeer(BeerDTOBuilder.builder()
+                .id(null)
+                .name(name)
+                .brand(brand)
+                .type(type)
+                .quantity(quantity)
+                .max(max)
+                .build()
+                .toBeerDTO());
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForObject("explain " + sql, String.class);
+    }
+}
@@ -0,0 +1,138 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class BeerServiceConcurrencyTest {
+
+    private static final int THREADS = 64;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenManyThreadsIncrementTheSameBeerThenNoUpdateIsLost() throws Exception {
+        BeerDTO beerDTO = createBeer(THREADS * OPERATIONS_PER_THREAD, 0);
+
+        runConcurrently(() -> beerService.increment(beerDTO.getId(), 1), new AtomicInteger());
+
+        assertThat(beerService.findById(beerDTO.getId()).getQuantity(), is(THREADS * OPERATIONS_PER_THREAD));
+    }
+
+    @Test
+    void whenManyThreadsIncrementAndDecrementTheSameBeerThenStockIsBalanced() throws Exception {
+        BeerDTO beerDTO = createBeer(THREADS * OPERATIONS_PER_THREAD, THREADS * OPERATIONS_PER_THREAD / 2);
+
+        AtomicInteger turn = new AtomicInteger();
+        runConcurrently(() -> {
+            if (turn.getAndIncrement() % 2 == 0) {
+                beerService.increment(beerDTO.getId(), 1);
+            } else {
+                beerService.decrement(beerDTO.getId(), 1);
+            }
+            return null;
+        }, new AtomicInteger());
+
+        assertThat(beerService.findById(beerDTO.getId()).getQuantity(), is(THREADS * OPERATIONS_PER_THREAD / 2));
+    }
+
+    @Test
+    void whenConcurrentIncrementsExceedMaxThenOnlyTheAmountLeftIsAccepted() throws Exception {
+        int max = THREADS * OPERATIONS_PER_THREAD / 4;
+        BeerDTO beerDTO = createBeer(max, 0);
+
+        AtomicInteger rejections = new AtomicInteger();
+        runConcurrently(() -> beerService.increment(beerDTO.getId(), 1), rejections);
+
+        assertThat(beerService.findById(beerDTO.getId()).getQuantity(), is(max));
+        assertThat(rejections.get(), is(THREADS * OPERATIONS_PER_THREAD - max));
+    }
+
+    @Test
+    void whenConcurrentDecrementsExceedStockThenQuantityNeverGoesNegative() throws Exception {
+        int quantity = THREADS * OPERATIONS_PER_THREAD / 4;
+        BeerDTO beerDTO = createBeer(THREADS * OPERATIONS_PER_THREAD, quantity);
+
+        AtomicInteger rejections = new AtomicInteger();
+        runConcurrently(() -> beerService.decrement(beerDTO.getId(), 1), rejections);
+
+        assertThat(beerService.findById(beerDTO.getId()).getQuantity(), is(0));
+        assertThat(rejections.get(), is(THREADS * OPERATIONS_PER_THREAD - quantity));
+    }
+
+    @Test
+    void whenIncrementWouldOverflowTheQuantityThenItShouldBeRejectedAsExceedingMax() throws Exception {
+        BeerDTO beerDTO = createBeer(100, 10);
+
+        assertThrows(BeerStockExceededException.class, () -> beerService.increment(beerDTO.getId(), Integer.MAX_VALUE));
+
+        assertThat(beerService.findById(beerDTO.getId()).getQuantity(), is(10));
+    }
+
+    private BeerDTO createBeer(int max, int quantity) throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder()
+                .id(null)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+
+        return beerService.createBeer(beerDTO);
+    }
+
+    private void runConcurrently(Callable<?> operation, AtomicInteger rejections) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int operationCount = 0; operationCount < OPERATIONS_PER_THREAD; operationCount++) {
+                        try {
+                            operation.call();
+                        } catch (BeerStockExceededException | BeerNegativeStockException e) {
+                            rejections.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
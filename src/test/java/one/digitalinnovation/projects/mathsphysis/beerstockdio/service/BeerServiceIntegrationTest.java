@@ -0,0 +1,130 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementBatchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockMovementBatchResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BatchMode;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.MovementStatus;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerVersionMismatchException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class BeerServiceIntegrationTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenAllOrNothingBatchHasAnInvalidMovementThenNoMovementShouldBePersisted() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .mode(BatchMode.ALL_OR_NOTHING)
+                .movements(Arrays.asList(
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(5).build(),
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(-20).build()))
+                .build();
+
+        StockMovementBatchResponseDTO response = beerService.applyMovements(movementBatchDTO);
+
+        assertThat(response.isCommitted(), is(false));
+        assertThat(response.getResults().get(0).getStatus(), is(MovementStatus.ROLLED_BACK));
+        assertThat(response.getResults().get(0).getQuantity(), is(nullValue()));
+        assertThat(response.getResults().get(1).getStatus(), is(MovementStatus.REJECTED));
+        assertThat(beerService.findById(beerDTO.getId()).getQuantity(), is(beerDTO.getQuantity()));
+    }
+
+    @Test
+    void whenBeerIsUpdatedWithVersionReadBeforeAnIncrementThenUpdateShouldBeRejected() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        BeerDTO readBeerDTO = beerService.findById(beerDTO.getId());
+        beerService.increment(beerDTO.getId(), 5);
+        BeerDTO staleUpdateDTO = BeerDTOBuilder.builder().id(beerDTO.getId()).brand("Ambev").version(readBeerDTO.getVersion()).build().toBeerDTO();
+
+        assertThrows(BeerVersionMismatchException.class, () -> beerService.updateById(beerDTO.getId(), staleUpdateDTO));
+        assertThat(beerService.findById(beerDTO.getId()).getQuantity(), is(beerDTO.getQuantity() + 5));
+
+        BeerDTO currentBeerDTO = beerService.findById(beerDTO.getId());
+        BeerDTO freshUpdateDTO = BeerDTOBuilder.builder().id(beerDTO.getId()).brand("Ambev").quantity(currentBeerDTO.getQuantity()).build().toBeerDTO();
+        beerService.updateById(beerDTO.getId(), freshUpdateDTO, currentBeerDTO.getVersion());
+
+        BeerDTO updatedBeerDTO = beerService.findById(beerDTO.getId());
+        assertThat(updatedBeerDTO.getBrand(), is("Ambev"));
+        assertThat(updatedBeerDTO.getVersion(), is(currentBeerDTO.getVersion() + 1));
+    }
+
+    @Test
+    void whenStockCrossesTheLowStockThresholdThenLowStockListingShouldFollowIt() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(20).build().toBeerDTO());
+
+        beerService.decrement(beerDTO.getId(), 15);
+        assertThat(lowStockBeerIds(), hasItem(beerDTO.getId()));
+
+        beerService.increment(beerDTO.getId(), 30);
+        assertThat(lowStockBeerIds(), not(hasItem(beerDTO.getId())));
+    }
+
+    @Test
+    void whenAllOrNothingBatchIsRolledBackThenLowStockListingShouldNotChange() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(20).build().toBeerDTO());
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .mode(BatchMode.ALL_OR_NOTHING)
+                .movements(Arrays.asList(
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(-15).build(),
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(-20).build()))
+                .build();
+
+        beerService.applyMovements(movementBatchDTO);
+
+        assertThat(lowStockBeerIds(), not(hasItem(beerDTO.getId())));
+    }
+
+    @Test
+    void whenPartialBatchHasAnInvalidMovementThenValidMovementsShouldBePersisted() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO());
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .mode(BatchMode.PARTIAL)
+                .movements(Arrays.asList(
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(5).build(),
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(-20).build()))
+                .build();
+
+        StockMovementBatchResponseDTO response = beerService.applyMovements(movementBatchDTO);
+
+        assertThat(response.isCommitted(), is(true));
+        assertThat(response.getResults().get(0).getStatus(), is(MovementStatus.APPLIED));
+        assertThat(response.getResults().get(1).getStatus(), is(MovementStatus.REJECTED));
+        assertThat(beerService.findById(beerDTO.getId()).getQuantity(), is(beerDTO.getQuantity() + 5));
+    }
+
+    private List<Long> lowStockBeerIds() {
+        return beerService.listLowStock().stream()
+                .map(BeerDTO::getId)
+                .collect(Collectors.toList());
+    }
+}
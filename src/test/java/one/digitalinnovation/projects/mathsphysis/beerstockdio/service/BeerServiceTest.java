@@ -1,25 +1,49 @@
 package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
 
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ListingProperties;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerSearchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementBatchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerCursorPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerPageDTO;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.MessageResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockMovementBatchResponseDTO;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BatchMode;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.MovementStatus;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerAlreadyRegisteredException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerVersionMismatchException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidCursorException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidSortException;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
 import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.WarehouseStockRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.internal.matchers.GreaterOrEqual;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.*;
 
@@ -37,6 +61,36 @@ public class BeerServiceTest {
     @Mock
     private BeerRepository beerRepository;
 
+    @Mock
+    private StockEngine stockEngine;
+
+    @Mock
+    private BeerCache beerCache;
+
+    @Mock
+    private StockMetrics stockMetrics;
+
+    @Mock
+    private LowStockMonitor lowStockMonitor;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private StockEventOutbox stockEventOutbox;
+
+    @Mock
+    private StockStream stockStream;
+
+    @Mock
+    private WarehouseStockRepository warehouseStockRepository;
+
+    @Spy
+    private BeerLookupFlights beerLookupFlights = new BeerLookupFlights(new SimpleMeterRegistry(), true);
+
+    @Spy
+    private ListingProperties listingProperties = new ListingProperties();
+
     private BeerMapper beerMapper = BeerMapper.INSTANCE;
 
     @InjectMocks
@@ -77,6 +131,47 @@ public class BeerServiceTest {
         assertThat(returnedBeerDTO, is(expectedFoundBeerDTO));
     }
 
+    @Test
+    void whenBeerIsLoadedIntoTheCacheThenItShouldBePutWithTheGenerationTakenBeforeTheQuery() throws BeerNotFoundException {
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedFoundBeer = beerMapper.toModel(expectedFoundBeerDTO);
+
+        when(beerCache.getById(VALID_BEER_ID)).thenReturn(Optional.empty());
+        when(beerCache.generation()).thenReturn(7L);
+        when(beerRepository.findById(VALID_BEER_ID)).thenReturn(Optional.of(expectedFoundBeer));
+
+        beerService.findById(VALID_BEER_ID);
+
+        InOrder inOrder = inOrder(beerCache, beerRepository);
+        inOrder.verify(beerCache).generation();
+        inOrder.verify(beerRepository).findById(VALID_BEER_ID);
+        inOrder.verify(beerCache).put(expectedFoundBeerDTO, 7L);
+    }
+
+    @Test
+    void whenInformedBeerNameIsCachedThenItShouldNotQueryTheRepository() throws BeerNotFoundException {
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerCache.getByName(expectedFoundBeerDTO.getName())).thenReturn(Optional.of(expectedFoundBeerDTO));
+
+        BeerDTO returnedBeerDTO = beerService.findByName(expectedFoundBeerDTO.getName());
+
+        assertThat(returnedBeerDTO, is(expectedFoundBeerDTO));
+        verifyNoInteractions(beerRepository);
+    }
+
+    @Test
+    void whenInformedBeerIdIsCachedThenItShouldNotQueryTheRepository() throws BeerNotFoundException {
+        BeerDTO expectedFoundBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+
+        when(beerCache.getById(VALID_BEER_ID)).thenReturn(Optional.of(expectedFoundBeerDTO));
+
+        BeerDTO returnedBeerDTO = beerService.findById(VALID_BEER_ID);
+
+        assertThat(returnedBeerDTO, is(expectedFoundBeerDTO));
+        verifyNoInteractions(beerRepository);
+    }
+
     @Test
     void whenInformedNotExistingBeerNameThenItShouldThrowAnException() {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -107,19 +202,31 @@ public class BeerServiceTest {
     }
 
     @Test
-    void whenBeerAndIdInformedThenReturnUpdateMessage() throws BeerNotFoundException {
+    void whenBeerAndIdInformedThenReturnUpdateMessage() throws BeerNotFoundException, BeerVersionMismatchException, BeerNegativeStockException {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
         MessageResponseDTO expectedMessage = MessageResponseDTO.builder().message(UPDATE_MESSAGE + expectedBeer.getId()).build();
 
         when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
+        when(beerRepository.saveAndFlush(expectedBeer)).thenReturn(expectedBeer);
 
         MessageResponseDTO createdMessage = beerService.updateById(expectedBeerDTO.getId(), expectedBeerDTO);
 
         assertThat(createdMessage, is(expectedMessage));
     }
 
+    @Test
+    void whenBeerChangedSinceExpectedVersionThenUpdateShouldBeRejected() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer storedBeer = beerMapper.toModel(expectedBeerDTO);
+        storedBeer.setVersion(2L);
+
+        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(storedBeer));
+
+        assertThrows(BeerVersionMismatchException.class, () -> beerService.updateById(expectedBeerDTO.getId(), expectedBeerDTO, 1L));
+        verify(beerRepository, never()).saveAndFlush(Mockito.any(Beer.class));
+    }
+
     @Test
     void whenBeerAndNotExistingIdInformedThenItShouldThrowAnException() {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -135,7 +242,7 @@ public class BeerServiceTest {
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
         List<BeerDTO> expectedBeerDTOList = Collections.singletonList(expectedBeerDTO);
 
-        when(beerRepository.findAll()).thenReturn(Collections.singletonList(expectedBeer));
+        when(beerRepository.findAllByOrderByIdAsc(PageRequest.of(0, listingProperties.getMaxResults()))).thenReturn(Collections.singletonList(expectedBeer));
 
         List<BeerDTO> returnedBeerDTOList = beerService.listAll();
 
@@ -145,13 +252,60 @@ public class BeerServiceTest {
     @Test
     void whenListAllIsCalledThenReturnAnEmptyList() {
 
-        when(beerRepository.findAll()).thenReturn(Collections.EMPTY_LIST);
+        when(beerRepository.findAllByOrderByIdAsc(PageRequest.of(0, listingProperties.getMaxResults()))).thenReturn(Collections.EMPTY_LIST);
 
         List<BeerDTO> returnedBeerDTOList = beerService.listAll();
 
         assertThat(returnedBeerDTOList, is(empty()));
     }
 
+    @Test
+    void whenListAfterIsCalledWithMoreBeersThanLimitThenReturnNextCursor() throws InvalidCursorException {
+        Beer firstBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(1L).build().toBeerDTO());
+        Beer secondBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(2L).name("Colorado Appia").build().toBeerDTO());
+
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2))).thenReturn(Arrays.asList(firstBeer, secondBeer));
+
+        BeerCursorPageDTO firstPage = beerService.listAfter(null, 1);
+
+        assertThat(firstPage.getContent(), is(Collections.singletonList(beerMapper.toDTO(firstBeer))));
+        assertThat(firstPage.getNextCursor(), is(notNullValue()));
+
+        when(beerRepository.findByIdGreaterThanOrderByIdAsc(1L, PageRequest.of(0, 2))).thenReturn(Collections.singletonList(secondBeer));
+
+        BeerCursorPageDTO secondPage = beerService.listAfter(firstPage.getNextCursor(), 1);
+
+        assertThat(secondPage.getContent(), is(Collections.singletonList(beerMapper.toDTO(secondBeer))));
+        assertThat(secondPage.getNextCursor(), is(nullValue()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenSearchIsCalledThenReturnMatchingBeersSortedByIdAsTieBreaker() throws InvalidSortException {
+        Beer expectedBeer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+        Pageable expectedPageable = PageRequest.of(0, 10, Sort.by("quantity").and(Sort.by("id")));
+        BeerSearchDTO search = BeerSearchDTO.builder().type(BeerType.LAGER).maxFillRatio(0.2).build();
+
+        when(beerRepository.findAll(Mockito.any(Specification.class), Mockito.eq(expectedPageable)))
+                .thenReturn(new PageImpl<>(Collections.singletonList(expectedBeer), expectedPageable, 1));
+
+        BeerPageDTO returnedPage = beerService.search(search, PageRequest.of(0, 10, Sort.by("quantity")));
+
+        assertThat(returnedPage.getContent(), is(Collections.singletonList(beerMapper.toDTO(expectedBeer))));
+        assertThat(returnedPage.getTotalElements(), is(1L));
+    }
+
+    @Test
+    void whenPageIsSortedByAnUnknownPropertyThenItShouldThrowAnException() {
+        assertThrows(InvalidSortException.class, () -> beerService.listPage(PageRequest.of(0, 10, Sort.by("allocated"))));
+        assertThrows(InvalidSortException.class, () -> beerService.listPage(PageRequest.of(0, 10, Sort.by("brewery.name"))));
+    }
+
+    @Test
+    void whenListAfterIsCalledWithInvalidCursorThenItShouldThrowAnException() {
+        assertThrows(InvalidCursorException.class, () -> beerService.listAfter("not a cursor", 10));
+    }
+
     @Test
     void whenBeerValidIdIsInformedThenTheBeerShouldBeDeleted() throws BeerNotFoundException {
         BeerDTO expectedDeletedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
@@ -165,6 +319,8 @@ public class BeerServiceTest {
 
         verify(beerRepository, times(1)).findById(VALID_BEER_ID);
         verify(beerRepository, times(1)).deleteById(VALID_BEER_ID);
+        verify(warehouseStockRepository, times(1)).deleteByBeerId(VALID_BEER_ID);
+        verify(stockEventOutbox, times(1)).append(StockEventType.DELETED, expectedDeletedBeer);
     }
 
     @Test
@@ -181,11 +337,13 @@ public class BeerServiceTest {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
-
         Integer quantityToIncrement = 10;
         Integer expectedQuantityAfterIncrement = expectedBeerDTO.getQuantity() + quantityToIncrement;
+        expectedBeer.setQuantity(expectedQuantityAfterIncrement);
+
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(1);
+        when(beerRepository.findStoredById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
         BeerDTO incrementedBeerDTO = beerService.increment(expectedBeerDTO.getId(), quantityToIncrement);
 
         assertThat(expectedQuantityAfterIncrement, is(incrementedBeerDTO.getQuantity()));
@@ -201,6 +359,8 @@ public class BeerServiceTest {
 
         Integer quantityToIncrement = 41;
 
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(0);
+
         assertThrows(BeerStockExceededException.class, () -> beerService.increment(expectedBeerDTO.getId(), quantityToIncrement));
     }
 
@@ -213,6 +373,8 @@ public class BeerServiceTest {
 
         Integer quantityToIncrement = 51;
 
+        when(beerRepository.incrementQuantity(expectedBeerDTO.getId(), quantityToIncrement)).thenReturn(0);
+
         assertThrows(BeerStockExceededException.class, () -> beerService.increment(expectedBeerDTO.getId(), quantityToIncrement));
     }
 
@@ -231,11 +393,13 @@ public class BeerServiceTest {
         BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
         Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
 
-        when(beerRepository.findById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
-        when(beerRepository.save(expectedBeer)).thenReturn(expectedBeer);
-
         Integer quantityToDecrement = 6;
         Integer expectedQuantityAfterDecrement = expectedBeerDTO.getQuantity() - quantityToDecrement;
+        expectedBeer.setQuantity(expectedQuantityAfterDecrement);
+
+        when(beerRepository.decrementQuantity(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(1);
+        when(beerRepository.findStoredById(expectedBeerDTO.getId())).thenReturn(Optional.of(expectedBeer));
+
         BeerDTO decrementedBeerDTO = beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement);
 
         assertThat(expectedQuantityAfterDecrement, is(decrementedBeerDTO.getQuantity()));
@@ -251,6 +415,8 @@ public class BeerServiceTest {
 
         Integer quantityToDecrement = 41;
 
+        when(beerRepository.decrementQuantity(expectedBeerDTO.getId(), quantityToDecrement)).thenReturn(0);
+
         assertThrows(BeerNegativeStockException.class, () -> beerService.decrement(expectedBeerDTO.getId(), quantityToDecrement));
     }
 
@@ -263,4 +429,91 @@ public class BeerServiceTest {
 
         assertThrows(BeerNotFoundException.class, () -> beerService.decrement(INVALID_BEER_ID, quantityToDecrement));
     }
+
+    @Test
+    void whenValidStockMovementsAreInformedThenAllOfThemShouldBeApplied() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .movements(Arrays.asList(
+                        StockMovementDTO.builder().id(VALID_BEER_ID).delta(5).build(),
+                        StockMovementDTO.builder().id(VALID_BEER_ID).delta(-8).build()))
+                .build();
+
+        when(beerRepository.findAllByIdInOrderByIdAsc(Collections.singletonList(VALID_BEER_ID))).thenReturn(Collections.singletonList(expectedBeer));
+
+        StockMovementBatchResponseDTO response = beerService.applyMovements(movementBatchDTO);
+
+        assertThat(response.isCommitted(), is(true));
+        assertThat(response.getResults().get(0).getStatus(), is(MovementStatus.APPLIED));
+        assertThat(response.getResults().get(0).getQuantity(), is(15));
+        assertThat(response.getResults().get(1).getStatus(), is(MovementStatus.APPLIED));
+        assertThat(response.getResults().get(1).getQuantity(), is(7));
+        assertThat(expectedBeer.getQuantity(), is(7));
+    }
+
+    @Test
+    void whenPartialBatchHasInvalidMovementsThenOnlyValidOnesShouldBeApplied() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .mode(BatchMode.PARTIAL)
+                .movements(Arrays.asList(
+                        StockMovementDTO.builder().id(VALID_BEER_ID).delta(11).build(),
+                        StockMovementDTO.builder().id(VALID_BEER_ID).delta(-11).build(),
+                        StockMovementDTO.builder().id(INVALID_BEER_ID).delta(1).build(),
+                        StockMovementDTO.builder().id(VALID_BEER_ID).delta(4).build()))
+                .build();
+
+        when(beerRepository.findAllByIdInOrderByIdAsc(Arrays.asList(VALID_BEER_ID, INVALID_BEER_ID))).thenReturn(Collections.singletonList(expectedBeer));
+
+        StockMovementBatchResponseDTO response = beerService.applyMovements(movementBatchDTO);
+
+        assertThat(response.isCommitted(), is(true));
+        assertThat(response.getResults().get(0).getStatus(), is(MovementStatus.REJECTED));
+        assertThat(response.getResults().get(1).getStatus(), is(MovementStatus.REJECTED));
+        assertThat(response.getResults().get(2).getStatus(), is(MovementStatus.REJECTED));
+        assertThat(response.getResults().get(3).getStatus(), is(MovementStatus.APPLIED));
+        assertThat(expectedBeer.getQuantity(), is(14));
+    }
+
+    @Test
+    void whenStockMovementWouldOverflowTheQuantityThenItShouldBeRejectedAsExceedingMax() {
+        BeerDTO expectedBeerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        Beer expectedBeer = beerMapper.toModel(expectedBeerDTO);
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .mode(BatchMode.PARTIAL)
+                .movements(Collections.singletonList(StockMovementDTO.builder().id(VALID_BEER_ID).delta(Integer.MAX_VALUE).build()))
+                .build();
+
+        when(beerRepository.findAllByIdInOrderByIdAsc(Collections.singletonList(VALID_BEER_ID))).thenReturn(Collections.singletonList(expectedBeer));
+
+        StockMovementBatchResponseDTO response = beerService.applyMovements(movementBatchDTO);
+
+        assertThat(response.getResults().get(0).getStatus(), is(MovementStatus.REJECTED));
+        assertThat(response.getResults().get(0).getMessage(), containsString("exceeded max stock"));
+        assertThat(expectedBeer.getQuantity(), is(expectedBeerDTO.getQuantity()));
+    }
+
+    @Test
+    void whenPartialBatchIsAppliedThenOnlyTheMovedBeersShouldBeReported() {
+        Beer movedBeer = beerMapper.toModel(BeerDTOBuilder.builder().build().toBeerDTO());
+        Beer rejectedBeer = beerMapper.toModel(BeerDTOBuilder.builder().id(INVALID_BEER_ID).name("Colorado Appia").build().toBeerDTO());
+        StockMovementBatchDTO movementBatchDTO = StockMovementBatchDTO.builder()
+                .mode(BatchMode.PARTIAL)
+                .movements(Arrays.asList(
+                        StockMovementDTO.builder().id(VALID_BEER_ID).delta(4).build(),
+                        StockMovementDTO.builder().id(INVALID_BEER_ID).delta(100).build()))
+                .build();
+
+        when(beerRepository.findAllByIdInOrderByIdAsc(Arrays.asList(VALID_BEER_ID, INVALID_BEER_ID))).thenReturn(Arrays.asList(movedBeer, rejectedBeer));
+
+        beerService.applyMovements(movementBatchDTO);
+
+        ArgumentCaptor<Collection<Beer>> reportedBeers = ArgumentCaptor.forClass(Collection.class);
+        verify(stockStream).onStockChanged(reportedBeers.capture());
+        assertThat(reportedBeers.getValue(), contains(movedBeer));
+        verify(lowStockMonitor).onStockChanged(reportedBeers.capture());
+        assertThat(reportedBeers.getValue(), contains(movedBeer));
+    }
 }
@@ -0,0 +1,98 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerView;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerViewCursorPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.BeerViewPageDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidSortException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class BeerViewServiceTest {
+
+    @Autowired
+    private BeerViewService beerViewService;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        int[] quantities = {7, 3, 5};
+        for (int beer = 0; beer < quantities.length; beer++) {
+            beerService.createBeer(BeerDTOBuilder.builder()
+                    .id(null)
+                    .name("Beer " + beer)
+                    .quantity(quantities[beer])
+                    .type(BeerType.values()[beer])
+                    .build()
+                    .toBeerDTO());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenViewsAreListedThenTheyShouldMatchTheEntityListing() {
+        List<BeerDTO> beerDTOs = beerService.listAll();
+
+        List<BeerView> beerViews = beerViewService.listAll();
+
+        assertThat(beerViews, is(beerDTOs.stream()
+                .map(beerDTO -> new BeerView(beerDTO.getId(), beerDTO.getName(), beerDTO.getBrand(), beerDTO.getMax(),
+                        beerDTO.getQuantity(), beerDTO.getType(), beerDTO.getVersion()))
+                .collect(Collectors.toList())));
+    }
+
+    @Test
+    void whenViewsArePagedBySortThenTheOrderAndTotalsShouldFollowIt() throws InvalidSortException {
+        BeerViewPageDTO beerViewPage = beerViewService.listPage(PageRequest.of(0, 2, Sort.by("quantity")));
+
+        assertThat(beerViewPage.getContent().stream().map(BeerView::quantity).collect(Collectors.toList()), contains(3, 5));
+        assertThat(beerViewPage.getTotalElements(), is(3L));
+        assertThat(beerViewPage.getTotalPages(), is(2));
+    }
+
+    @Test
+    void whenViewsArePagedByCursorThenEveryBeerShouldBeListedOnce() throws Exception {
+        List<String> names = new ArrayList<>();
+        String cursor = null;
+        do {
+            BeerViewCursorPageDTO beerViewPage = beerViewService.listAfter(cursor, 2);
+            beerViewPage.getContent().forEach(beerView -> names.add(beerView.name()));
+            cursor = beerViewPage.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(names, contains("Beer 0", "Beer 1", "Beer 2"));
+
+        String entityCursor = beerService.listAfter(null, 1).getNextCursor();
+        BeerViewCursorPageDTO lastPage = beerViewService.listAfter(entityCursor, 2);
+        assertThat(lastPage.getContent().stream().map(BeerView::name).collect(Collectors.toList()), contains("Beer 1", "Beer 2"));
+        assertThat(lastPage.getNextCursor(), is(nullValue()));
+    }
+}
@@ -0,0 +1,140 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.RateLimitProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.RateLimitBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ClientRateLimiterTest {
+
+    private static final int READ_BURST = 5;
+    private static final int MUTATION_BURST = 2;
+
+    private MeterRegistry meterRegistry;
+
+    private RateLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new RateLimitProperties();
+        properties.setReadsPerSecond(0.001);
+        properties.setReadBurst(READ_BURST);
+        properties.setMutationsPerSecond(0.001);
+        properties.setMutationBurst(MUTATION_BURST);
+    }
+
+    @Test
+    void whenClientSpendsItsBurstThenFurtherRequestsShouldWaitForTheNextToken() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(properties, meterRegistry);
+
+        for (int request = 0; request < READ_BURST; request++) {
+            assertThat(rateLimiter.tryAcquire("10.0.0.1", RateLimitBudget.READ), is(0L));
+        }
+        long waitNanos = rateLimiter.tryAcquire("10.0.0.1", RateLimitBudget.READ);
+
+        assertThat(waitNanos, is(greaterThan(0L)));
+        assertThat(waitNanos, is(lessThanOrEqualTo(TimeUnit.SECONDS.toNanos(1000))));
+        assertThat(counter("read", "allowed"), is((double) READ_BURST));
+        assertThat(counter("read", "rejected"), is(1.0));
+    }
+
+    @Test
+    void whenReadsAreSpentThenMutationsAndOtherClientsShouldKeepTheirOwnBudgets() {
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(properties, meterRegistry);
+        for (int request = 0; request < READ_BURST; request++) {
+            rateLimiter.tryAcquire("10.0.0.1", RateLimitBudget.READ);
+        }
+
+        assertThat(rateLimiter.tryAcquire("10.0.0.1", RateLimitBudget.READ), is(greaterThan(0L)));
+        assertThat(rateLimiter.tryAcquire("10.0.0.1", RateLimitBudget.MUTATION), is(0L));
+        assertThat(rateLimiter.tryAcquire("10.0.0.2", RateLimitBudget.READ), is(0L));
+    }
+
+    @Test
+    void whenTokensAreRefilledThenTheClientShouldBeAllowedAgain() throws Exception {
+        properties.setMutationsPerSecond(50);
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(properties, meterRegistry);
+        for (int request = 0; request < MUTATION_BURST; request++) {
+            rateLimiter.tryAcquire("10.0.0.1", RateLimitBudget.MUTATION);
+        }
+        long waitNanos = rateLimiter.tryAcquire("10.0.0.1", RateLimitBudget.MUTATION);
+        assertThat(waitNanos, is(greaterThan(0L)));
+
+        TimeUnit.NANOSECONDS.sleep(waitNanos);
+
+        assertThat(rateLimiter.tryAcquire("10.0.0.1", RateLimitBudget.MUTATION), is(0L));
+    }
+
+    @Test
+    void whenManyThreadsShareOneBucketThenExactlyTheBurstShouldBeAllowed() throws Exception {
+        int threads = 8;
+        int attemptsPerThread = 1_000;
+        properties.setReadBurst(100);
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(properties, meterRegistry);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                        if (rateLimiter.tryAcquire("10.0.0.1", RateLimitBudget.READ) == 0) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> future : futures) {
+                allowed += future.get();
+            }
+            assertThat(allowed, is(100));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenMoreClientsThanTheMaximumAreSeenThenTheLeastRecentShouldBeForgotten() {
+        properties.setMaxClients(1_000);
+        properties.setIdleTimeout(Duration.ofMinutes(5));
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(properties, meterRegistry);
+
+        for (int client = 0; client < 100_000; client++) {
+            rateLimiter.tryAcquire("client-" + client, RateLimitBudget.READ);
+        }
+
+        assertThat(rateLimiter.trackedClients(), is(lessThanOrEqualTo(1_000L)));
+        assertThat(meterRegistry.get("beerstock.limiter.clients").gauge().value(), is(lessThanOrEqualTo(1_000.0)));
+    }
+
+    private double counter(String budget, String outcome) {
+        return meterRegistry.get("beerstock.limiter.requests")
+                .tags("limiter", "rate", "budget", budget, "outcome", outcome)
+                .counter()
+                .count();
+    }
+}
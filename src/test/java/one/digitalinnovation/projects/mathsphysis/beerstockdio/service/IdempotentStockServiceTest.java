@@ -0,0 +1,153 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.IdempotencyProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.IdempotencyRecord;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.IdempotencyKeyReusedException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.InvalidIdempotencyKeyException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class IdempotentStockServiceTest {
+
+    private static final int DUPLICATES = 16;
+
+    @Autowired
+    private IdempotentStockService idempotentStockService;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void whenIncrementIsRepeatedWithTheSameKeyThenTheFirstResponseShouldBeReturned() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        BeerDTO firstResponse = idempotentStockService.incrementOnce(idempotencyKey, beerDTO.getId(), 5);
+        BeerDTO repeatedResponse = idempotentStockService.incrementOnce(idempotencyKey, beerDTO.getId(), 5);
+
+        assertThat(repeatedResponse, is(firstResponse));
+        assertThat(beerRepository.findById(beerDTO.getId()).orElseThrow().getQuantity(), is(15));
+        assertThat(idempotencyRecordRepository.existsById(idempotencyKey), is(true));
+    }
+
+    @Test
+    void whenKeyIsReusedForADifferentMovementThenItShouldThrowAnException() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        idempotentStockService.incrementOnce(idempotencyKey, beerDTO.getId(), 5);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> idempotentStockService.decrementOnce(idempotencyKey, beerDTO.getId(), 5));
+        assertThat(beerRepository.findById(beerDTO.getId()).orElseThrow().getQuantity(), is(15));
+    }
+
+    @Test
+    void whenMovementIsRejectedThenTheKeyShouldNotBeStored() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        String idempotencyKey = UUID.randomUUID().toString();
+
+        assertThrows(BeerNegativeStockException.class, () -> idempotentStockService.decrementOnce(idempotencyKey, beerDTO.getId(), 20));
+
+        assertThat(idempotencyRecordRepository.existsById(idempotencyKey), is(false));
+    }
+
+    @Test
+    void whenKeyHasExpiredButIsNotYetPurgedThenItShouldBeAppliedAgain() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        String idempotencyKey = UUID.randomUUID().toString();
+        idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                .key(idempotencyKey)
+                .fingerprint("decrement:" + beerDTO.getId() + ":5")
+                .response("{}")
+                .createdAt(Instant.now().minus(Duration.ofDays(365)))
+                .build());
+
+        BeerDTO response = idempotentStockService.incrementOnce(idempotencyKey, beerDTO.getId(), 5);
+
+        assertThat(response.getQuantity(), is(15));
+        assertThat(idempotencyRecordRepository.findById(idempotencyKey).orElseThrow().getFingerprint(), is("increment:" + beerDTO.getId() + ":5"));
+    }
+
+    @Test
+    void whenKeyIsBlankThenItShouldThrowAnException() {
+        assertThrows(InvalidIdempotencyKeyException.class, () -> idempotentStockService.incrementOnce(" ", 1L, 5));
+    }
+
+    @Test
+    void whenDuplicatesArriveConcurrentlyThenOnlyOneShouldBeApplied() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        String idempotencyKey = UUID.randomUUID().toString();
+        ExecutorService executorService = Executors.newFixedThreadPool(DUPLICATES);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<BeerDTO>> responses = new ArrayList<>();
+
+        try {
+            for (int duplicate = 0; duplicate < DUPLICATES; duplicate++) {
+                responses.add(executorService.submit(() -> {
+                    startSignal.await();
+                    return idempotentStockService.incrementOnce(idempotencyKey, beerDTO.getId(), 5);
+                }));
+            }
+            startSignal.countDown();
+
+            for (Future<BeerDTO> response : responses) {
+                assertThat(response.get(30, TimeUnit.SECONDS).getQuantity(), is(15));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertThat(beerRepository.findById(beerDTO.getId()).orElseThrow().getQuantity(), is(15));
+    }
+
+    @Test
+    void whenMaxKeyLengthIsWiderThanTheStoredKeyThenTheServiceShouldNotStart() {
+        IdempotencyProperties idempotencyProperties = new IdempotencyProperties();
+        idempotencyProperties.setMaxKeyLength(IdempotencyRecord.MAX_KEY_LENGTH + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> new IdempotentStockService(beerService, idempotencyRecordRepository,
+                idempotencyProperties, new ObjectMapper(), new SimpleMeterRegistry(), transactionManager));
+    }
+}
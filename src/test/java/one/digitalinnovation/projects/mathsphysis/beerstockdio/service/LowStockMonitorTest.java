@@ -0,0 +1,133 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.LowStockProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockAlert;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.LowStockEvent;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LowStockMonitorTest {
+
+    private static final Long VALID_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private MeterRegistry meterRegistry;
+
+    private LowStockMonitor lowStockMonitor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lowStockMonitor = new LowStockMonitor(beerRepository, new LowStockProperties(), eventPublisher, meterRegistry);
+    }
+
+    @Test
+    void whenBeerDropsBelowThresholdThenOnlyTheCrossingShouldBePublished() {
+        lowStockMonitor.onStockChanged(beer(20, 0L));
+        lowStockMonitor.onStockChanged(beer(9, 1L));
+        lowStockMonitor.onStockChanged(beer(5, 2L));
+
+        ArgumentCaptor<LowStockEvent> eventCaptor = ArgumentCaptor.forClass(LowStockEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getAlert(), is(StockAlert.LOW));
+        assertThat(eventCaptor.getValue().getBeer().getQuantity(), is(9));
+        assertThat(lowStockMonitor.getLowStockBeers().get(0).getQuantity(), is(5));
+        assertThat(meterRegistry.get("beerstock.stock.low").gauge().value(), is(1.0));
+    }
+
+    @Test
+    void whenLowStockBeerIsRestockedThenItShouldLeaveTheLowStockSet() {
+        lowStockMonitor.onStockChanged(beer(5, 0L));
+        lowStockMonitor.onStockChanged(beer(30, 1L));
+
+        ArgumentCaptor<LowStockEvent> eventCaptor = ArgumentCaptor.forClass(LowStockEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getAllValues().get(1).getAlert(), is(StockAlert.RESTOCKED));
+        assertThat(lowStockMonitor.getLowStockBeers(), is(empty()));
+    }
+
+    @Test
+    void whenChangeArrivesWithAnOlderVersionThenItShouldBeIgnored() {
+        lowStockMonitor.onStockChanged(beer(30, 2L));
+        lowStockMonitor.onStockChanged(beer(5, 1L));
+
+        assertThat(lowStockMonitor.getLowStockBeers(), is(empty()));
+        verify(eventPublisher, never()).publishEvent(any(LowStockEvent.class));
+    }
+
+    @Test
+    void whenLowStockBeersAreLoadedAtStartupThenNoCrossingShouldBePublished() {
+        when(beerRepository.findBelowFillRatio(0.2)).thenReturn(Collections.singletonList(beer(5, 0L)));
+
+        lowStockMonitor.loadLowStockBeers();
+        lowStockMonitor.onStockChanged(beer(4, 1L));
+
+        assertThat(lowStockMonitor.getLowStockBeers().get(0).getQuantity(), is(4));
+        verify(eventPublisher, never()).publishEvent(any(LowStockEvent.class));
+    }
+
+    @Test
+    void whenLowStockBeerIsDeletedThenItShouldLeaveTheLowStockSet() {
+        lowStockMonitor.onStockChanged(beer(5, 0L));
+
+        lowStockMonitor.onDeleted(VALID_BEER_ID);
+
+        assertThat(lowStockMonitor.getLowStockBeers(), is(empty()));
+    }
+
+    @Test
+    void whenReportedBeerChangesBeforeTheCommitThenTheReportedStateShouldBeEvaluated() {
+        Beer beer = beer(5, 0L);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lowStockMonitor.onStockChanged(beer);
+            beer.setQuantity(30);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(lowStockMonitor.getLowStockBeers().get(0).getQuantity(), is(5));
+    }
+
+    private static Beer beer(int quantity, Long version) {
+        return Beer.builder()
+                .id(VALID_BEER_ID)
+                .name("Colorado Kuya")
+                .brand("Cervejaria Colorado")
+                .max(50)
+                .quantity(quantity)
+                .type(BeerType.IPA)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.OutboxProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.OutboxEvent;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.OutboxEventStatus;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.StockChangeEvent;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    private static final String PAYLOAD = "{\"id\":1,\"name\":\"Colorado Kuya\",\"brand\":\"Cervejaria Colorado\",\"max\":50,\"quantity\":10,\"type\":\"IPA\",\"version\":0}";
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private StockEventSink stockEventSink;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    private OutboxProperties outboxProperties;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        outboxProperties = new OutboxProperties();
+        outboxProperties.setBatchSize(2);
+        outboxProperties.setRetryBackoff(Duration.ZERO);
+        outboxRelay = new OutboxRelay(outboxEventRepository, stockEventSink, outboxProperties,
+                new ObjectMapper().findAndRegisterModules(), transactionManager, meterRegistry);
+    }
+
+    @Test
+    void whenSinkFailsThenTheBatchShouldStayInTheOutboxAndBeSentAgain() throws Exception {
+        List<OutboxEvent> batch = Arrays.asList(outboxEvent(1L), outboxEvent(2L));
+        when(outboxEventRepository.findByStatusOrderByIdAsc(eq(OutboxEventStatus.PENDING), any(Pageable.class))).thenReturn(batch, batch, Collections.emptyList());
+        doThrow(new IOException("Webhook answered 503")).doNothing().when(stockEventSink).publish(anyList());
+
+        assertThat(outboxRelay.relay(), is(0));
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(anyList());
+
+        assertThat(outboxRelay.relay(), is(2));
+        verify(outboxEventRepository, times(1)).deleteAllByIdInBatch(Arrays.asList(1L, 2L));
+        assertThat(meterRegistry.get("beerstock.outbox.failures").counter().count(), is(1.0));
+        assertThat(meterRegistry.get("beerstock.outbox.relayed").counter().count(), is(2.0));
+    }
+
+    @Test
+    void whenOutboxHoldsSeveralBatchesThenTheyShouldBeRelayedInIdOrderWithinOnePoll() throws Exception {
+        when(outboxEventRepository.findByStatusOrderByIdAsc(eq(OutboxEventStatus.PENDING), any(Pageable.class))).thenReturn(
+                Arrays.asList(outboxEvent(1L), outboxEvent(2L)),
+                Collections.singletonList(outboxEvent(3L)));
+        doNothing().when(stockEventSink).publish(anyList());
+
+        assertThat(outboxRelay.relay(), is(3));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockChangeEvent>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(stockEventSink, times(2)).publish(batchCaptor.capture());
+        assertThat(batchCaptor.getAllValues().get(0).get(1).getId(), is(2L));
+        assertThat(batchCaptor.getAllValues().get(1).get(0).getId(), is(3L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(Arrays.asList(1L, 2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(Collections.singletonList(3L));
+    }
+
+    @Test
+    void whenPollLimitIsReachedThenRemainingBatchesShouldWaitForTheNextPoll() throws Exception {
+        outboxProperties.setMaxBatchesPerPoll(1);
+        when(outboxEventRepository.findByStatusOrderByIdAsc(eq(OutboxEventStatus.PENDING), any(Pageable.class))).thenReturn(Arrays.asList(outboxEvent(1L), outboxEvent(2L)));
+
+        assertThat(outboxRelay.relay(), is(2));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockChangeEvent>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(stockEventSink, times(1)).publish(batchCaptor.capture());
+        assertThat(batchCaptor.getValue().get(0).getBeer().getQuantity(), is(10));
+        assertThat(batchCaptor.getValue().get(0).getType(), is(StockEventType.INCREMENTED));
+    }
+
+    @Test
+    void whenSinkFailsThenTheRelayShouldWaitOutTheBackoffBeforeSendingAgain() throws Exception {
+        outboxProperties.setRetryBackoff(Duration.ofMinutes(1));
+        when(outboxEventRepository.findByStatusOrderByIdAsc(eq(OutboxEventStatus.PENDING), any(Pageable.class))).thenReturn(Arrays.asList(outboxEvent(1L), outboxEvent(2L)));
+        doThrow(new IOException("Webhook answered 503")).when(stockEventSink).publish(anyList());
+
+        assertThat(outboxRelay.relay(), is(0));
+        assertThat(outboxRelay.relay(), is(0));
+
+        verify(stockEventSink, times(1)).publish(anyList());
+        verify(outboxEventRepository).incrementAttemptsByIdIn(Arrays.asList(1L, 2L));
+        verify(outboxEventRepository, never()).updateStatusById(any(), any());
+    }
+
+    @Test
+    void whenEventKeepsFailingThenItShouldBeDeadLetteredAndTheEventsBehindItRelayed() throws Exception {
+        outboxProperties.setMaxAttempts(2);
+        OutboxEvent poisonEvent = outboxEvent(1L);
+        poisonEvent.setPayload("{not json");
+        poisonEvent.setAttempts(1);
+        when(outboxEventRepository.findByStatusOrderByIdAsc(eq(OutboxEventStatus.PENDING), any(Pageable.class))).thenReturn(
+                Arrays.asList(poisonEvent, outboxEvent(2L)),
+                Collections.singletonList(outboxEvent(2L)));
+
+        assertThat(outboxRelay.relay(), is(1));
+
+        verify(outboxEventRepository).incrementAttemptsByIdIn(Collections.singletonList(1L));
+        verify(outboxEventRepository).updateStatusById(1L, OutboxEventStatus.DEAD_LETTERED);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StockChangeEvent>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(stockEventSink, times(1)).publish(batchCaptor.capture());
+        assertThat(batchCaptor.getValue().get(0).getId(), is(2L));
+        verify(outboxEventRepository).deleteAllByIdInBatch(Collections.singletonList(2L));
+        assertThat(meterRegistry.get("beerstock.outbox.dead.lettered").counter().count(), is(1.0));
+    }
+
+    private static OutboxEvent outboxEvent(Long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .beerId(1L)
+                .type(StockEventType.INCREMENTED)
+                .payload(PAYLOAD)
+                .createdAt(Instant.now())
+                .build();
+    }
+}
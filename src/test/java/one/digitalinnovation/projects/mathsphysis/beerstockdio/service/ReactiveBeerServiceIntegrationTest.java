@@ -0,0 +1,108 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.test.StepVerifier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(classes = BeerstockApplication.class, properties = "spring.main.web-application-type=reactive")
+public class ReactiveBeerServiceIntegrationTest {
+
+    @Autowired
+    private ReactiveBeerService reactiveBeerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WarehouseStockService warehouseStockService;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from warehouse_stock");
+        jdbcTemplate.update("delete from stock_movement");
+        jdbcTemplate.update("delete from beer");
+    }
+
+    @Test
+    void whenBeerIsCreatedReactivelyThenItShouldBeVisibleToJpa() {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+
+        BeerDTO createdBeerDTO = reactiveBeerService.createBeer(beerDTO).block();
+
+        assertThat(beerRepository.findByName(beerDTO.getName()).orElseThrow().getId(), is(createdBeerDTO.getId()));
+        StepVerifier.create(reactiveBeerService.createBeer(beerDTO))
+                .expectError(BeerAlreadyRegisteredException.class)
+                .verify();
+    }
+
+    @Test
+    void whenStockIsChangedReactivelyThenMaxAndExistenceShouldBeEnforced() {
+        BeerDTO createdBeerDTO = reactiveBeerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO()).block();
+        Long id = createdBeerDTO.getId();
+
+        StepVerifier.create(reactiveBeerService.increment(id, 10))
+                .assertNext(incrementedBeerDTO -> assertThat(incrementedBeerDTO.getQuantity(), is(20)))
+                .verifyComplete();
+        StepVerifier.create(reactiveBeerService.increment(id, 1))
+                .expectError(BeerStockExceededException.class)
+                .verify();
+        StepVerifier.create(reactiveBeerService.increment(id, Integer.MAX_VALUE))
+                .expectError(BeerStockExceededException.class)
+                .verify();
+        StepVerifier.create(reactiveBeerService.decrement(id + 1, 1))
+                .expectError(BeerNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void whenBeerIsChangedReactivelyThenHeldStockAndWarehouseLocationsShouldBeRespectedAsOnTheServletStack() throws Exception {
+        BeerDTO createdBeerDTO = reactiveBeerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO()).block();
+        Long id = createdBeerDTO.getId();
+        warehouseStockService.setCapacity(id, 1L, 10);
+        warehouseStockService.increment(id, 1L, 5);
+
+        BeerDTO beerBelowHeldStock = BeerDTOBuilder.builder().id(null).quantity(2).build().toBeerDTO();
+        StepVerifier.create(reactiveBeerService.updateById(id, beerBelowHeldStock))
+                .expectError(BeerNegativeStockException.class)
+                .verify();
+        StepVerifier.create(reactiveBeerService.increment(id, 1))
+                .assertNext(incrementedBeerDTO -> assertThat(incrementedBeerDTO.getQuantity(), is(16)))
+                .verifyComplete();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from stock_movement where beer_id = ?", Integer.class, id), is(3));
+
+        StepVerifier.create(reactiveBeerService.deleteById(id))
+                .verifyComplete();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from warehouse_stock where beer_id = ?", Integer.class, id), is(0));
+    }
+
+    @Test
+    void whenCatalogueIsListedThenBeersShouldBeStreamedInIdOrder() {
+        BeerDTO firstBeerDTO = reactiveBeerService.createBeer(BeerDTOBuilder.builder().id(null).build().toBeerDTO()).block();
+        BeerDTO secondBeerDTO = reactiveBeerService.createBeer(BeerDTOBuilder.builder().id(null).name("Colorado Appia").build().toBeerDTO()).block();
+
+        StepVerifier.create(reactiveBeerService.listAll(), 1)
+                .expectNext(firstBeerDTO)
+                .thenRequest(1)
+                .expectNext(secondBeerDTO)
+                .verifyComplete();
+    }
+}
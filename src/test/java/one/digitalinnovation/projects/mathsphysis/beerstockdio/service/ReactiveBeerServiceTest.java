@@ -0,0 +1,54 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.ListingProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerAlreadyRegisteredException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.ReactiveBeerRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveBeerServiceTest {
+
+    @Mock
+    private ReactiveBeerRepository beerRepository;
+
+    @Mock
+    private BeerService beerService;
+
+    @Mock
+    private ListingProperties listingProperties;
+
+    @InjectMocks
+    private ReactiveBeerService reactiveBeerService;
+
+    @Test
+    void whenConcurrentCreateInsertsTheSameNameFirstThenAnAlreadyRegisteredErrorShouldBeSignalled() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().id(null).build().toBeerDTO();
+        when(beerService.createBeer(beerDTO))
+                .thenThrow(new DataIntegrityViolationException("Unique index or primary key violation"));
+
+        StepVerifier.create(reactiveBeerService.createBeer(beerDTO))
+                .expectError(BeerAlreadyRegisteredException.class)
+                .verify();
+    }
+
+    @Test
+    void whenServletServiceRejectsAChangeThenTheSameExceptionShouldBeSignalled() throws Exception {
+        BeerDTO beerDTO = BeerDTOBuilder.builder().build().toBeerDTO();
+        when(beerService.updateById(beerDTO.getId(), beerDTO)).thenThrow(new BeerNegativeStockException(beerDTO.getId(), 5));
+
+        StepVerifier.create(reactiveBeerService.updateById(beerDTO.getId(), beerDTO))
+                .expectError(BeerNegativeStockException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,168 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.ReservationResponseDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.StockReservation;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.ReservationNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class ReservationServiceTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenStockIsReservedThenItShouldNotBeAvailableToDecrements() throws Exception {
+        BeerDTO beerDTO = createBeer(10);
+
+        reservationService.reserve(beerDTO.getId(), 7, null);
+
+        assertThrows(BeerNegativeStockException.class, () -> beerService.decrement(beerDTO.getId(), 4));
+        assertThrows(BeerNegativeStockException.class, () -> reservationService.reserve(beerDTO.getId(), 4, null));
+        assertThat(beerService.decrement(beerDTO.getId(), 3).getQuantity(), is(7));
+    }
+
+    @Test
+    void whenReservationIsConfirmedThenItsQuantityShouldLeaveTheStockOnce() throws Exception {
+        BeerDTO beerDTO = createBeer(10);
+        ReservationResponseDTO reservation = reservationService.reserve(beerDTO.getId(), 4, null);
+
+        BeerDTO confirmedBeerDTO = reservationService.confirm(reservation.getId());
+
+        assertThat(confirmedBeerDTO.getQuantity(), is(6));
+        assertThat(beerRepository.findById(beerDTO.getId()).orElseThrow().getReserved(), is(0));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.confirm(reservation.getId()));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.release(reservation.getId()));
+    }
+
+    @Test
+    void whenReservationIsReleasedThenItsQuantityShouldBeAvailableAgain() throws Exception {
+        BeerDTO beerDTO = createBeer(10);
+        ReservationResponseDTO reservation = reservationService.reserve(beerDTO.getId(), 10, null);
+
+        reservationService.release(reservation.getId());
+
+        Beer beer = beerRepository.findById(beerDTO.getId()).orElseThrow();
+        assertThat(beer.getQuantity(), is(10));
+        assertThat(beer.getReserved(), is(0));
+        assertThat(beerService.decrement(beerDTO.getId(), 10).getQuantity(), is(0));
+    }
+
+    @Test
+    void whenReservationExpiresThenTheReaperShouldGiveItsStockBack() throws Exception {
+        BeerDTO beerDTO = createBeer(10);
+        ReservationResponseDTO reservation = reservationService.reserve(beerDTO.getId(), 5, Duration.ofSeconds(1));
+
+        awaitReserved(beerDTO.getId(), 0);
+
+        assertThat(stockReservationRepository.existsById(reservation.getId()), is(false));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.confirm(reservation.getId()));
+    }
+
+    @Test
+    void whenReservationsAreStoredBeforeAStartThenTheyShouldBeLoadedAndReaped() throws Exception {
+        BeerDTO beerDTO = createBeer(10);
+        jdbcTemplate.update("update beer set reserved = 3 where id = ?", beerDTO.getId());
+        stockReservationRepository.save(StockReservation.builder()
+                .beerId(beerDTO.getId())
+                .quantity(3)
+                .expiresAt(Instant.now().minusSeconds(60))
+                .build());
+
+        reservationService.loadActiveReservations();
+
+        awaitReserved(beerDTO.getId(), 0);
+        assertThat(stockReservationRepository.count(), is(0L));
+    }
+
+    @Test
+    void whenReservationsRaceDecrementsThenStockShouldNeverBeHeldTwice() throws Exception {
+        int quantity = 50;
+        BeerDTO beerDTO = createBeer(quantity);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> futures = new ArrayList<>();
+
+        for (int attempt = 0; attempt < 100; attempt++) {
+            boolean reserve = attempt % 2 == 0;
+            Callable<Boolean> movement = () -> {
+                try {
+                    if (reserve) {
+                        reservationService.reserve(beerDTO.getId(), 1, null);
+                    } else {
+                        beerService.decrement(beerDTO.getId(), 1);
+                    }
+                    return true;
+                } catch (BeerNegativeStockException e) {
+                    return false;
+                }
+            };
+            futures.add(executorService.submit(movement));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> future : futures) {
+            succeeded += future.get() ? 1 : 0;
+        }
+        executorService.shutdown();
+
+        Beer beer = beerRepository.findById(beerDTO.getId()).orElseThrow();
+        assertThat(succeeded, is(quantity));
+        assertThat(beer.getQuantity() - beer.getReserved(), is(0));
+        assertThat((int) stockReservationRepository.count() + (quantity - beer.getQuantity()), is(quantity));
+    }
+
+    private BeerDTO createBeer(int quantity) throws Exception {
+        return beerService.createBeer(BeerDTOBuilder.builder().id(null).max(100).quantity(quantity).build().toBeerDTO());
+    }
+
+    private void awaitReserved(Long beerId, int reserved) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (beerRepository.findStoredById(beerId).orElseThrow().getReserved() != reserved) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Reserved stock did not reach " + reserved + " within 10 seconds");
+            }
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class ReservationTimingWheelTest {
+
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 8;
+
+    private final ReservationTimingWheel timingWheel = new ReservationTimingWheel(TICK_MILLIS, WHEEL_SIZE, 0);
+
+    @Test
+    void whenTheWheelAdvancesThenEntriesShouldExpireAtTheirTickAndNotBefore() {
+        timingWheel.schedule(entry(1L, 250));
+        timingWheel.schedule(entry(2L, 300));
+        timingWheel.schedule(entry(3L, 700));
+
+        assertThat(advanceTo(200), is(empty()));
+        assertThat(advanceTo(300), contains(2L, 1L));
+        assertThat(advanceTo(600), is(empty()));
+        assertThat(advanceTo(700), contains(3L));
+        assertThat(timingWheel.size(), is(0));
+    }
+
+    @Test
+    void whenExpiryIsFurtherThanOneTurnThenItShouldWaitForItsOwnTurn() {
+        timingWheel.schedule(entry(1L, 100));
+        timingWheel.schedule(entry(2L, 100 + TICK_MILLIS * WHEEL_SIZE));
+
+        assertThat(advanceTo(100), contains(1L));
+        assertThat(advanceTo(TICK_MILLIS * WHEEL_SIZE), is(empty()));
+        assertThat(advanceTo(100 + TICK_MILLIS * WHEEL_SIZE), contains(2L));
+    }
+
+    @Test
+    void whenTheWheelFallsBehindByMoreThanOneTurnThenEveryDueEntryShouldExpireOnce() {
+        for (long id = 1; id <= 20; id++) {
+            timingWheel.schedule(entry(id, id * TICK_MILLIS));
+        }
+
+        List<Long> expired = advanceTo(TICK_MILLIS * 15);
+
+        assertThat(expired.size(), is(15));
+        assertThat(expired.stream().distinct().count(), is(15L));
+        assertThat(timingWheel.size(), is(5));
+    }
+
+    @Test
+    void whenEntryIsCancelledThenItShouldNotExpire() {
+        ReservationTimingWheel.Entry cancelled = entry(1L, 200);
+        timingWheel.schedule(cancelled);
+        timingWheel.schedule(entry(2L, 200));
+
+        assertThat(timingWheel.cancel(cancelled), is(true));
+        assertThat(timingWheel.cancel(cancelled), is(false));
+        assertThat(advanceTo(200), contains(2L));
+    }
+
+    @Test
+    void whenEntryIsAlreadyDueThenItShouldExpireOnTheNextTick() {
+        advanceTo(500);
+        timingWheel.schedule(entry(1L, 100));
+
+        assertThat(advanceTo(500), is(empty()));
+        assertThat(advanceTo(600), contains(1L));
+    }
+
+    @Test
+    void whenHundredsOfThousandsOfEntriesExpireThenEachTickShouldOnlyTakeItsOwn() {
+        ReservationTimingWheel wheel = new ReservationTimingWheel(TICK_MILLIS, 512, 0);
+        int entries = 200_000;
+        int ticks = 600;
+        for (long id = 0; id < entries; id++) {
+            wheel.schedule(new ReservationTimingWheel.Entry(id, id % 1000, 1, TICK_MILLIS + (id % ticks) * TICK_MILLIS));
+        }
+
+        List<ReservationTimingWheel.Entry> expired = new ArrayList<>();
+        for (int tick = 1; tick <= ticks; tick++) {
+            expired.clear();
+            wheel.advance(tick * TICK_MILLIS, expired);
+            assertThat(expired.size(), is(entries / ticks + (tick <= entries % ticks ? 1 : 0)));
+        }
+        assertThat(wheel.size(), is(0));
+    }
+
+    private List<Long> advanceTo(long nowMillis) {
+        List<ReservationTimingWheel.Entry> expired = new ArrayList<>();
+        timingWheel.advance(nowMillis, expired);
+        return expired.stream().map(ReservationTimingWheel.Entry::getId).collect(Collectors.toList());
+    }
+
+    private static ReservationTimingWheel.Entry entry(Long id, long expiresAtMillis) {
+        return new ReservationTimingWheel.Entry(id, 1L, 1, expiresAtMillis);
+    }
+}
@@ -0,0 +1,142 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 16;
+
+    private MeterRegistry meterRegistry;
+
+    private SingleFlight<String, String> singleFlight;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        singleFlight = new SingleFlight<>(meterRegistry, "findByName", true);
+    }
+
+    @Test
+    void whenSameKeyIsLoadedConcurrentlyThenTheLoaderShouldRunOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(CALLERS);
+        List<Future<String>> results = new ArrayList<>();
+
+        try {
+            results.add(executorService.submit(() -> singleFlight.execute("Colorado Kuya", () -> {
+                loads.incrementAndGet();
+                releaseLoad.await();
+                return "loaded";
+            })));
+            awaitCount("leader", 1);
+
+            for (int caller = 1; caller < CALLERS; caller++) {
+                results.add(executorService.submit(() -> singleFlight.execute("Colorado Kuya", () -> {
+                    loads.incrementAndGet();
+                    return "not shared";
+                })));
+            }
+            awaitCount("follower", CALLERS - 1);
+            releaseLoad.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS), is("loaded"));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertThat(loads.get(), is(1));
+        assertThat(meterRegistry.get("beerstock.singleflight.followers").summary().max(), is((double) CALLERS - 1));
+    }
+
+    @Test
+    void whenSharedLoadFailsThenEveryCallerShouldGetTheException() throws Exception {
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<String> leader = executorService.submit(() -> singleFlight.execute("Colorado Kuya", () -> {
+                releaseLoad.await();
+                throw new BeerNotFoundException("Colorado Kuya");
+            }));
+            awaitCount("leader", 1);
+            Future<String> follower = executorService.submit(() -> singleFlight.execute("Colorado Kuya", () -> "not shared"));
+            awaitCount("follower", 1);
+            releaseLoad.countDown();
+
+            ExecutionException leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(10, TimeUnit.SECONDS));
+            ExecutionException followerFailure = assertThrows(ExecutionException.class, () -> follower.get(10, TimeUnit.SECONDS));
+            assertThat(leaderFailure.getCause(), instanceOf(BeerNotFoundException.class));
+            assertThat(followerFailure.getCause(), instanceOf(BeerNotFoundException.class));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenMutableResultIsSharedThenEveryFollowerShouldGetItsOwnCopy() throws Exception {
+        SingleFlight<String, List<String>> copyingFlight = new SingleFlight<>(meterRegistry, "findByName", true, ArrayList::new);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<List<String>> leader = executorService.submit(() -> copyingFlight.execute("Colorado Kuya", () -> {
+                releaseLoad.await();
+                return new ArrayList<>(List.of("loaded"));
+            }));
+            awaitCount("leader", 1);
+            Future<List<String>> follower = executorService.submit(() -> copyingFlight.execute("Colorado Kuya", () -> List.of("not shared")));
+            awaitCount("follower", 1);
+            releaseLoad.countDown();
+
+            List<String> leaderResult = leader.get(10, TimeUnit.SECONDS);
+            List<String> followerResult = follower.get(10, TimeUnit.SECONDS);
+            assertThat(followerResult, is(leaderResult));
+            assertThat(followerResult, is(not(sameInstance(leaderResult))));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenLoadHasCompletedThenTheNextCallShouldLoadAgain() {
+        AtomicInteger loads = new AtomicInteger();
+
+        singleFlight.execute("Colorado Kuya", () -> "loaded " + loads.incrementAndGet());
+
+        assertThat(singleFlight.execute("Colorado Kuya", () -> "loaded " + loads.incrementAndGet()), is("loaded 2"));
+    }
+
+    private void awaitCount(String role, int expectedCount) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("beerstock.singleflight.calls").tag("role", role).counter().count() < expectedCount) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Timed out waiting for " + expectedCount + " " + role + " calls");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
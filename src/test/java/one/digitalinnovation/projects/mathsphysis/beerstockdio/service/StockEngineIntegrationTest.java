@@ -0,0 +1,141 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.IdempotencyProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.IdempotencyRecordRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.PendingStockDeltaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(classes = BeerstockApplication.class, properties = {
+        "beerstock.stock-engine.enabled=true",
+        "beerstock.stock-engine.flush-interval-ms=3600000"
+})
+public class StockEngineIntegrationTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private StockEngine stockEngine;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private PendingStockDeltaRepository pendingStockDeltaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private IdempotencyProperties idempotencyProperties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @AfterEach
+    void tearDown() {
+        stockEngine.flushAll();
+        beerRepository.findAll().forEach(beer -> stockEngine.evict(beer.getId()));
+        beerRepository.deleteAll();
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void whenStockIsMovedThroughTheEngineThenItsJournalShouldBeFlushedIntoTheBeer() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+
+        beerService.increment(beerDTO.getId(), 5);
+        beerService.decrement(beerDTO.getId(), 3);
+
+        assertThat(beerRepository.findStoredById(beerDTO.getId()).orElseThrow().getQuantity(), is(10));
+        assertThat(pendingStockDeltaRepository.sumDeltaByBeerId(beerDTO.getId()), is(2L));
+
+        stockEngine.flushAll();
+
+        assertThat(beerRepository.findStoredById(beerDTO.getId()).orElseThrow().getQuantity(), is(12));
+        assertThat(pendingStockDeltaRepository.count(), is(0L));
+    }
+
+    @Test
+    void whenMovementIsRolledBackThenNeitherTheJournalNorTheCounterShouldKeepIt() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                beerService.increment(beerDTO.getId(), 40);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            status.setRollbackOnly();
+        });
+
+        assertThat(pendingStockDeltaRepository.count(), is(0L));
+        assertThat(beerService.increment(beerDTO.getId(), 40).getQuantity(), is(50));
+        assertThrows(BeerStockExceededException.class, () -> beerService.increment(beerDTO.getId(), 1));
+    }
+
+    @Test
+    void whenBeerIsEvictedThenItsCounterShouldBeReloadedWithTheFlushedQuantity() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        beerService.increment(beerDTO.getId(), 5);
+
+        stockEngine.evict(beerDTO.getId());
+
+        assertThat(beerRepository.findStoredById(beerDTO.getId()).orElseThrow().getQuantity(), is(15));
+        assertThat(beerService.decrement(beerDTO.getId(), 15).getQuantity(), is(0));
+    }
+
+    @Test
+    void whenJournaledMovementIsNotFlushedYetThenReplayShouldCountItWithoutEvictingTheCounter() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        beerService.increment(beerDTO.getId(), 5);
+
+        assertThat(stockHistoryService.replay(beerDTO.getId()).getStoredQuantity(), is(15L));
+        assertThat(stockHistoryService.replay(beerDTO.getId()).isConsistent(), is(true));
+        assertThat(pendingStockDeltaRepository.sumDeltaByBeerId(beerDTO.getId()), is(5L));
+        assertThat(stockHistoryService.replayAll().isEmpty(), is(true));
+    }
+
+    @Test
+    void whenIdempotentMovementCollidesOnItsKeyThenTheEngineShouldDropTheMovement() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        IdempotencyRecordRepository collidingRepository = mock(IdempotencyRecordRepository.class, delegatesTo(idempotencyRecordRepository));
+        doThrow(new DataIntegrityViolationException("duplicate idempotency key")).when(collidingRepository).saveAndFlush(any());
+        IdempotentStockService collidingService = new IdempotentStockService(beerService, collidingRepository,
+                idempotencyProperties, objectMapper, new SimpleMeterRegistry(), transactionManager);
+
+        assertThrows(DataIntegrityViolationException.class, () -> collidingService.incrementOnce(UUID.randomUUID().toString(), beerDTO.getId(), 40));
+
+        assertThat(pendingStockDeltaRepository.count(), is(0L));
+        assertThat(beerService.increment(beerDTO.getId(), 40).getQuantity(), is(50));
+    }
+}
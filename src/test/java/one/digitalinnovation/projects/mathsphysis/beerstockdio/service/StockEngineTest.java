@@ -0,0 +1,318 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.PendingStockDelta;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.mapper.BeerMapper;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.PendingStockDeltaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockEngineTest {
+
+    private static final Long VALID_BEER_ID = 1L;
+    private static final Long INVALID_BEER_ID = 2L;
+    private static final int FLUSH_THRESHOLD = 100_000;
+    private static final long EVICT_TIMEOUT_MILLIS = 1_000;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    @Mock
+    private PendingStockDeltaRepository pendingStockDeltaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final BeerMapper beerMapper = BeerMapper.INSTANCE;
+
+    private final List<PendingStockDelta> journal = new ArrayList<>();
+
+    private final List<PendingStockDelta> deletedInTransaction = new ArrayList<>();
+
+    private final AtomicLong journalIds = new AtomicLong();
+
+    private StockEngine stockEngine;
+
+    @BeforeEach
+    void setUp() {
+        stockEngine = new StockEngine(beerRepository, pendingStockDeltaRepository, transactionManager, true, FLUSH_THRESHOLD, EVICT_TIMEOUT_MILLIS);
+        givenJournal();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void whenMovementsAreAppliedThenOnlyTheNetDeltaShouldBeFlushed() throws Exception {
+        givenBeer(20, 10);
+        when(beerRepository.applyQuantityDelta(VALID_BEER_ID, 2)).thenReturn(1);
+
+        stockEngine.increment(VALID_BEER_ID, 5);
+        Beer decrementedBeer = stockEngine.decrement(VALID_BEER_ID, 3);
+
+        assertThat(decrementedBeer.getQuantity(), is(12));
+        assertThat(journal.size(), is(2));
+        verify(beerRepository, never()).applyQuantityDelta(anyLong(), anyInt());
+
+        stockEngine.flushAll();
+        stockEngine.flushAll();
+
+        verify(beerRepository, times(1)).findStoredById(VALID_BEER_ID);
+        verify(beerRepository, times(1)).applyQuantityDelta(VALID_BEER_ID, 2);
+        assertThat(journal, is(empty()));
+    }
+
+    @Test
+    void whenIncrementExceedsMaxThenItShouldThrowAnExceptionAndKeepTheQuantity() throws Exception {
+        givenBeer(20, 10);
+
+        assertThrows(BeerStockExceededException.class, () -> stockEngine.increment(VALID_BEER_ID, 11));
+        assertThat(stockEngine.increment(VALID_BEER_ID, 10).getQuantity(), is(20));
+    }
+
+    @Test
+    void whenDecrementExceedsQuantityThenItShouldThrowAnException() {
+        givenBeer(20, 10);
+
+        assertThrows(BeerNegativeStockException.class, () -> stockEngine.decrement(VALID_BEER_ID, 11));
+    }
+
+    @Test
+    void whenBeerDoesNotExistThenItShouldThrowAnException() {
+        when(beerRepository.findStoredById(INVALID_BEER_ID)).thenReturn(Optional.empty());
+
+        assertThrows(BeerNotFoundException.class, () -> stockEngine.increment(INVALID_BEER_ID, 1));
+    }
+
+    @Test
+    void whenFlushFailsThenTheDeltaShouldBeRetriedOnTheNextFlush() throws Exception {
+        givenBeer(20, 10);
+        when(beerRepository.applyQuantityDelta(VALID_BEER_ID, 5))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(1);
+
+        stockEngine.increment(VALID_BEER_ID, 5);
+        stockEngine.flushAll();
+        assertThat(journal.size(), is(1));
+        stockEngine.flushAll();
+
+        verify(beerRepository, times(2)).applyQuantityDelta(VALID_BEER_ID, 5);
+        assertThat(journal, is(empty()));
+    }
+
+    @Test
+    void whenBeerIsEvictedThenPendingDeltaShouldBeFlushedAndBeerReloaded() throws Exception {
+        givenBeer(20, 10);
+        when(beerRepository.applyQuantityDelta(VALID_BEER_ID, 4)).thenReturn(1);
+
+        stockEngine.increment(VALID_BEER_ID, 4);
+        stockEngine.evict(VALID_BEER_ID);
+        stockEngine.increment(VALID_BEER_ID, 1);
+
+        verify(beerRepository, times(1)).applyQuantityDelta(VALID_BEER_ID, 4);
+        verify(beerRepository, times(2)).findStoredById(VALID_BEER_ID);
+    }
+
+    @Test
+    void whenCounterIsLoadedThenDeltasLeftInTheJournalShouldCount() throws Exception {
+        givenBeer(20, 10);
+        journal.add(PendingStockDelta.builder().id(journalIds.incrementAndGet()).beerId(VALID_BEER_ID).delta(7).build());
+
+        assertThrows(BeerStockExceededException.class, () -> stockEngine.increment(VALID_BEER_ID, 4));
+        assertThat(stockEngine.increment(VALID_BEER_ID, 3).getQuantity(), is(20));
+    }
+
+    @Test
+    void whenPreviousRunLeftDeltasInTheJournalThenTheyShouldBeFlushedAtStartup() {
+        journal.add(PendingStockDelta.builder().id(journalIds.incrementAndGet()).beerId(VALID_BEER_ID).delta(7).build());
+        journal.add(PendingStockDelta.builder().id(journalIds.incrementAndGet()).beerId(VALID_BEER_ID).delta(-2).build());
+        when(beerRepository.applyQuantityDelta(VALID_BEER_ID, 5)).thenReturn(1);
+
+        new StockEngine(beerRepository, pendingStockDeltaRepository, transactionManager, false, FLUSH_THRESHOLD, EVICT_TIMEOUT_MILLIS)
+                .flushPreviousRun();
+
+        verify(beerRepository, times(1)).applyQuantityDelta(VALID_BEER_ID, 5);
+        assertThat(journal, is(empty()));
+    }
+
+    @Test
+    void whenTransactionIsInFlightThenItsMovementShouldCountAgainstTheLimitsUntilItCompletes() throws Exception {
+        givenBeer(20, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThat(stockEngine.increment(VALID_BEER_ID, 5).getQuantity(), is(15));
+        assertThrows(BeerStockExceededException.class, () -> stockEngine.increment(VALID_BEER_ID, 10));
+        assertThat(stockEngine.decrement(VALID_BEER_ID, 10).getQuantity(), is(5));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(stockEngine.increment(VALID_BEER_ID, 10).getQuantity(), is(20));
+    }
+
+    @Test
+    void whenCommittedMovementsReachTheThresholdThenTheyShouldBeFlushedInTheBackground() throws Exception {
+        givenBeer(20, 0);
+        when(beerRepository.applyQuantityDelta(VALID_BEER_ID, 12)).thenReturn(1);
+        StockEngine thresholdEngine = new StockEngine(beerRepository, pendingStockDeltaRepository, transactionManager, true, 10, EVICT_TIMEOUT_MILLIS);
+
+        thresholdEngine.increment(VALID_BEER_ID, 4);
+        thresholdEngine.increment(VALID_BEER_ID, 4);
+        verify(beerRepository, never()).applyQuantityDelta(anyLong(), anyInt());
+        thresholdEngine.increment(VALID_BEER_ID, 4);
+
+        verify(beerRepository, timeout(5_000)).applyQuantityDelta(VALID_BEER_ID, 12);
+        thresholdEngine.shutdown();
+    }
+
+    @Test
+    void whenManyThreadsMoveTheSameBeerThenNoMovementShouldBeLost() throws Exception {
+        int threads = 32;
+        int incrementsPerThread = 1_000;
+        givenBeer(threads * incrementsPerThread, 0);
+        when(beerRepository.applyQuantityDelta(eq(VALID_BEER_ID), anyInt())).thenReturn(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < threads; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int increment = 0; increment < incrementsPerThread; increment++) {
+                    stockEngine.increment(VALID_BEER_ID, 1);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThrows(BeerStockExceededException.class, () -> stockEngine.increment(VALID_BEER_ID, 1));
+
+        stockEngine.flushAll();
+
+        ArgumentCaptor<Integer> flushedDeltas = ArgumentCaptor.forClass(Integer.class);
+        verify(beerRepository, atLeastOnce()).applyQuantityDelta(eq(VALID_BEER_ID), flushedDeltas.capture());
+        assertThat(flushedDeltas.getAllValues().stream().mapToInt(Integer::intValue).sum(), is(threads * incrementsPerThread));
+        assertThat(journal, is(empty()));
+    }
+
+    private void givenBeer(int max, int quantity) {
+        BeerDTO beerDTO = BeerDTOBuilder.builder()
+                .id(VALID_BEER_ID)
+                .max(max)
+                .quantity(quantity)
+                .build()
+                .toBeerDTO();
+        Beer beer = beerMapper.toModel(beerDTO);
+
+        when(beerRepository.findStoredById(VALID_BEER_ID)).thenReturn(Optional.of(beer));
+    }
+
+    /**
+     * Backs the journal repository with a list whose deletes are undone when the transaction manager rolls back.
+     */
+    private void givenJournal() {
+        lenient().when(pendingStockDeltaRepository.save(any(PendingStockDelta.class))).thenAnswer(invocation -> {
+            PendingStockDelta pendingDelta = invocation.getArgument(0);
+            synchronized (journal) {
+                pendingDelta.setId(journalIds.incrementAndGet());
+                journal.add(pendingDelta);
+            }
+            return pendingDelta;
+        });
+        lenient().when(pendingStockDeltaRepository.findBeerIds()).thenAnswer(invocation -> {
+            synchronized (journal) {
+                return journal.stream().map(PendingStockDelta::getBeerId).distinct().collect(Collectors.toList());
+            }
+        });
+        lenient().when(pendingStockDeltaRepository.findByBeerIdOrderByIdAsc(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            Long beerId = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            synchronized (journal) {
+                return journal.stream()
+                        .filter(pendingDelta -> pendingDelta.getBeerId().equals(beerId))
+                        .limit(pageable.getPageSize())
+                        .collect(Collectors.toList());
+            }
+        });
+        lenient().when(pendingStockDeltaRepository.sumDeltaByBeerId(anyLong())).thenAnswer(invocation -> {
+            Long beerId = invocation.getArgument(0);
+            synchronized (journal) {
+                return journal.stream()
+                        .filter(pendingDelta -> pendingDelta.getBeerId().equals(beerId))
+                        .mapToLong(PendingStockDelta::getDelta)
+                        .sum();
+            }
+        });
+        lenient().when(pendingStockDeltaRepository.deleteByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            synchronized (journal) {
+                List<PendingStockDelta> deleted = journal.stream()
+                        .filter(pendingDelta -> ids.contains(pendingDelta.getId()))
+                        .collect(Collectors.toList());
+                journal.removeAll(deleted);
+                deletedInTransaction.addAll(deleted);
+                return deleted.size();
+            }
+        });
+        lenient().doAnswer(invocation -> {
+            synchronized (journal) {
+                journal.addAll(deletedInTransaction);
+                journal.sort(Comparator.comparing(PendingStockDelta::getId));
+                deletedInTransaction.clear();
+            }
+            return null;
+        }).when(transactionManager).rollback(any());
+        lenient().doAnswer(invocation -> {
+            synchronized (journal) {
+                deletedInTransaction.clear();
+            }
+            return null;
+        }).when(transactionManager).commit(any());
+    }
+}
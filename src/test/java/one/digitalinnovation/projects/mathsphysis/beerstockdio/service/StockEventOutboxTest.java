@@ -0,0 +1,91 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementBatchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BatchMode;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.StockChangeEvent;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThan;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class StockEventOutboxTest {
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private InMemoryStockEventSink inMemoryStockEventSink;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenStockChangesCommitThenTheirEventsShouldBeRelayedInOrder() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        beerService.increment(beerDTO.getId(), 5);
+        beerService.decrement(beerDTO.getId(), 3);
+        beerService.updateById(beerDTO.getId(), BeerDTOBuilder.builder().id(beerDTO.getId()).max(50).quantity(30).build().toBeerDTO());
+        beerService.deleteById(beerDTO.getId());
+
+        outboxRelay.relay();
+
+        List<StockChangeEvent> events = relayedEventsOf(beerDTO.getId());
+        assertThat(events.stream().map(StockChangeEvent::getType).collect(Collectors.toList()), contains(
+                StockEventType.CREATED, StockEventType.INCREMENTED, StockEventType.DECREMENTED, StockEventType.UPDATED, StockEventType.DELETED));
+        assertThat(events.stream().map(event -> event.getBeer().getQuantity()).collect(Collectors.toList()), contains(10, 15, 12, 30, 30));
+        for (int index = 1; index < events.size(); index++) {
+            assertThat(events.get(index).getId(), greaterThan(events.get(index - 1).getId()));
+        }
+    }
+
+    @Test
+    void whenBatchIsRolledBackThenItsEventsShouldNeverBeRelayed() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        beerService.applyMovements(StockMovementBatchDTO.builder()
+                .mode(BatchMode.ALL_OR_NOTHING)
+                .movements(Arrays.asList(
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(5).build(),
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(-20).build()))
+                .build());
+        beerService.applyMovements(StockMovementBatchDTO.builder()
+                .mode(BatchMode.ALL_OR_NOTHING)
+                .movements(Arrays.asList(
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(5).build(),
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(-2).build()))
+                .build());
+
+        outboxRelay.relay();
+
+        assertThat(relayedEventsOf(beerDTO.getId()).stream().map(StockChangeEvent::getType).collect(Collectors.toList()), contains(
+                StockEventType.CREATED, StockEventType.INCREMENTED, StockEventType.DECREMENTED));
+    }
+
+    private List<StockChangeEvent> relayedEventsOf(Long beerId) {
+        return inMemoryStockEventSink.getEvents().stream()
+                .filter(event -> event.getBeerId().equals(beerId))
+                .collect(Collectors.toList());
+    }
+}
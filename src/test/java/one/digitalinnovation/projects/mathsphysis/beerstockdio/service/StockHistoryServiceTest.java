@@ -0,0 +1,123 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementBatchDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.StockMovementDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.StockReplayDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BatchMode;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class StockHistoryServiceTest {
+
+    @Autowired
+    private StockHistoryService stockHistoryService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenStockIsMovedThenTheLedgerShouldReplayToTheStoredQuantity() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        beerService.increment(beerDTO.getId(), 5);
+        beerService.decrement(beerDTO.getId(), 3);
+        beerService.updateById(beerDTO.getId(), BeerDTOBuilder.builder().id(beerDTO.getId()).max(50).quantity(30).build().toBeerDTO());
+
+        StockReplayDTO replay = stockHistoryService.replay(beerDTO.getId());
+
+        assertThat(replay.getReplayedQuantity(), is(30L));
+        assertThat(replay.isConsistent(), is(true));
+        assertThat(replay.getSnapshotMovementId(), is(nullValue()));
+    }
+
+    @Test
+    void whenQuantityAtPastInstantIsAskedThenItShouldStartFromTheSnapshotBeforeIt() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        beerService.increment(beerDTO.getId(), 5);
+        stockLedger.takeSnapshots(Instant.now());
+        Thread.sleep(5);
+        Instant afterSnapshot = Instant.now();
+        Thread.sleep(5);
+        beerService.decrement(beerDTO.getId(), 12);
+
+        assertThat(stockHistoryService.quantityAt(beerDTO.getId(), afterSnapshot).getQuantity(), is(15));
+        assertThat(stockHistoryService.quantityAt(beerDTO.getId(), Instant.now()).getQuantity(), is(3));
+        assertThat(stockHistoryService.replay(beerDTO.getId()).getSnapshotMovementId(), is(notNullValue()));
+        assertThat(stockHistoryService.replay(beerDTO.getId()).isConsistent(), is(true));
+    }
+
+    @Test
+    void whenBatchIsRolledBackOrStockIsOverwrittenOutsideTheServiceThenReplayShouldTellThemApart() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        beerService.applyMovements(StockMovementBatchDTO.builder()
+                .mode(BatchMode.ALL_OR_NOTHING)
+                .movements(Arrays.asList(
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(5).build(),
+                        StockMovementDTO.builder().id(beerDTO.getId()).delta(-20).build()))
+                .build());
+
+        assertThat(stockHistoryService.replay(beerDTO.getId()).isConsistent(), is(true));
+
+        jdbcTemplate.update("update beer set quantity = 42 where id = ?", beerDTO.getId());
+
+        StockReplayDTO replay = stockHistoryService.replay(beerDTO.getId());
+        assertThat(replay.isConsistent(), is(false));
+        assertThat(replay.getReplayedQuantity(), is(10L));
+        assertThat(stockHistoryService.replayAll().stream().anyMatch(inconsistent -> inconsistent.getId().equals(beerDTO.getId())), is(true));
+
+        stockHistoryService.reconcile();
+        assertThat(meterRegistry.get("beerstock.ledger.inconsistent").gauge().value(), is(greaterThanOrEqualTo(1.0)));
+    }
+
+    @Test
+    void whenMovementIsCreatedBeforeTheSnapshotCutoffThenTheSnapshotShouldCoverItAndReplayShouldNotCountItTwice() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        beerService.increment(beerDTO.getId(), 5);
+        Thread.sleep(5);
+        Instant cutoff = Instant.now();
+        Thread.sleep(5);
+        beerService.decrement(beerDTO.getId(), 2);
+
+        stockLedger.takeSnapshots(cutoff);
+        beerService.increment(beerDTO.getId(), 4);
+
+        StockReplayDTO replay = stockHistoryService.replay(beerDTO.getId());
+        assertThat(replay.getReplayedQuantity(), is(17L));
+        assertThat(replay.isConsistent(), is(true));
+        assertThat(stockHistoryService.quantityAt(beerDTO.getId(), cutoff).getQuantity(), is(15));
+    }
+}
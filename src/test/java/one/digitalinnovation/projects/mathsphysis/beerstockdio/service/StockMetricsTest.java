@@ -0,0 +1,64 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNotFoundException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class StockMetricsTest {
+
+    private static final Long VALID_BEER_ID = 1L;
+
+    @Mock
+    private BeerRepository beerRepository;
+
+    private MeterRegistry meterRegistry;
+
+    private StockMetrics stockMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stockMetrics = new StockMetrics(beerRepository, meterRegistry);
+    }
+
+    @Test
+    void whenStockQuantitiesAreRefreshedThenEveryTypeShouldBeGauged() {
+        when(beerRepository.sumQuantityByType()).thenReturn(Arrays.asList(
+                new Object[]{BeerType.IPA, 30L},
+                new Object[]{BeerType.STOUT, 5L}));
+
+        stockMetrics.refreshStockQuantities();
+
+        assertThat(meterRegistry.get("beerstock.stock.quantity").tag("type", "IPA").gauge().value(), is(30.0));
+        assertThat(meterRegistry.get("beerstock.stock.quantity").tag("type", "STOUT").gauge().value(), is(5.0));
+        assertThat(meterRegistry.get("beerstock.stock.quantity").tag("type", "LAGER").gauge().value(), is(0.0));
+    }
+
+    @Test
+    void whenStockRejectionsAreRecordedThenTheyShouldBeCountedByReason() {
+        stockMetrics.recordRejection("increment", new BeerStockExceededException(VALID_BEER_ID, 10));
+        stockMetrics.recordRejection("decrement", new BeerNegativeStockException(VALID_BEER_ID, 10));
+        stockMetrics.recordRejection("decrement", new BeerNotFoundException(VALID_BEER_ID));
+
+        assertThat(meterRegistry.get("beerstock.stock.rejections").tag("reason", "max_exceeded").counter().count(), is(1.0));
+        assertThat(meterRegistry.get("beerstock.stock.rejections").tag("reason", "negative_stock").counter().count(), is(1.0));
+        assertThat(meterRegistry.find("beerstock.stock.rejections").tag("reason", "not_found").counter(), is(nullValue()));
+    }
+}
@@ -0,0 +1,229 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.BeerType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+
+public class StockStreamTest {
+
+    private static final int BUFFER_SIZE = 4;
+
+    private MeterRegistry meterRegistry;
+
+    private StockStream stockStream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stockStream = new StockStream(meterRegistry, BUFFER_SIZE, Duration.ofMinutes(30));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        stockStream.shutdown();
+    }
+
+    @Test
+    void whenSubscribersFilterByIdOrTypeThenTheyShouldOnlyReceiveMatchingChanges() throws Exception {
+        RecordingEmitter allBeers = subscribe(Collections.emptySet(), Collections.emptySet());
+        RecordingEmitter firstBeer = subscribe(Collections.singleton(1L), Collections.emptySet());
+        RecordingEmitter stouts = subscribe(Collections.emptySet(), Collections.singleton(BeerType.STOUT));
+        RecordingEmitter firstBeerIfStout = subscribe(Collections.singleton(1L), Collections.singleton(BeerType.STOUT));
+
+        stockStream.onStockChanged(beer(1L, BeerType.IPA, 10, 0L));
+        stockStream.onStockChanged(beer(2L, BeerType.STOUT, 20, 0L));
+
+        await(() -> allBeers.received().size() == 2 && firstBeer.received().size() == 1 && stouts.received().size() == 1);
+        assertThat(ids(allBeers), contains(1L, 2L));
+        assertThat(ids(firstBeer), contains(1L));
+        assertThat(ids(stouts), contains(2L));
+        assertThat(firstBeerIfStout.received(), is(empty()));
+    }
+
+    @Test
+    void whenSubscriberFallsBehindThenPendingChangesOfABeerShouldBeCoalescedToTheLatest() throws Exception {
+        RecordingEmitter slowSubscriber = subscribe(Collections.emptySet(), Collections.emptySet());
+        slowSubscriber.block();
+
+        stockStream.onStockChanged(beer(1L, BeerType.IPA, 1, 0L));
+        await(slowSubscriber::isSending);
+        for (long version = 1; version <= 10; version++) {
+            stockStream.onStockChanged(beer(2L, BeerType.IPA, (int) version, version));
+        }
+        slowSubscriber.release();
+
+        await(() -> slowSubscriber.received().size() == 2);
+        assertThat(slowSubscriber.received().get(1).getQuantity(), is(10));
+        assertThat(meterRegistry.get("beerstock.stream.coalesced").counter().count(), is(9.0));
+    }
+
+    @Test
+    void whenSubscriberBufferOverflowsThenOnlyThatSubscriberShouldBeDropped() throws Exception {
+        RecordingEmitter slowSubscriber = subscribe(Collections.emptySet(), Collections.emptySet());
+        RecordingEmitter fastSubscriber = subscribe(Collections.emptySet(), Collections.emptySet());
+        slowSubscriber.block();
+
+        stockStream.onStockChanged(beer(1L, BeerType.IPA, 1, 0L));
+        await(slowSubscriber::isSending);
+        for (long id = 2; id <= BUFFER_SIZE + 2; id++) {
+            int sentChanges = (int) id;
+            stockStream.onStockChanged(beer(id, BeerType.IPA, 1, 0L));
+            await(() -> fastSubscriber.received().size() == sentChanges);
+        }
+
+        await(slowSubscriber::isCompleted);
+        slowSubscriber.release();
+        assertThat(fastSubscriber.received().size(), is(BUFFER_SIZE + 2));
+        assertThat(meterRegistry.get("beerstock.stream.dropped").counter().count(), is(1.0));
+        assertThat(meterRegistry.get("beerstock.stream.subscribers").gauge().value(), is(1.0));
+    }
+
+    @Test
+    void whenThousandsOfSubscribersListenToConcurrentChangesThenEachShouldEndOnTheLatestQuantities() throws Exception {
+        int subscriberCount = 5_000;
+        int beerCount = 8;
+        int changesPerBeer = 50;
+        stockStream.shutdown();
+        meterRegistry = new SimpleMeterRegistry();
+        stockStream = new StockStream(meterRegistry, beerCount, Duration.ofMinutes(30));
+        List<RecordingEmitter> emitters = new ArrayList<>(subscriberCount);
+        for (int subscriber = 0; subscriber < subscriberCount; subscriber++) {
+            emitters.add(subscriber % 2 == 0
+                    ? subscribe(Collections.emptySet(), Collections.emptySet())
+                    : subscribe(Collections.singleton((long) (subscriber % beerCount) + 1), Collections.emptySet()));
+        }
+
+        ExecutorService writers = Executors.newFixedThreadPool(beerCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (long id = 1; id <= beerCount; id++) {
+            long beerId = id;
+            futures.add(writers.submit(() -> {
+                for (long version = 0; version < changesPerBeer; version++) {
+                    stockStream.onStockChanged(beer(beerId, BeerType.LAGER, (int) version, version));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        writers.shutdown();
+
+        for (int subscriber = 0; subscriber < subscriberCount; subscriber++) {
+            int expectedBeers = subscriber % 2 == 0 ? beerCount : 1;
+            RecordingEmitter emitter = emitters.get(subscriber);
+            await(() -> emitter.endsOnVersion(expectedBeers, changesPerBeer - 1));
+        }
+        assertThat(meterRegistry.get("beerstock.stream.dropped").counter().count(), is(0.0));
+    }
+
+    private RecordingEmitter subscribe(Set<Long> ids, Set<BeerType> types) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stockStream.subscribe(ids, types, emitter);
+        return emitter;
+    }
+
+    private static List<Long> ids(RecordingEmitter emitter) {
+        return emitter.received().stream().map(BeerDTO::getId).collect(Collectors.toList());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(30).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 30 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static Beer beer(Long id, BeerType type, int quantity, Long version) {
+        return Beer.builder()
+                .id(id)
+                .name("Beer " + id)
+                .brand("Brand")
+                .max(100)
+                .quantity(quantity)
+                .type(type)
+                .version(version)
+                .build();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<BeerDTO> beers = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch released = new CountDownLatch(0);
+        private volatile boolean sending;
+        private volatile boolean completed;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sending = true;
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(BeerDTO.class::isInstance)
+                    .map(BeerDTO.class::cast)
+                    .forEach(beers::add);
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        void block() {
+            released = new CountDownLatch(1);
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        boolean isSending() {
+            return sending;
+        }
+
+        boolean isCompleted() {
+            return completed;
+        }
+
+        List<BeerDTO> received() {
+            return beers;
+        }
+
+        boolean endsOnVersion(int expectedBeers, long version) {
+            Map<Long, Long> lastVersions = beers.stream()
+                    .collect(Collectors.toMap(BeerDTO::getId, BeerDTO::getVersion, (previous, next) -> next));
+            return lastVersions.size() == expectedBeers && lastVersions.values().stream().allMatch(lastVersion -> lastVersion == version);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.BeerstockApplication;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.request.BeerDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.dto.response.WarehouseStockDTO;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.entity.Beer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerNegativeStockException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.exception.BeerStockExceededException;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.BeerRepository;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.repository.WarehouseStockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = BeerstockApplication.class)
+public class WarehouseStockServiceTest {
+
+    @Autowired
+    private WarehouseStockService warehouseStockService;
+
+    @Autowired
+    private BeerService beerService;
+
+    @Autowired
+    private BeerRepository beerRepository;
+
+    @Autowired
+    private WarehouseStockRepository warehouseStockRepository;
+
+    @AfterEach
+    void tearDown() {
+        warehouseStockRepository.deleteAll();
+        beerRepository.deleteAll();
+    }
+
+    @Test
+    void whenLocationsAreMovedThenTheBeerTotalsShouldFollowInTheSameTransaction() throws Exception {
+        BeerDTO beerDTO = createBeer(10);
+        warehouseStockService.setCapacity(beerDTO.getId(), 1L, 100);
+        warehouseStockService.setCapacity(beerDTO.getId(), 2L, 100);
+
+        warehouseStockService.increment(beerDTO.getId(), 1L, 30);
+        warehouseStockService.increment(beerDTO.getId(), 2L, 40);
+        warehouseStockService.decrement(beerDTO.getId(), 1L, 5);
+
+        Beer beer = beerRepository.findById(beerDTO.getId()).orElseThrow();
+        assertThat(beer.getQuantity(), is(75));
+        assertThat(beer.getAllocated(), is(65));
+        assertThat(beerService.findById(beerDTO.getId()).getQuantity(), is(75));
+        assertThat(warehouseStockService.listLocations(beerDTO.getId()).stream()
+                .map(WarehouseStockDTO::getQuantity)
+                .collect(Collectors.toList()), contains(25, 40));
+    }
+
+    @Test
+    void whenLocationMovementBreaksItsCapacityOrGoesNegativeThenItShouldBeRejected() throws Exception {
+        BeerDTO beerDTO = createBeer(10);
+        warehouseStockService.setCapacity(beerDTO.getId(), 1L, 20);
+        warehouseStockService.increment(beerDTO.getId(), 1L, 20);
+
+        assertThrows(BeerStockExceededException.class, () -> warehouseStockService.increment(beerDTO.getId(), 1L, 1));
+        assertThrows(BeerStockExceededException.class, () -> warehouseStockService.increment(beerDTO.getId(), 1L, Integer.MAX_VALUE));
+        assertThrows(BeerNegativeStockException.class, () -> warehouseStockService.decrement(beerDTO.getId(), 1L, 21));
+    }
+
+    @Test
+    void whenLocationMovementWouldPushTheBeerAboveItsMaxThenItShouldBeRejectedAndTheLocationKept() throws Exception {
+        BeerDTO beerDTO = beerService.createBeer(BeerDTOBuilder.builder().id(null).max(50).quantity(10).build().toBeerDTO());
+        warehouseStockService.setCapacity(beerDTO.getId(), 1L, 100);
+        warehouseStockService.increment(beerDTO.getId(), 1L, 30);
+
+        assertThrows(BeerStockExceededException.class, () -> warehouseStockService.increment(beerDTO.getId(), 1L, 11));
+
+        Beer beer = beerRepository.findStoredById(beerDTO.getId()).orElseThrow();
+        assertThat(beer.getQuantity(), is(40));
+        assertThat(beer.getAllocated(), is(30));
+        assertThat(warehouseStockService.listLocations(beerDTO.getId()).get(0).getQuantity(), is(30));
+        assertThat(warehouseStockService.increment(beerDTO.getId(), 1L, 10).getQuantity(), is(40));
+    }
+
+    @Test
+    void whenBeerIsMovedWithoutLocationThenLocationStockShouldNotBeConsumed() throws Exception {
+        BeerDTO beerDTO = createBeer(10);
+        warehouseStockService.setCapacity(beerDTO.getId(), 1L, 100);
+        warehouseStockService.increment(beerDTO.getId(), 1L, 20);
+
+        assertThrows(BeerNegativeStockException.class, () -> beerService.decrement(beerDTO.getId(), 11));
+        assertThat(beerService.decrement(beerDTO.getId(), 10).getQuantity(), is(20));
+
+        BeerDTO belowAllocatedDTO = BeerDTOBuilder.builder().id(beerDTO.getId()).max(50).quantity(5).build().toBeerDTO();
+        assertThrows(BeerNegativeStockException.class, () -> beerService.updateById(beerDTO.getId(), belowAllocatedDTO));
+    }
+
+    @Test
+    void whenManyWarehousesMoveTheSameBeerConcurrentlyThenNoMovementShouldBeLostFromTheTotal() throws Exception {
+        int warehouses = 8;
+        int incrementsPerWarehouse = 100;
+        BeerDTO beerDTO = createBeer(10);
+        for (long warehouseId = 1; warehouseId <= warehouses; warehouseId++) {
+            warehouseStockService.setCapacity(beerDTO.getId(), warehouseId, incrementsPerWarehouse);
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(warehouses);
+        List<Future<?>> futures = new ArrayList<>();
+        for (long warehouseId = 1; warehouseId <= warehouses; warehouseId++) {
+            long location = warehouseId;
+            futures.add(executorService.submit(() -> {
+                for (int increment = 0; increment < incrementsPerWarehouse; increment++) {
+                    warehouseStockService.increment(beerDTO.getId(), location, 1);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        Beer beer = beerRepository.findById(beerDTO.getId()).orElseThrow();
+        assertThat(beer.getAllocated(), is(warehouses * incrementsPerWarehouse));
+        assertThat(beer.getQuantity(), is(10 + warehouses * incrementsPerWarehouse));
+    }
+
+    @Test
+    void whenBeerIsDeletedThenItsLocationsShouldBeDeleted() throws Exception {
+        BeerDTO beerDTO = createBeer(10);
+        warehouseStockService.setCapacity(beerDTO.getId(), 1L, 100);
+        warehouseStockService.increment(beerDTO.getId(), 1L, 20);
+
+        beerService.deleteById(beerDTO.getId());
+
+        assertThat(warehouseStockRepository.findByBeerIdOrderByWarehouseIdAsc(beerDTO.getId()), is(empty()));
+        assertThat(beerRepository.existsById(beerDTO.getId()), is(false));
+    }
+
+    private BeerDTO createBeer(int quantity) throws Exception {
+        return beerService.createBeer(BeerDTOBuilder.builder().id(null).max(1000).quantity(quantity).build().toBeerDTO());
+    }
+}
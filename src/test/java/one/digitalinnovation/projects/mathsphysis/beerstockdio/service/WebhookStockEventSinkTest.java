@@ -0,0 +1,82 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.builder.BeerDTOBuilder;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.config.OutboxProperties;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.enums.StockEventType;
+import one.digitalinnovation.projects.mathsphysis.beerstockdio.event.StockChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class WebhookStockEventSinkTest {
+
+    private final List<String> receivedBodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger statusCode = new AtomicInteger(204);
+    private HttpServer webhookStub;
+    private WebhookStockEventSink webhookStockEventSink;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        webhookStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        webhookStub.createContext("/stock-events", exchange -> {
+            receivedBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            exchange.sendResponseHeaders(statusCode.get(), -1);
+            exchange.close();
+        });
+        webhookStub.start();
+
+        OutboxProperties outboxProperties = new OutboxProperties();
+        outboxProperties.setWebhookUrl(URI.create("http://localhost:" + webhookStub.getAddress().getPort() + "/stock-events"));
+        webhookStockEventSink = new WebhookStockEventSink(outboxProperties, new ObjectMapper().findAndRegisterModules());
+    }
+
+    @AfterEach
+    void tearDown() {
+        webhookStub.stop(0);
+    }
+
+    @Test
+    void whenBatchIsPublishedThenItShouldBePostedAsJsonArray() throws Exception {
+        webhookStockEventSink.publish(Collections.singletonList(event()));
+
+        assertThat(receivedBodies.size(), is(1));
+        assertThat(receivedBodies.get(0), startsWith("[{"));
+        assertThat(receivedBodies.get(0), containsString("\"id\":7"));
+        assertThat(receivedBodies.get(0), containsString("\"type\":\"DECREMENTED\""));
+    }
+
+    @Test
+    void whenWebhookAnswersWithAnErrorThenPublishShouldFail() {
+        statusCode.set(503);
+
+        assertThrows(IOException.class, () -> webhookStockEventSink.publish(Collections.singletonList(event())));
+    }
+
+    private static StockChangeEvent event() {
+        return StockChangeEvent.builder()
+                .id(7L)
+                .type(StockEventType.DECREMENTED)
+                .beerId(1L)
+                .beer(BeerDTOBuilder.builder().build().toBeerDTO())
+                .occurredAt(Instant.now())
+                .build();
+    }
+}
@@ -0,0 +1,140 @@
+package one.digitalinnovation.projects.mathsphysis.beerstockdio.utils;
+
+import lombok.Value;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop HTTP load generator: every client sends a request, waits for the response and immediately sends the
+ * next one until the run is over. Each client runs on its own virtual thread, so thousands of them are cheap and
+ * the server, not the generator, is what limits throughput.
+ */
+public class LoadGenerator {
+
+    private final HttpClient httpClient;
+    private final int clients;
+
+    public LoadGenerator(int clients) {
+        this.clients = clients;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    /**
+     * Runs the clients for the given duration. The function receives a request sequence number and returns the URI
+     * to call; any non-2xx response or I/O failure is counted as an error.
+     */
+    public Result run(Duration duration, IntFunction<URI> uriForRequest) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Future<ClientResult>> futures = new ArrayList<>(clients);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int client = 0; client < clients; client++) {
+                int clientNumber = client;
+                futures.add(executor.submit(() -> runClient(clientNumber, deadline, uriForRequest)));
+            }
+        }
+
+        long errors = 0;
+        int samples = 0;
+        for (Future<ClientResult> future : futures) {
+            ClientResult clientResult = future.get();
+            errors += clientResult.getErrors();
+            samples += clientResult.getCount();
+        }
+
+        long[] latencies = new long[samples];
+        int offset = 0;
+        for (Future<ClientResult> future : futures) {
+            ClientResult clientResult = future.get();
+            System.arraycopy(clientResult.getLatencies(), 0, latencies, offset, clientResult.getCount());
+            offset += clientResult.getCount();
+        }
+        Arrays.sort(latencies);
+
+        return new Result(samples, errors, samples / (duration.toMillis() / 1000.0),
+                percentile(latencies, 0.50), percentile(latencies, 0.99));
+    }
+
+    private ClientResult runClient(int clientNumber, long deadline, IntFunction<URI> uriForRequest) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        int sequence = clientNumber;
+
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = HttpRequest.newBuilder(uriForRequest.apply(sequence))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            sequence += clients;
+
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() / 100 != 2) {
+                    errors++;
+                    continue;
+                }
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                errors++;
+                continue;
+            }
+
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+
+        return new ClientResult(latencies, count, errors);
+    }
+
+    private static Duration percentile(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return Duration.ZERO;
+        }
+        int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+        return Duration.ofNanos(sortedLatencies[Math.max(index, 0)]);
+    }
+
+    @Value
+    private static class ClientResult {
+        long[] latencies;
+        int count;
+        long errors;
+    }
+
+    @Value
+    public static class Result {
+        long requests;
+        long errors;
+        double throughput;
+        Duration p50;
+        Duration p99;
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d errors, %.0f req/s, p50 %d ms, p99 %d ms",
+                    requests, errors, throughput, p50.toMillis(), p99.toMillis());
+        }
+    }
+}